@@ -37,7 +37,6 @@ interface Movie {
     director: string;
     releaseYear: number;
     genre: string;
-    reviews?: Array<Review>;
 }
 
 interface Showtime {
@@ -78,6 +77,31 @@ interface Review {
     movie: { id: number; } | null;
 }
 
+// Отзыв в постраничной выдаче: от пользователя только ID и логин
+interface ReviewView {
+    id: number;
+    rating: number;
+    content?: string;
+    movieId: number;
+    userId: number;
+    username: string;
+}
+
+interface ReviewPage {
+    items: ReviewView[];
+    nextCursor: string | null;
+}
+
+type ReviewSort = 'recent' | 'rating';
+
+// Предрасчитанные на сервере агрегаты оценок фильма
+interface MovieRating {
+    movieId: number;
+    reviewCount: number;
+    averageRating: number | null;
+    histogram: Record<number, number>;
+}
+
 interface ReviewFormData {
     id?: number;
     movieId: number;
@@ -100,6 +124,7 @@ interface MovieDetailsPageProps {
 const ROWS = 5;
 const SEATS_PER_ROW = 10;
 const SEAT_PRICE = 300;
+const REVIEWS_PAGE_SIZE = 10;
 
 // --- URL'ы бэкенда ---
 const MOVIES_API_URL = 'http://localhost:8080/api/movies';
@@ -118,6 +143,9 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
     const [movie, setMovie] = useState<Movie | null>(null);
     const [showtimes, setShowtimes] = useState<Showtime[]>([]);
     const [reviews, setReviews] = useState<Review[]>([]);
+    const [reviewsCursor, setReviewsCursor] = useState<string | null>(null);
+    const [reviewSort, setReviewSort] = useState<ReviewSort>('recent');
+    const [movieRating, setMovieRating] = useState<MovieRating | null>(null);
 
     const [selectedShowtime, setSelectedShowtime] = useState<Showtime | null>(null);
 
@@ -155,15 +183,6 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
     const [isSubmittingMovie, setIsSubmittingMovie] = useState(false);
 
 
-    const calculateAverageRating = (reviewsToCalculate?: Review[]): number | null => {
-        const reviewsList = reviewsToCalculate || reviews;
-        if (!reviewsList || reviewsList.length === 0) return null;
-        const validRatings = reviewsList.filter(r => r.rating !== undefined && r.rating !== null && typeof r.rating === 'number' && r.rating >= 1 && r.rating <= 10);
-        if (validRatings.length === 0) return null;
-        const totalRating = validRatings.reduce((sum, r) => sum + r.rating, 0);
-        return totalRating / validRatings.length;
-    };
-
     const getRatingColor = (rating: number): string => {
         if (rating >= 8) return '#4caf50';
         if (rating >= 5) return '#ffeb3b';
@@ -171,51 +190,81 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
     };
 
 
-    const fetchReviewsForMovie = async (id: number | null) => {
+    // Отзывы грузятся страницами; cursor - токен следующей страницы, без него список начинается заново
+    const fetchReviewsForMovie = async (id: number | null, cursor: string | null = null, sort: ReviewSort = reviewSort) => {
         if (id === null) {
             setReviews([]);
+            setReviewsCursor(null);
             setReviewsError(null);
             setReviewsLoading(false);
             return;
         }
-        const url = `${REVIEWS_BY_MOVIE_API_URL_BASE}/${id}`;
+        const params = new URLSearchParams({ sort, limit: String(REVIEWS_PAGE_SIZE) });
+        if (cursor) {
+            params.set('cursor', cursor);
+        }
+        const url = `${REVIEWS_BY_MOVIE_API_URL_BASE}/${id}/page?${params.toString()}`;
 
         setReviewsLoading(true);
         setReviewsError(null);
 
         try {
-            const response = await axios.get<Review[]>(url);
+            const response = await axios.get<ReviewPage>(url);
 
-            if (!Array.isArray(response.data)) {
-                if (response.status === 204) {
-                    setReviews([]);
-                    setReviewsLoading(false);
-                    setReviewsError(null);
-                    return;
-                }
+            if (!response.data || !Array.isArray(response.data.items)) {
                 throw new Error("Некорректный формат данных отзывов.");
             }
 
-            const formattedReviews: Review[] = response.data.map(review => ({
-                ...review,
-                user: review.user ? { id: review.user.id, username: review.user.username } : null,
-                movie: review.movie ? { id: review.movie.id } : null,
+            const pageReviews: Review[] = response.data.items.map(review => ({
+                id: review.id,
+                rating: review.rating,
+                content: review.content,
+                user: { id: review.userId, username: review.username },
+                movie: { id: review.movieId },
             }));
 
-
-            setReviews(formattedReviews);
+            setReviews(previous => cursor ? [...previous, ...pageReviews] : pageReviews);
+            setReviewsCursor(response.data.nextCursor);
             setReviewsLoading(false);
             setReviewsError(null);
 
         } catch (err: any) {
             const errorMessage = err.message || err.response?.data?.message || err.response?.data || err;
             console.error(`Error fetching reviews for movie ID ${id}:`, errorMessage);
-            setReviews([]);
+            if (!cursor) {
+                setReviews([]);
+            }
             setReviewsError('Не удалось загрузить отзывы.');
             setReviewsLoading(false);
         }
     };
 
+    const fetchRatingForMovie = async (id: number | null) => {
+        if (id === null) {
+            setMovieRating(null);
+            return;
+        }
+        try {
+            const response = await axios.get<MovieRating>(`${MOVIES_API_URL}/${id}/rating`);
+            setMovieRating(response.data);
+        } catch (err: any) {
+            console.error(`Error fetching rating for movie ID ${id}:`, err.response?.data || err.message || err);
+            setMovieRating(null);
+        }
+    };
+
+    const handleReviewSortChange = (event: SelectChangeEvent) => {
+        const sort = event.target.value as ReviewSort;
+        setReviewSort(sort);
+        fetchReviewsForMovie(movieId, null, sort);
+    };
+
+    // Отзывы и агрегаты меняются вместе: после сохранения или удаления перечитываем оба
+    const refreshReviews = (id: number | null) => {
+        fetchReviewsForMovie(id);
+        fetchRatingForMovie(id);
+    };
+
     const fetchShowtimesForMovie = async (id: number | null) => {
         setSelectedShowtime(null);
 
@@ -358,6 +407,8 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
         setMovie(null);
         setShowtimes([]);
         setReviews([]);
+        setReviewsCursor(null);
+        setMovieRating(null);
         setSelectedShowtime(null);
 
         axios.get<Movie>(`${MOVIES_API_URL}/${movieId}`)
@@ -374,7 +425,7 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
             });
 
         fetchShowtimesForMovie(movieId);
-        fetchReviewsForMovie(movieId);
+        refreshReviews(movieId);
 
     }, [movieId]);
 
@@ -627,7 +678,7 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
             }
 
             if (movie) {
-                fetchReviewsForMovie(movie.id);
+                refreshReviews(movie.id);
             }
 
             handleCloseReviewModal();
@@ -647,7 +698,7 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
                 await axios.delete(`${REVIEWS_API_URL}/${id}`);
                 setReviews(reviews.filter(rev => rev.id !== id));
                 if (movieId !== null) {
-                    fetchReviewsForMovie(movieId);
+                    refreshReviews(movieId);
                 }
 
             } catch (err: any) {
@@ -795,7 +846,7 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
         return <Typography color="textSecondary" sx={{ mt: 4, textAlign: 'center' }}>Фильм не найден.</Typography>;
     }
 
-    const averageRating = calculateAverageRating(reviews);
+    const averageRating = movieRating?.averageRating ?? null;
     const hasNumericRating = typeof averageRating === 'number';
     const ratingColor = hasNumericRating ? getRatingColor(averageRating!) : '#ffffff';
 
@@ -822,7 +873,7 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
                             Нет оценок
                         </Typography>
                     )}
-                    <Typography variant="body2" sx={{ ml: 1, color: '#bdbdbd' }}>({reviews.length})</Typography>
+                    <Typography variant="body2" sx={{ ml: 1, color: '#bdbdbd' }}>({movieRating?.reviewCount ?? 0})</Typography>
                 </Box>
             </Paper>
 
@@ -918,6 +969,19 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
             <Box sx={{ mb: 6, pb: 2 }}>
                 <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center', mb: 2 }}>
                     <Typography variant="h5" sx={{ color: '#ffffff' }}>Отзывы</Typography>
+                    <FormControl size="small" sx={{ minWidth: 160 }}>
+                        <InputLabel id="review-sort-label" sx={{ color: '#bdbdbd' }}>Сортировка</InputLabel>
+                        <Select
+                            labelId="review-sort-label"
+                            value={reviewSort}
+                            label="Сортировка"
+                            onChange={handleReviewSortChange}
+                            sx={{ color: '#ffffff' }}
+                        >
+                            <MenuItem value="recent">Сначала новые</MenuItem>
+                            <MenuItem value="rating">Сначала лучшие</MenuItem>
+                        </Select>
+                    </FormControl>
                     {currentUser ? (
                         <Button variant="contained" startIcon={<AddIcon />} onClick={() => handleOpenReviewModal()}>
                             Оставить отзыв
@@ -926,12 +990,11 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
                         <Typography color="textSecondary" sx={{ color: '#bdbdbd' }}>Войдите, чтобы оставить отзыв.</Typography>
                     )}
                 </Box>
-                {reviewsLoading && <Box sx={{ display: 'flex', justifyContent: 'center' }}><CircularProgress size={24} /></Box>}
                 {reviewsError && <Typography color="error">{reviewsError}</Typography>}
                 {!reviewsLoading && !reviewsError && reviews.length === 0 && (
                     <Typography color="textSecondary" sx={{ color: '#bdbdbd' }}>Отзывов для этого фильма пока нет. Будьте первым!</Typography>
                 )}
-                {!reviewsLoading && !reviewsError && reviews.length > 0 && (
+                {reviews.length > 0 && (
                     <List sx={{
                         bgcolor: '#212121',
                         color: '#ffffff',
@@ -985,6 +1048,14 @@ function MovieDetailsPage({ currentUser }: MovieDetailsPageProps) {
                         ))}
                     </List>
                 )}
+                {reviewsLoading && <Box sx={{ display: 'flex', justifyContent: 'center' }}><CircularProgress size={24} /></Box>}
+                {!reviewsLoading && reviewsCursor && (
+                    <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+                        <Button variant="outlined" onClick={() => fetchReviewsForMovie(movieId, reviewsCursor)}>
+                            Показать ещё
+                        </Button>
+                    </Box>
+                )}
             </Box>
 
 
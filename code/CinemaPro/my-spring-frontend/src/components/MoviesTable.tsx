@@ -34,8 +34,9 @@ interface Movie {
     director: string;
     releaseYear: number;
     genre: string;
-    reviews?: Array<{ id: number; rating: number }>;
-    showtimes?: Array<{ id: number }>;
+    // Агрегаты оценок приходят с сервера, сами отзывы в каталог не грузятся
+    reviewCount: number;
+    averageRating: number | null;
 }
 
 interface DialogFormData {
@@ -72,19 +73,6 @@ function MoviesTable() {
     const API_URL = 'http://localhost:8080/api/movies';
 
 
-    const calculateAverageRating = (reviews?: Movie['reviews']): number | null => {
-        if (!reviews || reviews.length === 0) return null;
-        const validRatings = reviews.filter(
-            review => review.rating !== undefined
-                && review.rating !== null
-                && typeof review.rating === 'number'
-        );
-        if (validRatings.length === 0) return null;
-        const totalRating = validRatings.reduce((sum, review) => sum + review.rating, 0);
-        const average = totalRating / validRatings.length;
-        return average;
-    };
-
     const getRatingColor = (averageRating: number): string => {
         if (averageRating >= 8) return '#4caf50'; // Зеленый
         if (averageRating >= 5) return '#ffeb3b'; // Желтый
@@ -101,12 +89,7 @@ function MoviesTable() {
         setLoading(true);
         axios.get<Movie[]>(API_URL)
             .then(response => {
-                const formattedMovies = response.data.map(movie => ({
-                    ...movie,
-                    reviews: movie.reviews || [],
-                    showtimes: movie.showtimes || []
-                }));
-                setMovies(formattedMovies);
+                setMovies(response.data);
                 setLoading(false);
                 setError(null);
             })
@@ -243,7 +226,7 @@ function MoviesTable() {
 
         apiCall
             .then(() => {
-                fetchMovies(); // Перезагрузка всего списка гарантирует актуальность отзывов
+                fetchMovies(); // Перезагрузка всего списка гарантирует актуальность оценок
                 handleCloseModal();
                 console.log(`Фильм с ID ${dialogFormData.id || 'новый'} успешно сохранен.`); // Логирование успеха
             })
@@ -526,7 +509,7 @@ function MoviesTable() {
                     </TableHead>
                     <TableBody>
                         {movies.map((movie) => {
-                            const averageRating = calculateAverageRating(movie.reviews);
+                            const averageRating = movie.averageRating;
                             const hasNumericRating = typeof averageRating === 'number';
                             const ratingColor = hasNumericRating
                                 ? getRatingColor(averageRating!)
@@ -607,7 +590,7 @@ function MoviesTable() {
                                                 variant="caption"
                                                 sx={{ color: textColor, opacity: 0.7 }}
                                             >
-                                                ({movie.reviews ? movie.reviews.length : 0})
+                                                ({movie.reviewCount})
                                             </Typography>
                                         </Box>
                                     </TableCell>
@@ -0,0 +1,153 @@
+package com.matvey.cinema.archive;
+
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.model.dto.ArchiveReport;
+import com.matvey.cinema.schedule.TheaterOccupancyIndex;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves showtimes that started more than {@code archive.retention-days} ago, together with their
+ * tickets, into {@code showtimes_archive} and {@code tickets_archive}. Each chunk of
+ * {@code archive.batch-size} showtimes is copied and deleted in its own short transaction, with
+ * a pause between chunks, so the nightly run never holds locks on the live tables for long.
+ * Hot queries then only see live rows; history is read through the archive repositories.
+ */
+@Component
+public class ShowtimeArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(ShowtimeArchiver.class);
+
+    private static final String SELECT_EXPIRED_SQL =
+            "SELECT id FROM showtimes WHERE starts_at < :cutoff ORDER BY starts_at, id LIMIT :limit";
+    private static final String COPY_TICKETS_SQL =
+            "INSERT INTO tickets_archive (id, seat_number, price, showtime_id, user_id, seat_id, archived_at) "
+                    + "SELECT id, seat_number, price, showtime_id, user_id, seat_id, :archivedAt "
+                    + "FROM tickets WHERE showtime_id IN (:ids)";
+    private static final String COPY_SHOWTIMES_SQL =
+            "INSERT INTO showtimes_archive (id, date_time, type, starts_at, movie_id, theater_id, archived_at) "
+                    + "SELECT id, date_time, type, starts_at, movie_id, theater_id, :archivedAt "
+                    + "FROM showtimes WHERE id IN (:ids)";
+    // Удаляем только скопированные билеты: купленный за это время билет не даст удалить сеанс
+    // по внешнему ключу, и пачка откатится целиком
+    private static final String DELETE_TICKETS_SQL =
+            "DELETE FROM tickets WHERE showtime_id IN (:ids) "
+                    + "AND id IN (SELECT id FROM tickets_archive WHERE showtime_id IN (:ids))";
+    private static final String DELETE_SHOWTIMES_SQL = "DELETE FROM showtimes WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InMemoryCache cache;
+    private final SeatOccupancyRegistry seatOccupancyRegistry;
+    private final TheaterOccupancyIndex occupancyIndex;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long pauseMs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ShowtimeArchiver(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            InMemoryCache cache, SeatOccupancyRegistry seatOccupancyRegistry,
+                            TheaterOccupancyIndex occupancyIndex,
+                            @Value("${archive.retention-days:90}") int retentionDays,
+                            @Value("${archive.batch-size:500}") int batchSize,
+                            @Value("${archive.pause-ms:200}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = cache;
+        this.seatOccupancyRegistry = seatOccupancyRegistry;
+        this.occupancyIndex = occupancyIndex;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+    }
+
+    // По умолчанию ночью, когда продаж почти нет
+    @Scheduled(cron = "${archive.cron:0 30 4 * * *}")
+    public void archiveExpired() {
+        archive(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Archives every showtime that started before {@code cutoff}. Concurrent runs are skipped.
+     * A chunk that fails is rolled back and the run stops; the next run retries it.
+     */
+    public ArchiveReport archive(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Archive run skipped: previous run is still in progress");
+            return new ArchiveReport(cutoff, 0, 0, 0);
+        }
+        int showtimes = 0;
+        int tickets = 0;
+        int chunks = 0;
+        try {
+            while (true) {
+                int[] moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                if (moved == null || moved[0] == 0) {
+                    break;
+                }
+                showtimes += moved[0];
+                tickets += moved[1];
+                chunks++;
+                if (moved[0] < batchSize || !pause()) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.error("Archive chunk failed after {} chunks, will retry next run: {}", chunks, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        if (showtimes > 0) {
+            // Ключи кэшей сеансов и билетов разнородны, проще сбросить кэш после ночного прогона
+            cache.clear();
+            occupancyIndex.invalidateAll();
+        }
+        logger.info("Archived {} showtimes and {} tickets older than {} in {} chunks",
+                showtimes, tickets, cutoff, chunks);
+        return new ArchiveReport(cutoff, showtimes, tickets, chunks);
+    }
+
+    private int[] archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_SQL, new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        int tickets = jdbcTemplate.update(COPY_TICKETS_SQL, params);
+        jdbcTemplate.update(COPY_SHOWTIMES_SQL, params);
+        jdbcTemplate.update(DELETE_TICKETS_SQL, params);
+        int showtimes = jdbcTemplate.update(DELETE_SHOWTIMES_SQL, params);
+        ids.forEach(seatOccupancyRegistry::evict);
+        logger.debug("Archive chunk: {} showtimes, {} tickets", showtimes, tickets);
+        return new int[] {showtimes, tickets};
+    }
+
+    // Пауза между пачками, чтобы не забирать соединения и блокировки у живого трафика
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.matvey.cinema.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every call of a Spring Data repository, including inherited methods such as
+ * {@code findById}. Latency goes to the {@code repository.invocations} timer tagged with the
+ * repository and method; calls slower than {@code repository.slow-threshold-ms} are logged with
+ * the shape of their arguments (types and sizes, never values) and counted in
+ * {@code repository.slow.invocations}.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+    private static final Logger logger = LoggerFactory.getLogger("sql.slow.repository");
+
+    static final String TIMER_NAME = "repository.invocations";
+    static final String SLOW_COUNTER_NAME = "repository.slow.invocations";
+    private static final String REPOSITORY_PACKAGE = "com.matvey.cinema.repository";
+
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryTimingAspect(MeterRegistry registry,
+                                  @Value("${repository.slow-threshold-ms:100}") long slowThresholdMs) {
+        this.registry = registry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+    }
+
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void repositoryMethodPointcut() {
+    }
+
+    @Around("repositoryMethodPointcut()")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getThis());
+        String method = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(repository, method).record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed >= slowThresholdNanos) {
+                Counter.builder(SLOW_COUNTER_NAME)
+                        .tag("repository", repository).tag("method", method)
+                        .register(registry)
+                        .increment();
+                logger.warn("Slow repository call {}.{}({}) took {} ms", repository, method,
+                        argumentShapes(joinPoint.getArgs()), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    private Timer timer(String repository, String method) {
+        return timers.computeIfAbsent(repository + "." + method, key -> Timer.builder(TIMER_NAME)
+                .tag("repository", repository).tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    // Прокси репозитория реализует наш интерфейс; по нему и называем метрику
+    private String repositoryName(Object proxy) {
+        if (proxy == null) {
+            return "unknown";
+        }
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass ->
+                Arrays.stream(AopProxyUtils.proxiedUserInterfaces(proxy))
+                        .filter(type -> type.getPackageName().startsWith(REPOSITORY_PACKAGE))
+                        .map(Class::getSimpleName)
+                        .findFirst()
+                        .orElse(proxyClass.getSimpleName()));
+    }
+
+    static String argumentShapes(Object[] args) {
+        return Arrays.stream(args).map(RepositoryTimingAspect::shape).collect(Collectors.joining(", "));
+    }
+
+    private static String shape(Object arg) {
+        if (arg == null) {
+            return "null";
+        }
+        String type = arg.getClass().getSimpleName();
+        if (arg instanceof Collection<?> collection) {
+            return type + "[" + collection.size() + "]";
+        }
+        if (arg instanceof CharSequence text) {
+            return type + "(" + text.length() + ")";
+        }
+        return type;
+    }
+}
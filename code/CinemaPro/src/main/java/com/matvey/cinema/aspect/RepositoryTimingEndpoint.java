@@ -0,0 +1,64 @@
+package com.matvey.cinema.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/repositories}: repository methods ordered by total time spent in them, so the
+ * calls worth optimising come first. {@code ?sort=p95} or {@code ?sort=max} orders by latency.
+ */
+@Component
+@Endpoint(id = "repositories")
+public class RepositoryTimingEndpoint {
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MeterRegistry registry;
+
+    public RepositoryTimingEndpoint(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public List<RepositoryMethodTiming> topOffenders(@Nullable String sort, @Nullable Integer limit) {
+        Comparator<RepositoryMethodTiming> order = switch (sort == null ? "total" : sort) {
+            case "p95" -> Comparator.comparingDouble(RepositoryMethodTiming::p95Ms);
+            case "max" -> Comparator.comparingDouble(RepositoryMethodTiming::maxMs);
+            case "count" -> Comparator.comparingLong(RepositoryMethodTiming::count);
+            default -> Comparator.comparingDouble(RepositoryMethodTiming::totalMs);
+        };
+        return registry.find(RepositoryTimingAspect.TIMER_NAME).timers().stream()
+                .map(this::toTiming)
+                .sorted(order.reversed())
+                .limit(limit == null ? DEFAULT_LIMIT : limit)
+                .toList();
+    }
+
+    private RepositoryMethodTiming toTiming(Timer timer) {
+        String repository = timer.getId().getTag("repository");
+        String method = timer.getId().getTag("method");
+        double p95 = Arrays.stream(timer.takeSnapshot().percentileValues())
+                .filter(value -> value.percentile() == 0.95)
+                .mapToDouble(value -> value.value(TimeUnit.MILLISECONDS))
+                .findFirst()
+                .orElse(Double.NaN);
+        Counter slow = registry.find(RepositoryTimingAspect.SLOW_COUNTER_NAME)
+                .tag("repository", repository).tag("method", method)
+                .counter();
+        return new RepositoryMethodTiming(repository + "." + method, timer.count(),
+                timer.totalTime(TimeUnit.MILLISECONDS), timer.mean(TimeUnit.MILLISECONDS), p95,
+                timer.max(TimeUnit.MILLISECONDS), slow == null ? 0 : (long) slow.count());
+    }
+
+    public record RepositoryMethodTiming(String method, long count, double totalMs, double meanMs,
+                                         double p95Ms, double maxMs, long slowCount) {
+    }
+}
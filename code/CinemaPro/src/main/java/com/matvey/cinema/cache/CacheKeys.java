@@ -3,7 +3,6 @@ package com.matvey.cinema.cache;
 public class CacheKeys {
     public static final String MOVIE_PREFIX = "movie:"; // For caching single movies by ID
     public static final String MOVIES_ALL = "movies:all"; // For caching all movies
-    public static final String MOVIES_ALL_WITH_REVIEWS = "movies:all:withReviews";
 
     public static final String REVIEW_PREFIX = "review_";
     public static final String REVIEWS_ALL = "reviews_all";
@@ -22,6 +21,7 @@ public class CacheKeys {
     public static final String SHOWTIMES_ALL = "showtimes_all";
     public static final String SHOWTIMES_THEATER_PREFIX = "showtimes_theater_";
     public static final String SHOWTIMES_MOVIE_PREFIX = "showtimes_movie_";
+    public static final String SHOWTIME_PRICES_PREFIX = "showtime_prices_";
 
     public static final String THEATER_PREFIX = "theater_";
     public static final String THEATERS_ALL = "theaters_all";
@@ -0,0 +1,77 @@
+package com.matvey.cinema.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.ToDoubleFunction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes hit/miss counters and hit ratios of the Hibernate second-level cache (per region),
+ * the query cache and the application-level {@link InMemoryCache} under the common
+ * {@code cache.gets} / {@code cache.hit.ratio} meters, so both caches can be compared in
+ * {@code /actuator/metrics}. Hibernate counts nothing unless {@code cache.metrics.hibernate-statistics}
+ * is on; without it only the in-memory cache is published instead of ratios stuck at zero.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(CacheMetrics.class);
+
+    private final Statistics statistics;
+    private final InMemoryCache inMemoryCache;
+
+    public CacheMetrics(EntityManagerFactory entityManagerFactory, InMemoryCache inMemoryCache) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.inMemoryCache = inMemoryCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "inmemory", inMemoryCache, InMemoryCache::getHits, InMemoryCache::getMisses);
+        Gauge.builder("cache.size", inMemoryCache, InMemoryCache::size)
+                .tag("cache", "inmemory")
+                .register(registry);
+
+        if (!statistics.isStatisticsEnabled()) {
+            logger.info("Hibernate statistics are off, second-level and query cache metrics are not published.");
+            return;
+        }
+        bindCache(registry, "hibernate.l2", statistics,
+                Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount);
+        bindCache(registry, "hibernate.query", statistics,
+                Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            bindCache(registry, "hibernate.l2." + region, regionStatistics,
+                    CacheRegionStatistics::getHitCount, CacheRegionStatistics::getMissCount);
+        }
+    }
+
+    private <T> void bindCache(MeterRegistry registry, String cacheName, T source,
+                               ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        FunctionCounter.builder("cache.gets", source, hits)
+                .tag("cache", cacheName).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", source, misses)
+                .tag("cache", cacheName).tag("result", "miss")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", source, s -> hitRatio(hits.applyAsDouble(s), misses.applyAsDouble(s)))
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    private static double hitRatio(double hits, double misses) {
+        double total = hits + misses;
+        return total == 0 ? 0 : hits / total;
+    }
+}
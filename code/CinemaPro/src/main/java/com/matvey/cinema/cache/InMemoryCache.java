@@ -1,11 +1,16 @@
 package com.matvey.cinema.cache;
 
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,8 +20,13 @@ public class InMemoryCache {
     private final long ttl;
     private final Map<String, CacheValue<Object>> cache;
     private final ScheduledExecutorService scheduler;
+    private final ReplicaLagGuard replicaLagGuard;
+    // Счётчики для метрик, см. CacheMetrics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
 
-    public InMemoryCache() {
+    public InMemoryCache(ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
         this.maxSize = 100;
         this.ttl = 600000;
         this.cache = new HashMap<>(maxSize);
@@ -25,6 +35,10 @@ public class InMemoryCache {
     }
 
     public void put(String key, Object value) {
+        // Данные с реплики могут быть старше записи, которая уже вытеснила этот ключ
+        if (!replicaLagGuard.canCache()) {
+            return;
+        }
         if (cache.size() >= maxSize) {
             removeEldestEntry();
         }
@@ -35,11 +49,27 @@ public class InMemoryCache {
         CacheValue<Object> cacheValue = cache.get(key);
         if (cacheValue != null && !isExpired(cacheValue)) {
             cacheValue.timestamp = System.currentTimeMillis();
+            hits.incrementAndGet();
             return Optional.of(cacheValue.value);
         }
+        misses.incrementAndGet();
         return Optional.empty();
     }
 
+    /**
+     * Multi-get: returns the cached entries of the given IDs that hold a value of the expected type.
+     * IDs missing from the result have to be loaded by the caller in one batch.
+     */
+    public <T> Map<Long, T> getAll(Collection<Long> ids, Function<Long, String> keyOf, Class<T> type) {
+        Map<Long, T> found = new LinkedHashMap<>();
+        for (Long id : ids) {
+            get(keyOf.apply(id))
+                    .filter(type::isInstance)
+                    .ifPresent(value -> found.put(id, type.cast(value)));
+        }
+        return found;
+    }
+
     public void evict(String key) {
         cache.remove(key);
     }
@@ -48,6 +78,18 @@ public class InMemoryCache {
         cache.clear();
     }
 
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
     private boolean isExpired(CacheValue<Object> cacheValue) {
         return (System.currentTimeMillis() - cacheValue.timestamp) > ttl;
     }
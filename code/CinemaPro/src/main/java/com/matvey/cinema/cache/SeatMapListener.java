@@ -0,0 +1,16 @@
+package com.matvey.cinema.cache;
+
+import java.util.Collection;
+
+/**
+ * Subscriber to seat-map changes of a showtime. Called by {@link SeatOccupancyRegistry}
+ * after the transaction that changed the seats has committed.
+ */
+public interface SeatMapListener {
+
+    default void onSeatsOccupied(Long showtimeId, Collection<String> seatNumbers) {
+    }
+
+    default void onSeatsReleased(Long showtimeId, Collection<String> seatNumbers) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.matvey.cinema.cache;
+
+import com.matvey.cinema.repository.TicketRepository;
+import com.matvey.cinema.transaction.TransactionCallbacks;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory occupancy state of every showtime: the set of taken seat numbers ("Ряд-Место").
+ * A showtime is loaded from the database on first access and then kept up to date by the
+ * ticket service, so price and availability lookups do not have to query the tickets table.
+ * Every change is fanned out to the registered {@link SeatMapListener}s.
+ *
+ * <p>Seats are taken only through {@link #tryClaim}; every change of a showtime's seat set,
+ * including rollback of a claim and {@link #release}, is made under the monitor of that set.
+ * Reads do not lock.
+ */
+@Component
+public class SeatOccupancyRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SeatOccupancyRegistry.class);
+
+    private final TicketRepository ticketRepository;
+    private final ObjectProvider<SeatMapListener> listeners;
+    private final Map<Long, Set<String>> occupiedSeats = new ConcurrentHashMap<>();
+
+    public SeatOccupancyRegistry(TicketRepository ticketRepository,
+                                 ObjectProvider<SeatMapListener> listeners) {
+        this.ticketRepository = ticketRepository;
+        this.listeners = listeners;
+    }
+
+    public Set<String> getOccupiedSeats(Long showtimeId) {
+        return Collections.unmodifiableSet(seatsOf(showtimeId));
+    }
+
+    public int countOccupied(Long showtimeId) {
+        return seatsOf(showtimeId).size();
+    }
+
+    public boolean isOccupied(Long showtimeId, String seatNumber) {
+        return seatsOf(showtimeId).contains(seatNumber);
+    }
+
+    /**
+     * Atomically takes the seats if none of them is occupied yet. The claim is visible to other
+     * buyers immediately and is rolled back if the surrounding transaction does not commit.
+     */
+    public boolean tryClaim(Long showtimeId, Collection<String> seatNumbers) {
+        Set<String> seats = seatsOf(showtimeId);
+        synchronized (seats) {
+            for (String seatNumber : seatNumbers) {
+                if (seats.contains(seatNumber)) {
+                    return false;
+                }
+            }
+            seats.addAll(seatNumbers);
+        }
+
+        TransactionCallbacks.onRollback(() -> {
+            synchronized (seats) {
+                seats.removeAll(seatNumbers);
+            }
+            logger.debug("Claim of seats {} for showtime ID: {} rolled back", seatNumbers, showtimeId);
+        });
+        TransactionCallbacks.afterCommit(() -> listeners.orderedStream()
+                .forEach(listener -> listener.onSeatsOccupied(showtimeId, seatNumbers)));
+        return true;
+    }
+
+    public void release(Long showtimeId, Collection<String> seatNumbers) {
+        TransactionCallbacks.afterCommit(() -> {
+            // Незагруженный сеанс не трогаем: при первом обращении он прочитается из БД уже без этих мест
+            Set<String> seats = occupiedSeats.get(showtimeId);
+            if (seats != null) {
+                synchronized (seats) {
+                    seats.removeAll(seatNumbers);
+                }
+            }
+            logger.debug("Seats {} released for showtime ID: {}", seatNumbers, showtimeId);
+            listeners.orderedStream().forEach(listener -> listener.onSeatsReleased(showtimeId, seatNumbers));
+        });
+    }
+
+    public void evict(Long showtimeId) {
+        occupiedSeats.remove(showtimeId);
+    }
+
+    private Set<String> seatsOf(Long showtimeId) {
+        return occupiedSeats.computeIfAbsent(showtimeId, id -> {
+            Set<String> seats = ConcurrentHashMap.newKeySet();
+            seats.addAll(ticketRepository.findSeatNumbersByShowtimeId(id));
+            logger.info("Occupancy for showtime ID: {} loaded, {} seats taken.", id, seats.size());
+            return seats;
+        });
+    }
+}
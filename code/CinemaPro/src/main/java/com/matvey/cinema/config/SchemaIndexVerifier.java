@@ -0,0 +1,132 @@
+package com.matvey.cinema.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the indexes and unique constraints declared in {@code @Table} on the entities with
+ * the ones that actually exist in the database and warns about every missing one.
+ * {@code ddl-auto=update} does not fail when it cannot create an index (for example, a unique
+ * key over rows that already contain duplicates), so without this check the gap goes unnoticed.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.index-check.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    public SchemaIndexVerifier(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        List<String> missing = findMissingIndexes();
+        if (missing.isEmpty()) {
+            logger.info("Schema index check passed: all declared indexes and unique keys are present.");
+        } else {
+            missing.forEach(description -> logger.warn("Schema index check: missing {}", description));
+        }
+    }
+
+    /**
+     * Returns a description of every declared index or unique key without a matching database index.
+     * A regular index is satisfied by any index whose leading columns match; a unique key needs a
+     * unique index on exactly its columns.
+     */
+    public List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if (table == null || (table.indexes().length == 0 && table.uniqueConstraints().length == 0)) {
+                    continue;
+                }
+                List<DbIndex> existing = readIndexes(metaData, connection.getCatalog(), table.name());
+                for (Index index : table.indexes()) {
+                    List<String> columns = parseColumnList(index.columnList());
+                    boolean present = existing.stream()
+                            .anyMatch(db -> db.startsWith(columns) && (!index.unique() || db.unique()));
+                    if (!present) {
+                        missing.add("index " + index.name() + " on " + table.name() + columns);
+                    }
+                }
+                for (UniqueConstraint constraint : table.uniqueConstraints()) {
+                    List<String> columns = Arrays.stream(constraint.columnNames())
+                            .map(column -> column.toLowerCase(Locale.ROOT))
+                            .toList();
+                    boolean present = existing.stream()
+                            .anyMatch(db -> db.unique() && db.columns().equals(columns));
+                    if (!present) {
+                        missing.add("unique key " + constraint.name() + " on " + table.name() + columns);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Schema index check skipped: could not read database metadata: {}", e.getMessage());
+        }
+        return missing;
+    }
+
+    private List<DbIndex> readIndexes(DatabaseMetaData metaData, String catalog, String tableName)
+            throws SQLException {
+        Map<String, DbIndex> indexes = new TreeMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(catalog, null, tableName, false, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue; // строки статистики таблицы
+                }
+                boolean unique = !rs.getBoolean("NON_UNIQUE");
+                DbIndex index = indexes.computeIfAbsent(indexName, name -> new DbIndex(new TreeMap<>(), unique));
+                index.positions().put(rs.getInt("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+        return new ArrayList<>(indexes.values());
+    }
+
+    private static List<String> parseColumnList(String columnList) {
+        return Arrays.stream(columnList.split(","))
+                .map(String::trim)
+                .map(column -> column.split("\\s+")[0]) // отбрасываем ASC/DESC
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private record DbIndex(TreeMap<Integer, String> positions, boolean unique) {
+
+        List<String> columns() {
+            return List.copyOf(positions.values());
+        }
+
+        boolean startsWith(List<String> leading) {
+            List<String> columns = columns();
+            return columns.size() >= leading.size() && columns.subList(0, leading.size()).equals(leading);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.matvey.cinema.config;
+
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills {@code showtimes.starts_at} for rows created before the column existed by parsing the
+ * legacy {@code dateTime} string. Runs once at startup in small transactions; rows whose string
+ * cannot be parsed are skipped and reported, so they simply never match a range query.
+ */
+@Component
+public class ShowtimeStartsAtBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(ShowtimeStartsAtBackfill.class);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ShowtimeStartsAtBackfill(ShowtimeRepository showtimeRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${showtime.starts-at.backfill-batch-size:500}") int batchSize) {
+        this.showtimeRepository = showtimeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0L;
+        int filled = 0;
+        int unparsable = 0;
+        while (true) {
+            long cursor = afterId;
+            // Изменённые сущности сохраняются dirty checking'ом при коммите пачки
+            List<Showtime> batch = transactionTemplate.execute(status -> {
+                List<Showtime> showtimes = showtimeRepository
+                        .findByStartsAtIsNullAndIdGreaterThanOrderByIdAsc(cursor, Limit.of(batchSize));
+                showtimes.forEach(showtime -> showtime.setStartsAt(Showtime.parseDateTime(showtime.getDateTime())));
+                return showtimes;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (Showtime showtime : batch) {
+                if (showtime.getStartsAt() != null) {
+                    filled++;
+                } else {
+                    unparsable++;
+                    logger.warn("Showtime ID: {} has unparsable dateTime '{}', starts_at left empty",
+                            showtime.getId(), showtime.getDateTime());
+                }
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (filled > 0 || unparsable > 0) {
+            logger.info("starts_at backfill finished: {} showtimes filled, {} skipped", filled, unparsable);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.matvey.cinema.config;
+
+import com.matvey.cinema.datasource.ReadYourWritesInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    public WebConfig(ReadYourWritesInterceptor readYourWritesInterceptor) {
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,78 @@
+package com.matvey.cinema.controllers;
+
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ArchiveReport;
+import com.matvey.cinema.model.entities.ArchivedShowtime;
+import com.matvey.cinema.model.entities.ArchivedTicket;
+import com.matvey.cinema.service.ArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/archive")
+@CrossOrigin(origins = "http://localhost:5173")
+@Tag(name = "Archive Controller", description = "История: прошедшие сеансы и билеты из архивных таблиц")
+public class ArchiveController {
+    private final ArchiveService archiveService;
+    private final int retentionDays;
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveController.class);
+
+    public ArchiveController(ArchiveService archiveService,
+                             @Value("${archive.retention-days:90}") int retentionDays) {
+        this.archiveService = archiveService;
+        this.retentionDays = retentionDays;
+    }
+
+    @GetMapping("/showtimes")
+    @Operation(summary = "Получить архивные сеансы",
+            description = "Возвращает прошедшие сеансы фильма (movieId) или зала (theaterId) по времени начала")
+    public ResponseEntity<List<ArchivedShowtime>> getArchivedShowtimes(
+            @Parameter(description = "Идентификатор фильма", example = "1")
+            @RequestParam(required = false) Long movieId,
+            @Parameter(description = "Идентификатор зала", example = "1")
+            @RequestParam(required = false) Long theaterId) {
+        logger.debug("Запрос архивных сеансов: фильм {}, зал {}", movieId, theaterId);
+        if ((movieId == null) == (theaterId == null)) {
+            throw new ValidationException(List.of("Укажите ровно один из параметров movieId или theaterId"));
+        }
+        return ResponseEntity.ok(movieId != null
+                ? archiveService.findShowtimesByMovieId(movieId)
+                : archiveService.findShowtimesByTheaterId(theaterId));
+    }
+
+    @GetMapping("/tickets")
+    @Operation(summary = "Получить архивные билеты",
+            description = "Возвращает билеты прошедших сеансов по сеансу (showtimeId) или пользователю (userId)")
+    public ResponseEntity<List<ArchivedTicket>> getArchivedTickets(
+            @Parameter(description = "Идентификатор сеанса", example = "1")
+            @RequestParam(required = false) Long showtimeId,
+            @Parameter(description = "Идентификатор пользователя", example = "1")
+            @RequestParam(required = false) Long userId) {
+        logger.debug("Запрос архивных билетов: сеанс {}, пользователь {}", showtimeId, userId);
+        if ((showtimeId == null) == (userId == null)) {
+            throw new ValidationException(List.of("Укажите ровно один из параметров showtimeId или userId"));
+        }
+        return ResponseEntity.ok(showtimeId != null
+                ? archiveService.findTicketsByShowtimeId(showtimeId)
+                : archiveService.findTicketsByUserId(userId));
+    }
+
+    @PostMapping("/run")
+    @Operation(summary = "Запустить архивацию",
+            description = "Переносит сеансы старше olderThanDays дней и их билеты в архив пачками; "
+                    + "обычно выполняется по расписанию ночью")
+    public ResponseEntity<ArchiveReport> runArchive(
+            @Parameter(description = "Возраст сеансов в днях (по умолчанию archive.retention-days)", example = "90")
+            @RequestParam(required = false) Integer olderThanDays) {
+        int days = olderThanDays != null ? olderThanDays : retentionDays;
+        logger.debug("Запрос на архивацию сеансов старше {} дней", days);
+        return ResponseEntity.ok(archiveService.archiveOlderThan(days));
+    }
+}
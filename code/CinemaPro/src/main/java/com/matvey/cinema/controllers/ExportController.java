@@ -0,0 +1,60 @@
+package com.matvey.cinema.controllers;
+
+import com.matvey.cinema.model.dto.ExportFormat;
+import com.matvey.cinema.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://localhost:5173")
+@Tag(name = "Export Controller", description = "Потоковая выгрузка таблиц целиком")
+public class ExportController {
+    private final ExportService exportService;
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/tickets")
+    @Operation(summary = "Выгрузить все билеты",
+            description = "Отдаёт билеты потоком в формате NDJSON (по объекту на строку) или CSV")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @Parameter(description = "Формат: ndjson или csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        logger.debug("Запрос на выгрузку билетов в формате {}", exportFormat);
+        return attachment("tickets", exportFormat,
+                out -> exportService.exportTickets(exportFormat, out));
+    }
+
+    @GetMapping("/reviews")
+    @Operation(summary = "Выгрузить все отзывы",
+            description = "Отдаёт отзывы потоком в формате NDJSON (по объекту на строку) или CSV")
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @Parameter(description = "Формат: ndjson или csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        logger.debug("Запрос на выгрузку отзывов в формате {}", exportFormat);
+        return attachment("reviews", exportFormat,
+                out -> exportService.exportReviews(exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format,
+                                                             StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+}
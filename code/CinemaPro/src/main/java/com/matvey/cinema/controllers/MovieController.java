@@ -1,8 +1,15 @@
 package com.matvey.cinema.controllers;
 
 import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.MovieRating;
 import com.matvey.cinema.model.dto.MovieRequest;
+import com.matvey.cinema.model.dto.MovieSuggestion;
+import com.matvey.cinema.model.dto.MovieView;
 import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.schedule.TheaterOccupancyIndex;
+import com.matvey.cinema.schedule.UpcomingShowtimeIndex;
+import com.matvey.cinema.search.TitleSuggester;
 import com.matvey.cinema.service.MovieService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +21,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,10 +36,17 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Movie Controller", description = "API для управления фильмами")
 public class MovieController {
     private final MovieService movieService;
+    private final TheaterOccupancyIndex occupancyIndex;
+    private final UpcomingShowtimeIndex upcomingIndex;
+    private final TitleSuggester titleSuggester;
     private static final Logger logger = LoggerFactory.getLogger(MovieController.class);
 
-    public MovieController(MovieService movieService) {
+    public MovieController(MovieService movieService, TheaterOccupancyIndex occupancyIndex,
+                           UpcomingShowtimeIndex upcomingIndex, TitleSuggester titleSuggester) {
         this.movieService = movieService;
+        this.occupancyIndex = occupancyIndex;
+        this.upcomingIndex = upcomingIndex;
+        this.titleSuggester = titleSuggester;
     }
 
     @GetMapping("/{id}")
@@ -55,18 +70,59 @@ public class MovieController {
                 });
     }
 
+    // Каталог несёт только агрегаты оценок; сами отзывы - постранично через /api/reviews/movie/{id}/page
     @GetMapping
     @Operation(summary = "Получить все фильмы",
-            description = "Возвращает список всех фильмов в базе данных")
+            description = "Возвращает список всех фильмов с числом отзывов и средней оценкой, без самих отзывов")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список фильмов успешно получен",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Movie.class)))
+                            schema = @Schema(implementation = MovieView.class)))
     })
-    public ResponseEntity<List<Movie>> getAllMovies() {
-        logger.debug("Запрос на получение всех фильмов с отзывами");
-        List<Movie> movies = movieService.findAllWithReviews();
-        return ResponseEntity.ok(movies);
+    public ResponseEntity<List<MovieView>> getAllMovies() {
+        logger.debug("Запрос на получение всех фильмов");
+        return ResponseEntity.ok(movieService.findAllViews());
+    }
+
+    // Строка поиска спрашивает на каждое нажатие клавиши, поэтому ответ берётся из словаря в памяти
+    @GetMapping("/suggest")
+    @Operation(summary = "Подсказки по названию и режиссёру",
+            description = "Возвращает фильмы, у которых слово названия или имени режиссёра начинается "
+                    + "с введённого текста; самые обсуждаемые - первыми")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подсказки успешно получены",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MovieSuggestion.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Некорректный лимит", content = @Content)
+    })
+    public ResponseEntity<List<MovieSuggestion>> suggestMovies(
+            @Parameter(description = "Начало названия или имени режиссёра", example = "интерс")
+            @RequestParam String q,
+            @Parameter(description = "Число подсказок (1-" + TitleSuggester.MAX_SUGGESTIONS + ")", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.debug("Запрос подсказок для '{}'", q);
+        if (limit < 1 || limit > TitleSuggester.MAX_SUGGESTIONS) {
+            throw new ValidationException(List.of("limit должен быть от 1 до " + TitleSuggester.MAX_SUGGESTIONS));
+        }
+        return ResponseEntity.ok(titleSuggester.suggest(q, limit));
+    }
+
+    @GetMapping("/{id}/rating")
+    @Operation(summary = "Получить рейтинг фильма",
+            description = "Возвращает число отзывов, среднюю оценку и распределение оценок 1-10 "
+                    + "из предрасчитанных агрегатов")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рейтинг успешно получен",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MovieRating.class))),
+            @ApiResponse(responseCode = "404",
+                    description = "Фильм не найден", content = @Content)
+    })
+    public ResponseEntity<MovieRating> getMovieRating(
+            @Parameter(description = "Идентификатор фильма", example = "1") @PathVariable Long id) {
+        logger.debug("Запрос на получение рейтинга фильма с ID: {}", id);
+        return ResponseEntity.ok(movieService.findRating(id));
     }
 
     @PostMapping
@@ -117,13 +173,25 @@ public class MovieController {
             Movie existingMovie = movieService.findById(id)
                     .orElseThrow(() -> new CustomNotFoundException("Фильм не найден с ID: " + id));
 
+            boolean titleChanged = !Objects.equals(existingMovie.getTitle(), movieRequest.getTitle());
             existingMovie.setTitle(movieRequest.getTitle());
             existingMovie.setDirector(movieRequest.getDirector());
             existingMovie.setReleaseYear(movieRequest.getReleaseYear());
             existingMovie.setGenre(movieRequest.getGenre());
+            boolean durationChanged =
+                    !Objects.equals(existingMovie.getDurationMinutes(), movieRequest.getDurationMinutes());
+            existingMovie.setDurationMinutes(movieRequest.getDurationMinutes());
             // TODO: Update reviews/showtimes collections here or in the updateMovie service method
 
             Movie updatedMovie = movieService.save(existingMovie); // Save the updated entity
+            if (durationChanged) {
+                // Сеансы фильма теперь занимают залы на другое время
+                occupancyIndex.invalidateAll();
+            }
+            if (titleChanged) {
+                // Лента ближайших сеансов хранит название фильма
+                upcomingIndex.reload();
+            }
             logger.info("Фильм с ID: {} успешно обновлен.", id);
             return ResponseEntity.ok(updatedMovie);
 
@@ -1,6 +1,9 @@
 package com.matvey.cinema.controllers;
 
+import com.matvey.cinema.model.dto.CursorPage;
+import com.matvey.cinema.model.dto.ReviewOrder;
 import com.matvey.cinema.model.dto.ReviewRequest;
+import com.matvey.cinema.model.dto.ReviewView;
 import com.matvey.cinema.model.entities.Review;
 import com.matvey.cinema.service.ReviewService;
 
@@ -35,16 +38,21 @@ public class ReviewController {
 
     @GetMapping
     @Operation(summary = "Получить все отзывы",
-            description = "Возвращает список всех отзывов в базе данных")
+            description = "Возвращает страницу отзывов по возрастанию ID; nextCursor - токен следующей страницы")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список отзывов успешно получен",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Review.class)))
+                            schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<Review>> getAllReviews() {
+    public ResponseEntity<CursorPage<Review>> getAllReviews(
+            @Parameter(description = "Токен продолжения из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-" + CursorPage.MAX_LIMIT + ")", example = "50")
+            @RequestParam(required = false) Integer limit) {
         logger.debug("Запрос на получение всех отзывов");
-        List<Review> reviews = reviewService.findAll();
-        return ResponseEntity.ok(reviews);
+        int pageSize = CursorPage.limit(limit);
+        List<Review> rows = reviewService.findPage(CursorPage.afterId(cursor), pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize, Review::getId));
     }
 
     @GetMapping("/movie/{movieId}")
@@ -64,6 +72,42 @@ public class ReviewController {
         }
     }
 
+    @GetMapping("/movie/{movieId}/views")
+    @Operation(summary = "Get review views by movie ID",
+            description = "Returns reviews with the author's username instead of the full user entity")
+    public ResponseEntity<List<ReviewView>> getReviewViewsByMovieId(
+            @Parameter(description = "Идентификатор фильма", example = "1") @PathVariable Long movieId) {
+        logger.debug("Запрос на получение проекций отзывов для фильма с ID: {}", movieId);
+        return ResponseEntity.ok(reviewService.findViewsByMovieId(movieId));
+    }
+
+    @GetMapping("/movie/{movieId}/page")
+    @Operation(summary = "Получить страницу отзывов фильма",
+            description = "Возвращает отзывы фильма порциями: recent - новые сначала, rating - лучшие сначала; "
+                    + "nextCursor - токен следующей страницы")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Страница отзывов успешно получена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Неизвестный порядок или некорректный курсор", content = @Content)
+    })
+    public ResponseEntity<CursorPage<ReviewView>> getReviewPageByMovieId(
+            @Parameter(description = "Идентификатор фильма", example = "1") @PathVariable Long movieId,
+            @Parameter(description = "Порядок: recent или rating", example = "recent")
+            @RequestParam(defaultValue = "recent") String sort,
+            @Parameter(description = "Токен продолжения из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-" + CursorPage.MAX_LIMIT + ")", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Запрос на получение страницы отзывов для фильма с ID: {}, порядок: {}", movieId, sort);
+        ReviewOrder order = ReviewOrder.fromParam(sort);
+        int pageSize = CursorPage.limit(limit);
+        List<ReviewView> rows = reviewService.findMoviePage(movieId, order,
+                CursorPage.afterKey(cursor, order.getKeyParts()), pageSize + 1);
+        return ResponseEntity.ok(CursorPage.ofKey(rows, pageSize, order::keyOf));
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get reviews by user ID",
             description = "Returns a list of all reviews for the specified user")
@@ -0,0 +1,54 @@
+package com.matvey.cinema.controllers;
+
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.SearchHit;
+import com.matvey.cinema.model.dto.SearchTarget;
+import com.matvey.cinema.search.SearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:5173")
+@Tag(name = "Search Controller", description = "Полнотекстовый поиск по фильмам и отзывам")
+public class SearchController {
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    public SearchController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @GetMapping
+    @Operation(summary = "Поиск по фильмам и отзывам",
+            description = "Ищет по названию, режиссёру, жанру и тексту отзывов с учётом префиксов и опечаток; "
+                    + "результаты упорядочены по релевантности (BM25)")
+    public ResponseEntity<List<SearchHit>> search(
+            @Parameter(description = "Поисковый запрос", example = "нолан интерстеллар")
+            @RequestParam String q,
+            @Parameter(description = "Только movie или review; по умолчанию оба", example = "movie")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Число результатов (1-" + MAX_LIMIT + ")", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("Поисковый запрос '{}', тип {}, лимит {}", q, type, limit);
+        if (q.isBlank()) {
+            throw new ValidationException(List.of("Поисковый запрос не должен быть пустым"));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException(List.of("limit должен быть от 1 до " + MAX_LIMIT));
+        }
+        Set<SearchTarget> targets = type == null
+                ? EnumSet.allOf(SearchTarget.class) : EnumSet.of(SearchTarget.fromParam(type));
+        return ResponseEntity.ok(searchIndex.search(q, targets, limit));
+    }
+}
@@ -1,5 +1,6 @@
 package com.matvey.cinema.controllers;
 
+import com.matvey.cinema.model.dto.CursorPage;
 import com.matvey.cinema.model.dto.SeatRequest;
 import com.matvey.cinema.model.entities.Seat;
 import com.matvey.cinema.repository.SeatRepository;
@@ -62,16 +63,21 @@ public class SeatController {
 
     @GetMapping
     @Operation(summary = "Получить все места",
-            description = "Возвращает список всех мест в базе данных")
+            description = "Возвращает страницу мест по возрастанию ID; nextCursor - токен следующей страницы")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Список мест успешно получен",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Seat.class)))
+                            schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<Seat>> getAllSeats() {
+    public ResponseEntity<CursorPage<Seat>> getAllSeats(
+            @Parameter(description = "Токен продолжения из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-" + CursorPage.MAX_LIMIT + ")", example = "50")
+            @RequestParam(required = false) Integer limit) {
         logger.debug("Запрос на получение всех мест");
-        List<Seat> seats = seatService.findAll();
-        return ResponseEntity.ok(seats);
+        int pageSize = CursorPage.limit(limit);
+        List<Seat> rows = seatService.findPage(CursorPage.afterId(cursor), pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize, Seat::getId));
     }
 
     @GetMapping("/theater")
@@ -1,23 +1,36 @@
 package com.matvey.cinema.controllers;
 
+import com.matvey.cinema.model.dto.CursorPage;
+import com.matvey.cinema.model.dto.ScheduleRequest;
+import com.matvey.cinema.model.dto.ScheduleResult;
+import com.matvey.cinema.model.dto.ShowtimePriceTable;
 import com.matvey.cinema.model.dto.ShowtimeRequest;
+import com.matvey.cinema.model.dto.ShowtimeView;
+import com.matvey.cinema.model.dto.UpcomingShowtime;
 import com.matvey.cinema.model.entities.Showtime;
 import com.matvey.cinema.repository.ShowtimeRepository;
 import com.matvey.cinema.service.MovieService;
+import com.matvey.cinema.service.PricingService;
+import com.matvey.cinema.service.ShowtimeScheduleService;
 import com.matvey.cinema.service.ShowtimeService;
 import com.matvey.cinema.service.TheaterService;
 import com.matvey.cinema.service.TicketService;
+import com.matvey.cinema.sse.SeatMapSseHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @Tag(name = "Showtime Controller", description = "API для управления сеансами")
@@ -29,16 +42,24 @@ public class ShowtimeController {
     private final TheaterService theaterService;
     private final TicketService ticketService;
     private final ShowtimeRepository showtimeRepository;
+    private final PricingService pricingService;
+    private final SeatMapSseHub seatMapSseHub;
+    private final ShowtimeScheduleService showtimeScheduleService;
     private static final Logger logger = LoggerFactory.getLogger(ShowtimeController.class);
 
     public ShowtimeController(ShowtimeService showtimeService, MovieService movieService,
                               TheaterService theaterService, TicketService ticketService,
-                              ShowtimeRepository showtimeRepository) {
+                              ShowtimeRepository showtimeRepository,
+                              PricingService pricingService, SeatMapSseHub seatMapSseHub,
+                              ShowtimeScheduleService showtimeScheduleService) {
         this.showtimeService = showtimeService;
         this.movieService = movieService;
         this.theaterService = theaterService;
         this.ticketService = ticketService;
         this.showtimeRepository = showtimeRepository;
+        this.pricingService = pricingService;
+        this.seatMapSseHub = seatMapSseHub;
+        this.showtimeScheduleService = showtimeScheduleService;
     }
 
     @GetMapping("/{id}")
@@ -56,11 +77,57 @@ public class ShowtimeController {
 
     @GetMapping
     @Operation(summary = "Получить все сеансы",
-            description = "Возвращает список всех сеансов в базе данных")
-    public ResponseEntity<List<Showtime>> getAllShowtimes() {
+            description = "Возвращает страницу сеансов по возрастанию ID; nextCursor - токен следующей страницы")
+    public ResponseEntity<CursorPage<Showtime>> getAllShowtimes(
+            @Parameter(description = "Токен продолжения из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-" + CursorPage.MAX_LIMIT + ")", example = "50")
+            @RequestParam(required = false) Integer limit) {
         logger.debug("Запрос на получение всех сеансов");
-        List<Showtime> showtimes = showtimeService.findAll();
-        return ResponseEntity.ok(showtimes);
+        int pageSize = CursorPage.limit(limit);
+        List<Showtime> rows = showtimeService.findPage(CursorPage.afterId(cursor), pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize, Showtime::getId));
+    }
+
+    @GetMapping(params = {"from", "to"})
+    @Operation(summary = "Получить сеансы за период",
+            description = "Возвращает сеансы, начинающиеся в интервале [from, to), по возрастанию времени начала; "
+                    + "theaterId ограничивает выборку одним залом")
+    public ResponseEntity<List<Showtime>> getShowtimesInRange(
+            @Parameter(description = "Начало интервала (ISO)", example = "2030-06-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Конец интервала, не включая (ISO)", example = "2030-06-02T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Идентификатор зала", example = "1")
+            @RequestParam(required = false) Long theaterId) {
+        logger.debug("Запрос на получение сеансов с {} по {}, зал: {}", from, to, theaterId);
+        return ResponseEntity.ok(showtimeService.findStartingBetween(from, to, theaterId));
+    }
+
+    @GetMapping("/upcoming")
+    @Operation(summary = "Получить ближайшие сеансы",
+            description = "Возвращает сеансы всех залов, начинающиеся в ближайшие hours часов, "
+                    + "по возрастанию времени начала")
+    public ResponseEntity<List<UpcomingShowtime>> getUpcomingShowtimes(
+            @Parameter(description = "Сколько часов вперёд", example = "3")
+            @RequestParam(defaultValue = "3") int hours) {
+        logger.debug("Запрос на получение сеансов в ближайшие {} ч", hours);
+        return ResponseEntity.ok(showtimeService.findUpcoming(hours));
+    }
+
+    @GetMapping("/playing")
+    @Operation(summary = "Получить сеанс, идущий в зале",
+            description = "Возвращает сеанс, который показывается в зале в указанный момент (по умолчанию сейчас); "
+                    + "204, если зал свободен или идёт уборка")
+    public ResponseEntity<Showtime> getShowtimePlayingAt(
+            @Parameter(description = "Идентификатор зала", example = "1") @RequestParam Long theaterId,
+            @Parameter(description = "Момент времени (ISO)", example = "2030-06-01T19:30:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime time = at != null ? at : LocalDateTime.now();
+        logger.debug("Запрос на получение сеанса, идущего в зале {} в {}", theaterId, time);
+        return showtimeService.findPlayingAt(theaterId, time)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @GetMapping("/theater")
@@ -112,6 +179,35 @@ public class ShowtimeController {
         return ResponseEntity.ok(showtimes); // Возвращаем список сеансов
     }
 
+    @GetMapping("/movie/{movieId}/views")
+    @Operation(summary = "Получить краткий список сеансов фильма",
+            description = "Возвращает сеансы с ID и названиями фильма и зала вместо вложенных сущностей")
+    public ResponseEntity<List<ShowtimeView>> getShowtimeViewsByMovieId(
+            @Parameter(description = "Идентификатор фильма", example = "1") @PathVariable Long movieId) {
+        logger.debug("Запрос на получение проекций сеансов для фильма с ID: {}", movieId);
+        return ResponseEntity.ok(showtimeService.findViewsByMovieId(movieId));
+    }
+
+    @GetMapping("/{id}/prices")
+    @Operation(summary = "Получить цены всех мест сеанса",
+            description = "Возвращает цену каждого места зала одним ответом")
+    public ResponseEntity<ShowtimePriceTable> getShowtimePrices(
+            @Parameter(description = "Идентификатор сеанса", example = "1") @PathVariable Long id) {
+        logger.debug("Запрос на получение цен мест для сеанса с ID: {}", id);
+        ShowtimePriceTable priceTable = pricingService.getPriceTable(id);
+        return ResponseEntity.ok(priceTable);
+    }
+
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Подписаться на изменения мест сеанса",
+            description = "SSE-поток: событие snapshot с занятыми местами, затем события delta "
+                    + "вида {\"t\":[занятые],\"f\":[освобождённые]}")
+    public SseEmitter streamSeatMap(
+            @Parameter(description = "Идентификатор сеанса", example = "1") @PathVariable Long id) {
+        logger.debug("Подписка на изменения мест сеанса с ID: {}", id);
+        return seatMapSseHub.subscribe(id);
+    }
+
     @PostMapping
     @Operation(summary = "Создать новый сеанс",
             description = "Создает новый сеанс на основе предоставленных данных")
@@ -129,6 +225,20 @@ public class ShowtimeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedShowtime);
     }
 
+    @PostMapping("/schedule")
+    @Operation(summary = "Сгенерировать расписание",
+            description = "Разворачивает правила (фильм, зал, дни недели, время, интервал дат) в сеансы, "
+                    + "проверяет пересечения в каждом зале и сохраняет всё одной транзакцией. "
+                    + "При любом пересечении ничего не сохраняется")
+    public ResponseEntity<ScheduleResult> generateSchedule(
+            @Valid @RequestBody ScheduleRequest scheduleRequest,
+            @Parameter(description = "Только проверить, не сохраняя")
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        logger.debug("Запрос на генерацию расписания: {} правил, dryRun={}", scheduleRequest.rules().size(), dryRun);
+        ScheduleResult result = showtimeScheduleService.generate(scheduleRequest, dryRun);
+        return ResponseEntity.status(dryRun ? HttpStatus.OK : HttpStatus.CREATED).body(result);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Обновить сеанс",
             description = "Обновляет существующий сеанс с указанным ID")
@@ -3,6 +3,7 @@ package com.matvey.cinema.controllers;
 import com.matvey.cinema.model.dto.TheaterRequest;
 import com.matvey.cinema.model.entities.Theater;
 import com.matvey.cinema.repository.TheaterRepository;
+import com.matvey.cinema.schedule.UpcomingShowtimeIndex;
 import com.matvey.cinema.service.SeatService;
 import com.matvey.cinema.service.ShowtimeService;
 import com.matvey.cinema.service.TheaterService;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,14 +29,17 @@ public class TheaterController {
     private final TheaterService theaterService;
     private final ShowtimeService showtimeService;
     private final TheaterRepository theaterRepository;
+    private final UpcomingShowtimeIndex upcomingIndex;
     private static final Logger logger = LoggerFactory.getLogger(TheaterController.class);
 
     public TheaterController(TheaterService theaterService, SeatService seatService,
-                             ShowtimeService showtimeService, TheaterRepository theaterRepository) {
+                             ShowtimeService showtimeService, TheaterRepository theaterRepository,
+                             UpcomingShowtimeIndex upcomingIndex) {
         this.theaterService = theaterService;
         this.seatService = seatService;
         this.showtimeService = showtimeService;
         this.theaterRepository = theaterRepository;
+        this.upcomingIndex = upcomingIndex;
     }
 
     @GetMapping("/{id}")
@@ -92,10 +97,15 @@ public class TheaterController {
         }
 
         Theater theater = theaterOptional.get();
+        boolean nameChanged = !Objects.equals(theater.getName(), theaterRequest.getName());
         theaterRepository.updateTheaterDetails(theater, theaterRequest,
                 seatService, showtimeService);
 
         Theater updatedTheater = theaterService.save(theater);
+        if (nameChanged) {
+            // Лента ближайших сеансов хранит название зала
+            upcomingIndex.reload();
+        }
         logger.info("Театр с ID: {} успешно обновлен", id);
 
         return ResponseEntity.ok(updatedTheater);
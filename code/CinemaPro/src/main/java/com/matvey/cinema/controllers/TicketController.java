@@ -1,7 +1,12 @@
 package com.matvey.cinema.controllers;
 
+import com.matvey.cinema.model.dto.CursorPage;
+import com.matvey.cinema.model.dto.BulkOrderResult;
+import com.matvey.cinema.model.dto.BulkPurchaseRequest;
 import com.matvey.cinema.model.dto.PurchaseRequestDto;
+import com.matvey.cinema.model.dto.TicketRefund;
 import com.matvey.cinema.model.dto.TicketRequest;
+import com.matvey.cinema.model.dto.TicketView;
 import com.matvey.cinema.model.entities.Ticket;
 import com.matvey.cinema.service.TicketService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -46,11 +51,17 @@ public class TicketController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all tickets")
-    public ResponseEntity<List<Ticket>> getAllTickets() {
+    @Operation(summary = "Get all tickets",
+            description = "Returns a page of tickets ordered by ID; nextCursor is the token for the next page")
+    public ResponseEntity<CursorPage<Ticket>> getAllTickets(
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-" + CursorPage.MAX_LIMIT + ")", example = "50")
+            @RequestParam(required = false) Integer limit) {
         logger.debug("Request to get all tickets");
-        List<Ticket> tickets = ticketService.findAll();
-        return ResponseEntity.ok(tickets);
+        int pageSize = CursorPage.limit(limit);
+        List<Ticket> rows = ticketService.findPage(CursorPage.afterId(cursor), pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize, Ticket::getId));
     }
 
     @GetMapping("/user")
@@ -125,6 +136,15 @@ public class TicketController {
         return ResponseEntity.ok(tickets); // 200 OK with list of tickets
     }
 
+    @GetMapping("/user/{userId}/views")
+    @Operation(summary = "Get ticket views by user ID",
+            description = "Returns flat ticket rows (showtime, movie and hall names) without nested entities")
+    public ResponseEntity<List<TicketView>> getTicketViewsByUserId(
+            @Parameter(description = "ID of the user") @PathVariable Long userId) {
+        logger.debug("Request to get ticket views for user ID: {}", userId);
+        return ResponseEntity.ok(ticketService.findViewsByUserId(userId));
+    }
+
     @PostMapping // Endpoint for creating a SINGLE ticket (if TicketRequest DTO is for this)
     @Operation(summary = "Create a new ticket (single)")
     public ResponseEntity<Ticket> createTicket(@Valid @RequestBody TicketRequest ticketRequest) {
@@ -196,6 +216,27 @@ public class TicketController {
         }
     }
 
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancel ticket",
+            description = "Cancels the ticket, releases its seat and queues a refund")
+    public ResponseEntity<TicketRefund> cancelTicket(
+            @Parameter(description = "Ticket ID to cancel") @PathVariable Long id) {
+        logger.debug("Request to cancel ticket with ID: {}", id);
+        TicketRefund refund = ticketService.cancelTicket(id);
+        return ResponseEntity.ok(refund);
+    }
+
+    @PostMapping("/showtime/{showtimeId}/cancel")
+    @Operation(summary = "Cancel all tickets of a showtime",
+            description = "Cancels every ticket of the showtime in one batch and queues refunds")
+    public ResponseEntity<List<TicketRefund>> cancelShowtimeTickets(
+            @Parameter(description = "Showtime ID") @PathVariable Long showtimeId) {
+        logger.debug("Request to cancel all tickets for showtime ID: {}", showtimeId);
+        List<TicketRefund> refunds = ticketService.cancelShowtimeTickets(showtimeId);
+        logger.info("Cancelled {} tickets for showtime ID: {}", refunds.size(), showtimeId);
+        return ResponseEntity.ok(refunds);
+    }
+
     @PostMapping("/purchase") // Endpoint for purchasing MULTIPLE tickets
     @Operation(summary = "Purchase tickets")
     public ResponseEntity<List<Ticket>> purchaseTickets(@Valid @RequestBody PurchaseRequestDto purchaseRequest) {
@@ -213,6 +254,10 @@ public class TicketController {
             // Catch IllegalStateException if a seat is occupied
             logger.warn("Purchase error: Seat occupied. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // 409 Conflict
+        } catch (DataIntegrityViolationException e) {
+            // The unique (showtime, seat) constraint caught a double booking the in-memory check missed
+            logger.warn("Purchase error: seat already sold (constraint violation). {}", e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // 409 Conflict
         } catch (IllegalArgumentException e) {
             // Catch IllegalArgumentException (e.g., invalid seat format)
             logger.warn("Purchase error: Invalid argument. {}", e.getMessage());
@@ -228,4 +273,14 @@ public class TicketController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null); // 500 Internal Server Error
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/purchase/bulk")
+    @Operation(summary = "Purchase tickets for many orders",
+            description = "Processes orders across showtimes in one transaction and returns a result per order")
+    public ResponseEntity<List<BulkOrderResult>> purchaseTicketsInBulk(
+            @Valid @RequestBody BulkPurchaseRequest bulkRequest) {
+        logger.debug("Request to purchase tickets in bulk: {} orders", bulkRequest.getOrders().size());
+        List<BulkOrderResult> results = ticketService.purchaseTicketsInBulk(bulkRequest.getOrders());
+        return ResponseEntity.ok(results);
+    }
+}
@@ -1,11 +1,14 @@
 package com.matvey.cinema.controllers;
 
+import com.matvey.cinema.model.dto.CursorPage;
+import com.matvey.cinema.model.dto.UserImportReport;
 import com.matvey.cinema.model.dto.UserRequest;
 import com.matvey.cinema.model.entities.Review;
 import com.matvey.cinema.model.entities.Ticket;
 import com.matvey.cinema.model.entities.User;
 import com.matvey.cinema.service.ReviewService;
 import com.matvey.cinema.service.TicketService;
+import com.matvey.cinema.service.UserImportService;
 import com.matvey.cinema.service.UserService;
 import com.matvey.cinema.service.VisitCounterService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,12 +18,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,15 +43,18 @@ public class UserController {
     private final TicketService ticketService;
     private final ReviewService reviewService;
     private final VisitCounterService visitCounterService;
+    private final UserImportService userImportService;
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     public UserController(UserService userService, TicketService ticketService,
-                          ReviewService reviewService, VisitCounterService visitCounterService) {
+                          ReviewService reviewService, VisitCounterService visitCounterService,
+                          UserImportService userImportService) {
         this.userService = userService;
         this.ticketService = ticketService;
         this.reviewService = reviewService;
         this.visitCounterService = visitCounterService;
+        this.userImportService = userImportService;
     }
 
     @GetMapping("/{id}")
@@ -69,17 +82,22 @@ public class UserController {
 
     @GetMapping
     @Operation(summary = "Получить всех пользователей",
-            description = "Возвращает список всех пользователей в базе данных")
+            description = "Возвращает страницу пользователей по возрастанию ID; nextCursor - токен следующей страницы")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список пользователей успешно получен",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = User.class)))
+                            schema = @Schema(implementation = CursorPage.class)))
     })
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<CursorPage<User>> getAllUsers(
+            @Parameter(description = "Токен продолжения из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (1-" + CursorPage.MAX_LIMIT + ")", example = "50")
+            @RequestParam(required = false) Integer limit) {
         logger.debug("Запрос на получение всех пользователей");
         visitCounterService.writeVisit("/api/users");
-        List<User> users = userService.findAll();
-        return ResponseEntity.ok(users);
+        int pageSize = CursorPage.limit(limit);
+        List<User> rows = userService.findPage(CursorPage.afterId(cursor), pageSize + 1);
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize, User::getId));
     }
 
     // <-- ДОБАВЛЕНО: Конечная точка для получения билетов для конкретного пользователя -->
@@ -128,6 +146,10 @@ public class UserController {
     public ResponseEntity<List<User>> createUsers(@Valid @RequestBody List<UserRequest>
                                                           userRequests) {
         logger.debug("Запрос на создание нескольких пользователей");
+        Map<Long, Ticket> ticketsById = ticketService.findAllByIds(collectIds(userRequests, UserRequest::getTicketIds))
+                .stream().collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        Map<Long, Review> reviewsById = reviewService.findAllByIds(collectIds(userRequests, UserRequest::getReviewIds))
+                .stream().collect(Collectors.toMap(Review::getId, Function.identity()));
         List<User> createdUsers = userRequests.stream()
                 .map(userRequest -> {
                     User user = new User();
@@ -136,22 +158,13 @@ public class UserController {
                     // TODO: Здесь нужно установить пароль из UserRequest, если бы он там был
                     // user.setPassword(userRequest.getPassword());
 
+                    // Билеты и отзывы всех пользователей запроса уже выбраны одним пакетом
                     if (userRequest.getTicketIds() != null) {
-                        List<Ticket> tickets = userRequest.getTicketIds().stream()
-                                .map(ticketId -> ticketService.findById(ticketId))
-                                .filter(Optional::isPresent)
-                                .map(Optional::get)
-                                .toList();
-                        user.setTickets(tickets);
+                        user.setTickets(resolve(userRequest.getTicketIds(), ticketsById));
                     }
 
                     if (userRequest.getReviewIds() != null) {
-                        List<Review> reviews = userRequest.getReviewIds().stream()
-                                .map(reviewId -> reviewService.findById(reviewId))
-                                .filter(Optional::isPresent)
-                                .map(Optional::get)
-                                .toList();
-                        user.setReviews(reviews);
+                        user.setReviews(resolve(userRequest.getReviewIds(), reviewsById));
                     }
                     // Здесь вызывается save, который без хеширования сохранит пароль как есть.
                     // Если бы в UserRequest был пароль и мы его здесь устанавливали, он бы сохранился.
@@ -163,6 +176,43 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUsers);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson", "text/csv"})
+    @Operation(summary = "Импортировать пользователей",
+            description = "Потоковый импорт из JSON-массива, NDJSON или CSV (username,email,password). "
+                    + "Строки с ошибками пропускаются и перечисляются в отчёте, остальные сохраняются пакетами. "
+                    + "На синтаксической ошибке JSON чтение останавливается, отчёт указывает последнюю прочитанную строку")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт завершён, отчёт по строкам",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserImportReport.class))),
+            @ApiResponse(responseCode = "400",
+                    description = "Тело не удаётся разобрать", content = @Content)
+    })
+    public ResponseEntity<UserImportReport> importUsers(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        logger.info("Запрос на импорт пользователей, формат {}", contentType);
+        // Тело читается потоком: на 200 тысяч строк его нельзя собирать в List
+        UserImportReport report = contentType != null && contentType.startsWith("text/csv")
+                ? userImportService.importCsv(request.getInputStream())
+                : userImportService.importJson(request.getInputStream());
+        visitCounterService.writeVisit("/api/users/import");
+        return ResponseEntity.ok(report);
+    }
+
+    private static List<Long> collectIds(List<UserRequest> userRequests,
+                                         Function<UserRequest, List<Long>> ids) {
+        return userRequests.stream()
+                .map(ids)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .distinct()
+                .toList();
+    }
+
+    private static <T> List<T> resolve(List<Long> ids, Map<Long, T> byId) {
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Обновить пользователя",
             description = "Обновляет существующего пользователя с указанным ID")
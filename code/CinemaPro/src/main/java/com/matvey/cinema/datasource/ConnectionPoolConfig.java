@@ -0,0 +1,50 @@
+package com.matvey.cinema.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Datasource performance profile: pool sizing, pool metrics for every Hikari pool (including
+ * the primary/replica pools of the read/write split, which Boot does not see because they are
+ * not default candidates) and sampled SQL logging.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolConfig.class);
+
+    @Bean
+    public static ConnectionPoolSizer connectionPoolSizer(Environment environment) {
+        return new ConnectionPoolSizer(environment);
+    }
+
+    // hikaricp.connections.active/idle/pending/acquire; гистограмма acquire включается в properties
+    @Bean
+    public MeterBinder hikariPoolMetrics(ListableBeanFactory beanFactory) {
+        return registry -> beanFactory.getBeansOfType(HikariDataSource.class).forEach((name, dataSource) -> {
+            if (dataSource.getMetricRegistry() != null || dataSource.getMetricsTrackerFactory() != null) {
+                return; // уже подключён автоконфигурацией Boot
+            }
+            try {
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            } catch (IllegalStateException e) {
+                logger.warn("Pool {} already started, metrics not bound: {}", dataSource.getPoolName(), e.getMessage());
+            }
+        });
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLogging(@Value("${sql.log.sample-rate:0.01}") double sampleRate) {
+        return properties -> properties.putIfAbsent(
+                AvailableSettings.STATEMENT_INSPECTOR, new SampledSqlLogger(sampleRate));
+    }
+}
@@ -0,0 +1,70 @@
+package com.matvey.cinema.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes every Hikari pool from the CPU count and the connection limit of the database unless
+ * {@code maximum-pool-size} is set explicitly. The pool is fixed-size (minimum idle equals the
+ * maximum), as Hikari recommends: growing and shrinking only adds connect latency under load.
+ */
+public class ConnectionPoolSizer implements BeanPostProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolSizer.class);
+
+    static final String REPLICA_BEAN_NAME = "replicaDataSource";
+    static final int MIN_POOL_SIZE = 2;
+
+    private final Environment environment;
+    private final int cores;
+
+    public ConnectionPoolSizer(Environment environment) {
+        this(environment, Runtime.getRuntime().availableProcessors());
+    }
+
+    ConnectionPoolSizer(Environment environment, int cores) {
+        this.environment = environment;
+        this.cores = cores;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            String prefix = REPLICA_BEAN_NAME.equals(beanName)
+                    ? "replica.datasource.hikari." : "spring.datasource.hikari.";
+            configure(dataSource, prefix);
+        }
+        return bean;
+    }
+
+    private void configure(HikariDataSource dataSource, String prefix) {
+        if (environment.containsProperty(prefix + "maximum-pool-size")) {
+            logger.info("Pool {}: maximum-pool-size set explicitly to {}",
+                    dataSource.getPoolName(), dataSource.getMaximumPoolSize());
+            return;
+        }
+        int dbMaxConnections = environment.getProperty("datasource.pool.db-max-connections", Integer.class, 151);
+        int reserved = environment.getProperty("datasource.pool.reserved-connections", Integer.class, 10);
+        int instances = environment.getProperty("datasource.pool.instances", Integer.class, 1);
+
+        int size = poolSize(cores, dbMaxConnections, reserved, instances);
+        dataSource.setMaximumPoolSize(size);
+        if (!environment.containsProperty(prefix + "minimum-idle")) {
+            dataSource.setMinimumIdle(size);
+        }
+        logger.info("Pool {} sized to {} connections ({} cores, DB limit {}, {} reserved, {} instances)",
+                dataSource.getPoolName(), size, cores, dbMaxConnections, reserved, instances);
+    }
+
+    /**
+     * {@code cores * 2 + 1} connections keep every core busy while others wait on I/O; the result
+     * is capped by the share of the database connection limit left to one application instance.
+     */
+    static int poolSize(int cores, int dbMaxConnections, int reservedConnections, int instances) {
+        int byCpu = cores * 2 + 1;
+        int byDatabase = (dbMaxConnections - reservedConnections) / Math.max(instances, 1);
+        return Math.max(MIN_POOL_SIZE, Math.min(byCpu, byDatabase));
+    }
+}
@@ -0,0 +1,44 @@
+package com.matvey.cinema.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager opens the connection before the read-only flag of the transaction is
+ * published, the proxy delays the real lookup until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    // Запрос пользователя, который только что писал: читаем с primary, пока реплика догоняет
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    public static void pinToPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PRIMARY_PINNED.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    public static Route currentRoute() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPinnedToPrimary()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
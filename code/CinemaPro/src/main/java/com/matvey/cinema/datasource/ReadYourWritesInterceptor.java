@@ -0,0 +1,59 @@
+package com.matvey.cinema.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Pins the request thread to the primary when the request is about a user or showtime pinned by
+ * {@link ReplicaLagGuard}. They are taken from the {@code userId} and {@code showtimeId} path
+ * variables or request parameters, as in {@code GET /api/tickets/user/{userId}} and
+ * {@code GET /api/tickets/showtime/{showtimeId}}.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final String USER_ID = "userId";
+    private static final String SHOWTIME_ID = "showtimeId";
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReadYourWritesInterceptor(ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (replicaLagGuard.isPinned(idOf(request, USER_ID))
+                || replicaLagGuard.isShowtimePinned(idOf(request, SHOWTIME_ID))) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    private Long idOf(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        if (value == null && request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)
+                instanceof Map<?, ?> variables) {
+            Object variable = variables.get(name);
+            value = variable != null ? variable.toString() : null;
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.matvey.cinema.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers users who have just written (bought or cancelled tickets) and the showtimes they
+ * wrote to. For the pin window requests about them read from the primary, so a replica that lags
+ * behind cannot hide a fresh purchase - neither from the buyer's ticket list nor from a seat map
+ * refetch that does not say who is asking.
+ */
+@Component
+public class ReplicaLagGuard {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    private enum Subject {
+        USER, SHOWTIME
+    }
+
+    private record Pin(Subject subject, Long id) {
+    }
+
+    private final Map<Pin, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final long pinWindowMs;
+    private final boolean replicaEnabled;
+
+    public ReplicaLagGuard(@Value("${replica.pin-window-ms:5000}") long pinWindowMs,
+                           @Value("${replica.datasource.url:}") String replicaUrl) {
+        this.pinWindowMs = pinWindowMs;
+        this.replicaEnabled = !replicaUrl.isBlank();
+    }
+
+    public void pinUser(Long userId) {
+        pin(Subject.USER, userId);
+    }
+
+    public void pinShowtime(Long showtimeId) {
+        pin(Subject.SHOWTIME, showtimeId);
+    }
+
+    public boolean isPinned(Long userId) {
+        return isPinned(Subject.USER, userId);
+    }
+
+    public boolean isShowtimePinned(Long showtimeId) {
+        return isPinned(Subject.SHOWTIME, showtimeId);
+    }
+
+    /**
+     * Whether data just read in this thread may go to a cache. A replica read may predate a write
+     * whose commit has already evicted the entry, and the cached copy would outlive the lag.
+     * Without a replica every read comes from the primary.
+     */
+    public boolean canCache() {
+        return !replicaEnabled
+                || ReadWriteRoutingDataSource.currentRoute() == ReadWriteRoutingDataSource.Route.PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.pin-cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until < now);
+    }
+
+    private void pin(Subject subject, Long id) {
+        if (id == null) {
+            return;
+        }
+        pinnedUntil.put(new Pin(subject, id), System.currentTimeMillis() + pinWindowMs);
+        logger.debug("{} ID: {} pinned to primary for {} ms", subject, id, pinWindowMs);
+    }
+
+    private boolean isPinned(Subject subject, Long id) {
+        if (id == null) {
+            return false;
+        }
+        Pin pin = new Pin(subject, id);
+        Long until = pinnedUntil.get(pin);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            pinnedUntil.remove(pin, until);
+            return false;
+        }
+        return true;
+    }
+}
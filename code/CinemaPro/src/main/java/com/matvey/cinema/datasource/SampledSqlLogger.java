@@ -0,0 +1,29 @@
+package com.matvey.cinema.datasource;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replacement for {@code spring.jpa.show-sql}: writes only a random sample of the SQL statements
+ * to the {@code sql.sample} logger instead of printing every one of them to stdout.
+ * Statements slower than {@code hibernate.log_slow_query} are logged separately by Hibernate.
+ */
+public class SampledSqlLogger implements StatementInspector {
+    private static final Logger logger = LoggerFactory.getLogger("sql.sample");
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.info(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,7 @@
+package com.matvey.cinema.model.dto;
+
+import java.time.LocalDateTime;
+
+// Итог прогона архиватора: сколько сеансов и билетов старше cutoff перенесено в архив
+public record ArchiveReport(LocalDateTime cutoff, int showtimes, int tickets, int chunks) {
+}
@@ -0,0 +1,17 @@
+package com.matvey.cinema.model.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Результат одного заказа из пачки; index - позиция заказа в запросе
+public record BulkOrderResult(int index, boolean accepted, List<Long> ticketIds,
+                              BigDecimal total, String error) {
+
+    public static BulkOrderResult accepted(int index, List<Long> ticketIds, BigDecimal total) {
+        return new BulkOrderResult(index, true, ticketIds, total, null);
+    }
+
+    public static BulkOrderResult rejected(int index, String error) {
+        return new BulkOrderResult(index, false, List.of(), BigDecimal.ZERO, error);
+    }
+}
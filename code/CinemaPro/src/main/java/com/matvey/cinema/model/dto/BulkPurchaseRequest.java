@@ -0,0 +1,24 @@
+package com.matvey.cinema.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+// Пачка заказов от кассы или партнёра; заказы могут относиться к разным сеансам
+public class BulkPurchaseRequest {
+
+    @NotEmpty(message = "Список заказов не должен быть пустым")
+    @Valid
+    private List<PurchaseRequestDto> orders;
+
+    public BulkPurchaseRequest() {
+    }
+
+    public List<PurchaseRequestDto> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<PurchaseRequestDto> orders) {
+        this.orders = orders;
+    }
+}
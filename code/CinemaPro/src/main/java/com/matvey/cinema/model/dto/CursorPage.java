@@ -0,0 +1,119 @@
+package com.matvey.cinema.model.dto;
+
+import com.matvey.cinema.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is an opaque token for the next page,
+ * {@code null} on the last page. Internally the token encodes the last primary key of the page,
+ * so the next query seeks with {@code id > ?} instead of scanning past an OFFSET. Lists sorted by
+ * something other than the primary key use a composite key token, see {@link #ofKey}.
+ */
+public class CursorPage<T> {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+    private static final String KEY_CURSOR_PREFIX = "key:";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getSize() {
+        return items.size();
+    }
+
+    // Размер страницы в допустимых пределах
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    // Последний ID предыдущей страницы; 0 для первой страницы
+    public static long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String decoded = decode(cursor);
+        if (decoded != null && decoded.startsWith(CURSOR_PREFIX)) {
+            try {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                // Некорректный курсор
+            }
+        }
+        throw new ValidationException(List.of("Invalid cursor: " + cursor));
+    }
+
+    // Составной ключ последней строки предыдущей страницы из parts чисел; null для первой страницы
+    public static long[] afterKey(String cursor, int parts) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded = decode(cursor);
+        if (decoded != null && decoded.startsWith(KEY_CURSOR_PREFIX)) {
+            String[] values = decoded.substring(KEY_CURSOR_PREFIX.length()).split(",");
+            if (values.length == parts) {
+                try {
+                    return Arrays.stream(values).mapToLong(Long::parseLong).toArray();
+                } catch (NumberFormatException e) {
+                    // Некорректный курсор
+                }
+            }
+        }
+        throw new ValidationException(List.of("Invalid cursor: " + cursor));
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only signals
+     * that there is a next page and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        return page(rows, limit, last -> CURSOR_PREFIX + idOf.apply(last));
+    }
+
+    // То же для списков с сортировкой по составному ключу, например (оценка, ID)
+    public static <T> CursorPage<T> ofKey(List<T> rows, int limit, Function<T, long[]> keyOf) {
+        return page(rows, limit, last -> KEY_CURSOR_PREFIX + Arrays.stream(keyOf.apply(last))
+                .mapToObj(Long::toString).collect(Collectors.joining(",")));
+    }
+
+    private static <T> CursorPage<T> page(List<T> rows, int limit, Function<T, String> tokenOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        String token = tokenOf.apply(items.get(limit - 1));
+        return new CursorPage<>(items, Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // null, если это не Base64
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.matvey.cinema.model.dto;
+
+import java.util.Map;
+
+// Рейтинг фильма из предрасчитанных агрегатов; averageRating - null, пока отзывов нет
+public record MovieRating(Long movieId, long reviewCount, Double averageRating, Map<Integer, Long> histogram) {
+
+    // Среднее с округлением до сотых
+    public static Double average(Long reviewCount, Long ratingSum) {
+        if (reviewCount == null || reviewCount <= 0 || ratingSum == null) {
+            return null;
+        }
+        return Math.round(ratingSum * 100.0 / reviewCount) / 100.0;
+    }
+}
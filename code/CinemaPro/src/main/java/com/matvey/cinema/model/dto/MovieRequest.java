@@ -1,6 +1,7 @@
 package com.matvey.cinema.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -20,6 +21,9 @@ public class MovieRequest {
     @NotBlank(message = "Поле 'genre' не должно быть пустым")
     private String genre;
 
+    @Min(value = 1, message = "Поле 'durationMinutes' должно быть положительным")
+    private Integer durationMinutes;
+
     private List<Long> reviewIds;
     private List<Long> showtimeIds;
 
@@ -39,6 +43,10 @@ public class MovieRequest {
         return genre;
     }
 
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
     public List<Long> getReviewIds() {
         return reviewIds;
     }
@@ -0,0 +1,5 @@
+package com.matvey.cinema.model.dto;
+
+// Подсказка для строки поиска: только то, что нужно выпадающему списку
+public record MovieSuggestion(Long id, String title, String director, Integer releaseYear) {
+}
@@ -0,0 +1,13 @@
+package com.matvey.cinema.model.dto;
+
+// Проекция фильма для списков: колонки таблицы movies и готовые агрегаты оценок, без отзывов и сеансов
+public record MovieView(Long id, String title, String director, Integer releaseYear, String genre,
+                        long reviewCount, Double averageRating) {
+
+    // Для JPQL: строки movie_rating_stats может не быть, тогда count и sum приходят null
+    public MovieView(Long id, String title, String director, Integer releaseYear, String genre,
+                     Long reviewCount, Long ratingSum) {
+        this(id, title, director, releaseYear, genre, reviewCount == null ? 0L : reviewCount,
+                MovieRating.average(reviewCount, ratingSum));
+    }
+}
@@ -0,0 +1,33 @@
+package com.matvey.cinema.model.dto;
+
+import java.math.BigDecimal;
+
+public enum OccupancyBand {
+    LOW(new BigDecimal("1.00")),
+    MEDIUM(new BigDecimal("1.15")),
+    HIGH(new BigDecimal("1.30"));
+
+    private final BigDecimal multiplier;
+
+    OccupancyBand(BigDecimal multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public BigDecimal getMultiplier() {
+        return multiplier;
+    }
+
+    public static OccupancyBand of(int occupied, int capacity) {
+        if (capacity <= 0) {
+            return LOW;
+        }
+        double ratio = (double) occupied / capacity;
+        if (ratio >= 0.8) {
+            return HIGH;
+        }
+        if (ratio >= 0.5) {
+            return MEDIUM;
+        }
+        return LOW;
+    }
+}
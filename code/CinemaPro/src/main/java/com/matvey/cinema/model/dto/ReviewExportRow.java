@@ -0,0 +1,5 @@
+package com.matvey.cinema.model.dto;
+
+// Плоская строка выгрузки отзывов
+public record ReviewExportRow(Long id, Long movieId, Long userId, Integer rating, String content) {
+}
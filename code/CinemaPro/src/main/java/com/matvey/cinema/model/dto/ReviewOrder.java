@@ -0,0 +1,35 @@
+package com.matvey.cinema.model.dto;
+
+import com.matvey.cinema.exception.ValidationException;
+import java.util.List;
+import java.util.Locale;
+
+// Порядок отзывов фильма при постраничной выдаче и ключ курсора для него
+public enum ReviewOrder {
+    // Новые сначала: ID растёт с созданием отзыва
+    RECENT(1),
+    // Лучшие сначала, при равной оценке - новые
+    RATING(2);
+
+    private final int keyParts;
+
+    ReviewOrder(int keyParts) {
+        this.keyParts = keyParts;
+    }
+
+    public int getKeyParts() {
+        return keyParts;
+    }
+
+    public long[] keyOf(ReviewView review) {
+        return this == RECENT ? new long[] {review.id()} : new long[] {review.rating(), review.id()};
+    }
+
+    public static ReviewOrder fromParam(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(List.of("Unsupported review order: " + value));
+        }
+    }
+}
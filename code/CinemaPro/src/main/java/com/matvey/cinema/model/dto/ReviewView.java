@@ -0,0 +1,6 @@
+package com.matvey.cinema.model.dto;
+
+// Проекция отзыва: из пользователя нужен только логин автора
+public record ReviewView(Long id, Integer rating, String content, Long movieId, Long userId,
+                         String username) {
+}
@@ -0,0 +1,9 @@
+package com.matvey.cinema.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record ScheduleRequest(
+        @NotEmpty(message = "Поле 'rules' не должно быть пустым") List<@Valid ScheduleRule> rules) {
+}
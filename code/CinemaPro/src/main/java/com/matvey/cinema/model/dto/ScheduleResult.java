@@ -0,0 +1,7 @@
+package com.matvey.cinema.model.dto;
+
+import java.util.List;
+
+// created = 0 при dryRun: сеансы только проверены, но не сохранены
+public record ScheduleResult(int created, boolean dryRun, List<ScheduledShowtime> showtimes) {
+}
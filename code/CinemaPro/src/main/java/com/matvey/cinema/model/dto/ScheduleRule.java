@@ -0,0 +1,21 @@
+package com.matvey.cinema.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+// Правило расписания: фильм идёт в зале в указанные дни недели и часы на интервале дат [from, to]
+public record ScheduleRule(
+        @NotNull(message = "Поле 'movieId' не должно быть пустым") Long movieId,
+        @NotNull(message = "Поле 'theaterId' не должно быть пустым") Long theaterId,
+        @NotEmpty(message = "Поле 'days' не должно быть пустым") Set<DayOfWeek> days,
+        @NotEmpty(message = "Поле 'times' не должно быть пустым") List<@NotNull LocalTime> times,
+        @NotNull(message = "Поле 'from' не должно быть пустым") LocalDate from,
+        @NotNull(message = "Поле 'to' не должно быть пустым") LocalDate to,
+        @NotBlank(message = "Поле 'type' не должно быть пустым") String type) {
+}
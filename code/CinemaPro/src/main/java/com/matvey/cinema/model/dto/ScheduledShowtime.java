@@ -0,0 +1,13 @@
+package com.matvey.cinema.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+// Сеанс, полученный разворачиванием правил; endsAt включает уборку зала
+public record ScheduledShowtime(
+        Long movieId,
+        Long theaterId,
+        String type,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime startsAt,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime endsAt) {
+}
@@ -0,0 +1,5 @@
+package com.matvey.cinema.model.dto;
+
+// Результат поиска: для фильма title - название, для отзыва - начало текста; movieId - фильм отзыва
+public record SearchHit(SearchTarget type, Long id, Long movieId, String title, double score) {
+}
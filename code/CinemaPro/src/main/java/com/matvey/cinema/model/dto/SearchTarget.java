@@ -0,0 +1,19 @@
+package com.matvey.cinema.model.dto;
+
+import com.matvey.cinema.exception.ValidationException;
+import java.util.List;
+import java.util.Locale;
+
+// Что индексирует полнотекстовый поиск
+public enum SearchTarget {
+    MOVIE,
+    REVIEW;
+
+    public static SearchTarget fromParam(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(List.of("Unsupported search type: " + value));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.matvey.cinema.model.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Цены на все места сеанса одним ответом: номер места ("Ряд-Место") -> цена
+public class ShowtimePriceTable {
+
+    private Long showtimeId;
+    private OccupancyBand occupancyBand;
+    private Map<String, BigDecimal> prices;
+
+    public ShowtimePriceTable() {
+    }
+
+    public ShowtimePriceTable(Long showtimeId, OccupancyBand occupancyBand,
+                              Map<String, BigDecimal> prices) {
+        this.showtimeId = showtimeId;
+        this.occupancyBand = occupancyBand;
+        this.prices = prices;
+    }
+
+    public Long getShowtimeId() {
+        return showtimeId;
+    }
+
+    public OccupancyBand getOccupancyBand() {
+        return occupancyBand;
+    }
+
+    public Map<String, BigDecimal> getPrices() {
+        return prices;
+    }
+}
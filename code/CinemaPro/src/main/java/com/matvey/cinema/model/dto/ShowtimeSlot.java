@@ -0,0 +1,7 @@
+package com.matvey.cinema.model.dto;
+
+import java.time.LocalDateTime;
+
+// Сеанс как интервал занятости зала: без сущностей, только начало и длительность фильма
+public record ShowtimeSlot(Long id, LocalDateTime startsAt, Integer durationMinutes) {
+}
@@ -0,0 +1,6 @@
+package com.matvey.cinema.model.dto;
+
+// Проекция сеанса: вместо вложенных сущностей фильма и зала — их идентификаторы и названия
+public record ShowtimeView(Long id, String dateTime, String type, Long movieId, String movieTitle,
+                           Long theaterId, String theaterName) {
+}
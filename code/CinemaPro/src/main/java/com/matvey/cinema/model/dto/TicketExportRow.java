@@ -0,0 +1,8 @@
+package com.matvey.cinema.model.dto;
+
+import java.math.BigDecimal;
+
+// Плоская строка выгрузки билетов: без сущностей, чтобы контекст персистентности не рос
+public record TicketExportRow(Long id, Long showtimeId, Long userId, Long seatId,
+                              String seatNumber, BigDecimal price) {
+}
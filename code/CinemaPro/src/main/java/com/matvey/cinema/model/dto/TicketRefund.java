@@ -0,0 +1,8 @@
+package com.matvey.cinema.model.dto;
+
+import java.math.BigDecimal;
+
+// Данные отменённого билета, нужные для возврата денег и освобождения места
+public record TicketRefund(Long ticketId, Long userId, Long seatId, String seatNumber,
+                           BigDecimal amount) {
+}
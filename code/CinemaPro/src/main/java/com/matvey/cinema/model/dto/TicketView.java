@@ -0,0 +1,9 @@
+package com.matvey.cinema.model.dto;
+
+import java.math.BigDecimal;
+
+// Проекция билета для личного кабинета: без пользователя (пароль, email) и полного графа сеанса
+public record TicketView(Long id, String seatNumber, BigDecimal price, Long showtimeId,
+                         String showtimeDateTime, String showtimeType, String movieTitle,
+                         String theaterName, Long seatId) {
+}
@@ -0,0 +1,8 @@
+package com.matvey.cinema.model.dto;
+
+import java.time.LocalDateTime;
+
+// Сеанс для ленты "скоро в кино": время начала и названия вместо вложенных сущностей
+public record UpcomingShowtime(Long id, LocalDateTime startsAt, String type, Long movieId, String movieTitle,
+                               Long theaterId, String theaterName) {
+}
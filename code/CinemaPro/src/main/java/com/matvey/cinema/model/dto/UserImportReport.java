@@ -0,0 +1,19 @@
+package com.matvey.cinema.model.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. {@code row} in an error is the 1-based position of the record
+ * in the body (CSV header excluded); only the first errors are listed, {@code failed} counts all.
+ * {@code aborted} is set when the body stopped parsing before its end: records up to
+ * {@code lastGoodRow} were processed as usual, nothing after the broken spot was read.
+ */
+public record UserImportReport(long processed, long imported, long failed,
+                               List<RowError> errors, boolean errorsTruncated, Abort aborted) {
+
+    public record RowError(long row, String username, List<String> messages) {
+    }
+
+    public record Abort(long lastGoodRow, String reason) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.matvey.cinema.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// Строка импорта пользователей; лишние поля выгрузки старой системы игнорируются
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UserImportRow(
+        @NotBlank(message = "Имя пользователя не должно быть пустым")
+        @Size(min = 3, max = 50, message = "Имя пользователя должно содержать от 3 до 50 символов")
+        String username,
+        @NotBlank(message = "Email не должен быть пустым")
+        @Email(message = "Некорректный формат email")
+        String email,
+        @NotBlank(message = "Пароль не должен быть пустым")
+        String password) {
+}
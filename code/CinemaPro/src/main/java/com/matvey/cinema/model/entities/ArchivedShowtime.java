@@ -0,0 +1,90 @@
+package com.matvey.cinema.model.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Прошедший сеанс, перенесённый из showtimes архиватором. Фильм и зал хранятся идентификаторами
+// без внешних ключей, чтобы архив не мешал удалять справочные данные
+@Entity
+@Table(name = "showtimes_archive", indexes = {
+    @Index(name = "idx_showtimes_archive_movie", columnList = "movie_id"),
+    @Index(name = "idx_showtimes_archive_theater_starts_at", columnList = "theater_id, starts_at")
+})
+public class ArchivedShowtime {
+    @Id
+    private Long id;
+
+    private String dateTime;
+
+    private String type;
+
+    private LocalDateTime startsAt;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Column(name = "theater_id", nullable = false)
+    private Long theaterId;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedShowtime() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDateTime() {
+        return dateTime;
+    }
+
+    public void setDateTime(String dateTime) {
+        this.dateTime = dateTime;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(Long movieId) {
+        this.movieId = movieId;
+    }
+
+    public Long getTheaterId() {
+        return theaterId;
+    }
+
+    public void setTheaterId(Long theaterId) {
+        this.theaterId = theaterId;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
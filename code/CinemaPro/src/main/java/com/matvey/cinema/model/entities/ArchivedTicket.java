@@ -0,0 +1,91 @@
+package com.matvey.cinema.model.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Билет прошедшего сеанса, перенесённый из tickets вместе с сеансом
+@Entity
+@Table(name = "tickets_archive", indexes = {
+    @Index(name = "idx_tickets_archive_showtime", columnList = "showtime_id"),
+    @Index(name = "idx_tickets_archive_user", columnList = "user_id")
+})
+public class ArchivedTicket {
+    @Id
+    private Long id;
+
+    private String seatNumber;
+
+    private BigDecimal price;
+
+    @Column(name = "showtime_id", nullable = false)
+    private Long showtimeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "seat_id", nullable = false)
+    private Long seatId;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedTicket() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Long getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(Long showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    public void setSeatId(Long seatId) {
+        this.seatId = seatId;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -5,7 +5,9 @@ package com.matvey.cinema.model.entities;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -17,9 +19,13 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "movies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Справочные данные: меняются редко, читаются при каждой покупке
 public class Movie {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,6 +44,11 @@ public class Movie {
     @NotBlank(message = "Жанр не должен быть пустым")
     private String genre;
 
+    // Длительность нужна для проверки пересечений сеансов в зале; null - берётся значение по умолчанию
+    @Min(value = 1, message = "Длительность должна быть положительной")
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes;
+
     @OneToMany(mappedBy = "movie", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Showtime> showtimes = new ArrayList<>();
@@ -92,6 +103,14 @@ public class Movie {
         this.genre = genre;
     }
 
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
     public List<Showtime> getShowtimes() {
         return showtimes;
     }
@@ -0,0 +1,77 @@
+package com.matvey.cinema.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Агрегаты оценок фильма: количество, сумма и гистограмма 1-10. Пишутся только
+// MovieRatingAggregator'ом атомарными приращениями, здесь - для чтения
+@Entity
+@Table(name = "movie_rating_stats")
+public class MovieRatingStats {
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    private long reviewCount;
+
+    private long ratingSum;
+
+    @Column(name = "rating_1")
+    private long rating1;
+
+    @Column(name = "rating_2")
+    private long rating2;
+
+    @Column(name = "rating_3")
+    private long rating3;
+
+    @Column(name = "rating_4")
+    private long rating4;
+
+    @Column(name = "rating_5")
+    private long rating5;
+
+    @Column(name = "rating_6")
+    private long rating6;
+
+    @Column(name = "rating_7")
+    private long rating7;
+
+    @Column(name = "rating_8")
+    private long rating8;
+
+    @Column(name = "rating_9")
+    private long rating9;
+
+    @Column(name = "rating_10")
+    private long rating10;
+
+    public MovieRatingStats() {
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    // Оценка -> число отзывов с ней, по возрастанию оценки
+    public Map<Integer, Long> getHistogram() {
+        long[] counts = {rating1, rating2, rating3, rating4, rating5, rating6, rating7, rating8, rating9, rating10};
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.put(i + 1, counts[i]);
+        }
+        return histogram;
+    }
+}
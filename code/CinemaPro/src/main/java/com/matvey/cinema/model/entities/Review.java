@@ -3,20 +3,28 @@
 package com.matvey.cinema.model.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+    @Index(name = "idx_reviews_movie", columnList = "movie_id"),
+    @Index(name = "idx_reviews_movie_rating", columnList = "movie_id, rating, id"),
+    @Index(name = "idx_reviews_user", columnList = "user_id")
+})
 public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,6 +49,15 @@ public class Review {
     @JsonBackReference // Breaks Movie <-> Review cycle
     private Movie movie;
 
+    // Оценка и фильм, уже учтённые в movie_rating_stats: по ним считается разница при изменении отзыва
+    @Transient
+    @JsonIgnore
+    private Integer countedRating;
+
+    @Transient
+    @JsonIgnore
+    private Long countedMovieId;
+
     public Review() {
         // Default constructor
     }
@@ -86,4 +103,19 @@ public class Review {
     public void setMovie(Movie movie) {
         this.movie = movie;
     }
+
+    public Integer getCountedRating() {
+        return countedRating;
+    }
+
+    public Long getCountedMovieId() {
+        return countedMovieId;
+    }
+
+    // Загруженный из БД отзыв уже учтён; после сохранения сервис вызывает это сам
+    @PostLoad
+    public void markCounted() {
+        countedRating = rating;
+        countedMovieId = movie != null ? movie.getId() : null;
+    }
 }
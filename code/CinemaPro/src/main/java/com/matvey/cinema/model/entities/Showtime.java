@@ -1,13 +1,24 @@
 package com.matvey.cinema.model.entities;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "showtimes")
+@Table(name = "showtimes", indexes = {
+    @Index(name = "idx_showtimes_movie", columnList = "movie_id"),
+    @Index(name = "idx_showtimes_theater_starts_at", columnList = "theater_id, starts_at"),
+    @Index(name = "idx_showtimes_starts_at", columnList = "starts_at")
+})
 public class Showtime {
+    // Формат строкового поля dateTime, см. ShowtimeDateValidator
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy H:mm");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -15,6 +26,12 @@ public class Showtime {
     private String dateTime;
     private String type;
 
+    // Время начала как настоящий timestamp: по нему работают диапазонные запросы по индексу.
+    // Заполняется из dateTime, строка остаётся для совместимости с фронтендом
+    @Column(name = "starts_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startsAt;
+
     // <-- Связь с Фильмом (как мы добавляли) -->
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "movie_id", nullable = false)
@@ -53,6 +70,27 @@ public class Showtime {
 
     public void setDateTime(String dateTime) {
         this.dateTime = dateTime;
+        this.startsAt = parseDateTime(dateTime);
+    }
+
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    // null, если строка пустая или не в формате "dd.MM.yyyy H:mm"
+    public static LocalDateTime parseDateTime(String dateTime) {
+        if (dateTime == null || dateTime.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(dateTime.trim(), DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     public String getType() {
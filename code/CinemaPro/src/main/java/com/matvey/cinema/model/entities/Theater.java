@@ -1,5 +1,6 @@
 package com.matvey.cinema.model.entities;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,9 +12,13 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "theaters")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Theater {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +27,8 @@ public class Theater {
     private String name;
     private int capacity;
 
+    // Коллекция не кэшируется: удаление места через SeatRepository её бы не сбросило.
+    // Места зала читаются кэшируемым запросом SeatRepository.findSeatsByTheaterId
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "theater_id")
     private List<Seat> seats = new ArrayList<>();
@@ -7,7 +7,13 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "tickets")
+// Уникальность (сеанс, место) — последняя защита от двойной продажи, если проверка в памяти пропустила гонку
+@Table(name = "tickets", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tickets_showtime_seat", columnNames = {"showtime_id", "seat_number"})
+}, indexes = {
+    @Index(name = "idx_tickets_user", columnList = "user_id"),
+    @Index(name = "idx_tickets_seat", columnList = "seat_id")
+})
 public class Ticket {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType; // Импорт для типов г
 import jakarta.persistence.Id; // Импорт для объявления первичного ключа
 import jakarta.persistence.OneToMany; // Импорт для отношения "один ко многим"
 import jakarta.persistence.Table; // Импорт для маппинга сущности на таблицу
+import jakarta.persistence.UniqueConstraint; // Импорт для ограничения уникальности
 import jakarta.validation.constraints.Email; // Импорт для валидации формата email
 import jakarta.validation.constraints.NotBlank; // Импорт для валидации на непустую строку
 import jakarta.validation.constraints.Size; // Импорт для валидации размера строки
@@ -17,7 +18,9 @@ import java.util.ArrayList; // Импорт для использования Ar
 import java.util.List; // Импорт для использования List
 
 @Entity // Объявляет класс как сущность JPA
-@Table(name = "users") // Маппит сущность на таблицу с именем "users"
+@Table(name = "users", uniqueConstraints = { // Маппит сущность на таблицу с именем "users"
+    @UniqueConstraint(name = "uk_users_username", columnNames = "username") // Вход и поиск идут по имени пользователя
+})
 public class User {
     @Id // Объявляет поле как первичный ключ
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Указывает, что значение первичного ключа генерируется базой данных
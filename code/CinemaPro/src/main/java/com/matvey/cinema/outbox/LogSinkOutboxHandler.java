@@ -0,0 +1,23 @@
+package com.matvey.cinema.outbox;
+
+import com.matvey.cinema.model.entities.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Обработчик по умолчанию: пишет каждое событие в отдельный лог (logs/outbox.log)
+@Component
+public class LogSinkOutboxHandler implements OutboxEventHandler {
+    private static final Logger sink = LoggerFactory.getLogger("outbox");
+
+    @Override
+    public boolean supports(String eventType) {
+        return true;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        sink.info("{} {} {}#{} {}", event.getId(), event.getEventType(),
+                event.getAggregateType(), event.getAggregateId(), event.getPayload());
+    }
+}
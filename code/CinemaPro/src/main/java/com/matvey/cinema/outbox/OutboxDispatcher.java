@@ -0,0 +1,98 @@
+package com.matvey.cinema.outbox;
+
+import com.matvey.cinema.model.entities.OutboxEvent;
+import com.matvey.cinema.repository.OutboxEventRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the outbox table in batches and hands each event to every handler that supports it.
+ * Each batch runs in its own transaction, so a crash leaves the batch PENDING for the next run.
+ * A failed event is retried with exponential backoff ({@code retry-base-ms}, doubled per attempt
+ * up to {@code retry-max-ms}) and marked FAILED after {@code max-attempts}.
+ */
+@Component
+public class OutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBase;
+    private final Duration retryMax;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            List<OutboxEventHandler> handlers,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${outbox.dispatch.batch-size:100}") int batchSize,
+                            @Value("${outbox.dispatch.max-attempts:5}") int maxAttempts,
+                            @Value("${outbox.dispatch.retry-base-ms:1000}") long retryBaseMs,
+                            @Value("${outbox.dispatch.retry-max-ms:300000}") long retryMaxMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBase = Duration.ofMillis(retryBaseMs);
+        this.retryMax = Duration.ofMillis(retryMaxMs);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch.interval-ms:1000}")
+    public void dispatch() {
+        // Разбираем очередь, пока приходят полные пачки; упавшие события отложены
+        // и в этот же проход повторно не выбираются
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> dispatchBatch());
+        } while (processed != null && processed == batchSize);
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockPendingBatch(batchSize, now);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        for (OutboxEvent event : events) {
+            try {
+                for (OutboxEventHandler handler : handlers) {
+                    if (handler.supports(event.getEventType())) {
+                        handler.handle(event);
+                    }
+                }
+                event.setStatus(OutboxEvent.Status.SENT);
+                event.setProcessedAt(LocalDateTime.now());
+            } catch (Exception e) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(OutboxEvent.Status.FAILED);
+                    event.setProcessedAt(LocalDateTime.now());
+                } else {
+                    event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                }
+                logger.error("Outbox event ID: {} ({}) failed, attempt {}: {}", event.getId(),
+                        event.getEventType(), event.getAttempts(), e.getMessage());
+            }
+        }
+        outboxEventRepository.saveAll(events);
+        logger.debug("Outbox batch of {} events dispatched.", events.size());
+        return events.size();
+    }
+
+    // retry-base-ms * 2^(attempts - 1), не больше retry-max-ms
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = retryBase.multipliedBy(1L << shift);
+        return delay.compareTo(retryMax) > 0 ? retryMax : delay;
+    }
+}
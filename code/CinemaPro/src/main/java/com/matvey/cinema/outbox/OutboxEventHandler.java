@@ -0,0 +1,15 @@
+package com.matvey.cinema.outbox;
+
+import com.matvey.cinema.model.entities.OutboxEvent;
+
+/**
+ * Downstream side effect of an outbox event (confirmation e-mail, analytics, cache refresh...).
+ * Every Spring bean implementing this interface is picked up by {@link OutboxDispatcher}.
+ * Handlers must be idempotent: an event is redelivered if the dispatcher fails mid-batch.
+ */
+public interface OutboxEventHandler {
+
+    boolean supports(String eventType);
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,13 @@
+package com.matvey.cinema.outbox;
+
+public class OutboxEventTypes {
+    public static final String AGGREGATE_TICKET_ORDER = "TicketOrder";
+    public static final String AGGREGATE_SHOWTIME = "Showtime";
+
+    public static final String TICKETS_PURCHASED = "TicketsPurchased";
+    public static final String TICKETS_REFUNDED = "TicketsRefunded";
+
+    private OutboxEventTypes() {
+        throw new UnsupportedOperationException("Utility class. Instantiation is not allowed.");
+    }
+}
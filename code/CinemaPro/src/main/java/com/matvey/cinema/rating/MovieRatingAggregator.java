@@ -0,0 +1,163 @@
+package com.matvey.cinema.rating;
+
+import com.matvey.cinema.transaction.TransactionCallbacks;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code movie_rating_stats} (review count, rating sum and a 1-10 histogram per movie) in
+ * step with {@code reviews}. Every review change is applied as one atomic upsert of deltas in the
+ * caller's transaction, so concurrent reviews of the same movie never lose an update and movie
+ * listings read an average without touching the reviews table.
+ *
+ * <p>The table is filled from {@code reviews} at startup when it is empty; {@link #rebuild()}
+ * recomputes it from scratch. {@link MovieRatingListener}s hear about every change once it commits.
+ */
+@Component
+public class MovieRatingAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(MovieRatingAggregator.class);
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 10;
+
+    private static final String HISTOGRAM_COLUMNS = histogram(r -> "rating_" + r);
+    private static final String UPSERT_SQL =
+            "INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum, " + HISTOGRAM_COLUMNS + ") "
+                    + "VALUES (:movieId, :count, :sum, " + histogram(r -> ":r" + r) + ") "
+                    + "ON DUPLICATE KEY UPDATE review_count = review_count + :count, "
+                    + "rating_sum = rating_sum + :sum, " + histogram(r -> "rating_" + r + " = rating_" + r + " + :r" + r);
+    private static final String REBUILD_SQL =
+            "INSERT INTO movie_rating_stats (movie_id, review_count, rating_sum, " + HISTOGRAM_COLUMNS + ") "
+                    + "SELECT movie_id, COUNT(*), SUM(rating), "
+                    + histogram(r -> "SUM(CASE WHEN rating = " + r + " THEN 1 ELSE 0 END)")
+                    + " FROM reviews WHERE rating IS NOT NULL GROUP BY movie_id";
+    private static final String USER_RATINGS_SQL =
+            "SELECT movie_id, rating, COUNT(*) AS reviews FROM reviews "
+                    + "WHERE user_id = :userId AND rating IS NOT NULL GROUP BY movie_id, rating";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<MovieRatingListener> listeners;
+
+    public MovieRatingAggregator(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 ObjectProvider<MovieRatingListener> listeners) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Moves one review from {@code (oldMovieId, oldRating)} to {@code (newMovieId, newRating)}.
+     * A null old pair means the review is new, a null new pair means it is deleted.
+     */
+    public void record(Long oldMovieId, Integer oldRating, Long newMovieId, Integer newRating) {
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        if (oldMovieId != null && isRating(oldRating)) {
+            deltas.computeIfAbsent(oldMovieId, id -> new Delta()).add(oldRating, -1);
+        }
+        if (newMovieId != null && isRating(newRating)) {
+            deltas.computeIfAbsent(newMovieId, id -> new Delta()).add(newRating, 1);
+        }
+        deltas.forEach(this::apply);
+    }
+
+    // Отзывы пользователя удаляются каскадом вместе с ним, минуя ReviewService
+    public void removeReviewsOfUser(Long userId) {
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        jdbcTemplate.query(USER_RATINGS_SQL, new MapSqlParameterSource("userId", userId), rs -> {
+            int rating = rs.getInt("rating");
+            if (isRating(rating)) {
+                deltas.computeIfAbsent(rs.getLong("movie_id"), id -> new Delta())
+                        .add(rating, -rs.getLong("reviews"));
+            }
+        });
+        deltas.forEach(this::apply);
+    }
+
+    public void forget(Long movieId) {
+        jdbcTemplate.update("DELETE FROM movie_rating_stats WHERE movie_id = :movieId",
+                new MapSqlParameterSource("movieId", movieId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movie_rating_stats",
+                new MapSqlParameterSource(), Long.class);
+        if (rows != null && rows == 0) {
+            int movies = rebuild();
+            if (movies > 0) {
+                logger.info("Rating aggregates backfilled for {} movies", movies);
+            }
+        }
+    }
+
+    // Полный пересчёт одной транзакцией; возвращает число фильмов с отзывами
+    public int rebuild() {
+        Integer movies = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM movie_rating_stats", new MapSqlParameterSource());
+            return jdbcTemplate.update(REBUILD_SQL, new MapSqlParameterSource());
+        });
+        TransactionCallbacks.afterCommit(() -> listeners.orderedStream().forEach(MovieRatingListener::onRatingsRebuilt));
+        return Objects.requireNonNullElse(movies, 0);
+    }
+
+    private void apply(Long movieId, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("movieId", movieId)
+                .addValue("count", delta.count)
+                .addValue("sum", delta.sum);
+        for (int r = MIN_RATING; r <= MAX_RATING; r++) {
+            params.addValue("r" + r, delta.histogram[r - MIN_RATING]);
+        }
+        jdbcTemplate.update(UPSERT_SQL, params);
+        logger.debug("Rating aggregates of movie ID: {} changed by {} reviews, sum {}",
+                movieId, delta.count, delta.sum);
+        if (delta.count != 0) {
+            long count = delta.count;
+            TransactionCallbacks.afterCommit(() -> listeners.orderedStream()
+                    .forEach(listener -> listener.onReviewCountChanged(movieId, count)));
+        }
+    }
+
+    private static boolean isRating(Integer rating) {
+        return rating != null && rating >= MIN_RATING && rating <= MAX_RATING;
+    }
+
+    private static String histogram(IntFunction<String> column) {
+        return IntStream.rangeClosed(MIN_RATING, MAX_RATING).mapToObj(column).collect(Collectors.joining(", "));
+    }
+
+    private static final class Delta {
+        private long count;
+        private long sum;
+        private final long[] histogram = new long[MAX_RATING - MIN_RATING + 1];
+
+        void add(int rating, long reviews) {
+            count += reviews;
+            sum += rating * reviews;
+            histogram[rating - MIN_RATING] += reviews;
+        }
+
+        // Смена текста без смены оценки не меняет агрегаты
+        boolean isEmpty() {
+            return Arrays.stream(histogram).allMatch(reviews -> reviews == 0);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.matvey.cinema.rating;
+
+/**
+ * Subscriber to changes of the rating aggregates. Called by {@link MovieRatingAggregator}
+ * after the transaction that changed the reviews has committed.
+ */
+public interface MovieRatingListener {
+
+    // delta - на сколько изменилось число оценённых отзывов фильма
+    default void onReviewCountChanged(Long movieId, long delta) {
+    }
+
+    // Агрегаты пересчитаны целиком, по одному фильму их уже не сверить
+    default void onRatingsRebuilt() {
+    }
+}
@@ -0,0 +1,14 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.model.entities.ArchivedShowtime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedShowtimeRepository extends JpaRepository<ArchivedShowtime, Long> {
+
+    List<ArchivedShowtime> findByMovieIdOrderByStartsAtAsc(Long movieId);
+
+    List<ArchivedShowtime> findByTheaterIdOrderByStartsAtAsc(Long theaterId);
+}
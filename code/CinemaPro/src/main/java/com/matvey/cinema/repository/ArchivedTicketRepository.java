@@ -0,0 +1,14 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.model.entities.ArchivedTicket;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedTicketRepository extends JpaRepository<ArchivedTicket, Long> {
+
+    List<ArchivedTicket> findByShowtimeIdOrderByIdAsc(Long showtimeId);
+
+    List<ArchivedTicket> findByUserIdOrderByIdAsc(Long userId);
+}
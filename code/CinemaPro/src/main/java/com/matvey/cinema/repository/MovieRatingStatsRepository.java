@@ -0,0 +1,9 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.model.entities.MovieRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MovieRatingStatsRepository extends JpaRepository<MovieRatingStats, Long> {
+}
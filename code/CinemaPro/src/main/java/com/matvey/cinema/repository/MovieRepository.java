@@ -1,5 +1,6 @@
 package com.matvey.cinema.repository;
 
+import com.matvey.cinema.model.dto.MovieView;
 import com.matvey.cinema.model.entities.Movie;
 import java.util.List;
 import java.util.Optional;
@@ -10,8 +11,12 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
 
-    @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.reviews")
-    List<Movie> findAllWithReviews();
+    // Проекция: SELECT только нужных колонок, без гидрации сущностей и коллекций;
+    // средняя оценка берётся из готовых агрегатов, а не из join по всем отзывам
+    @Query("SELECT new com.matvey.cinema.model.dto.MovieView(m.id, m.title, m.director, "
+            + "m.releaseYear, m.genre, s.reviewCount, s.ratingSum) FROM Movie m "
+            + "LEFT JOIN MovieRatingStats s ON s.movieId = m.id ORDER BY m.id")
+    List<MovieView> findAllViews();
 
     // TODO: Add other custom query methods if needed
 }
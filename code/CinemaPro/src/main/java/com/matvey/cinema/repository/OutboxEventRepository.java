@@ -0,0 +1,19 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.model.entities.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Пачка необработанных событий, срок повтора которых наступил; SKIP LOCKED позволяет
+    // нескольким экземплярам приложения разбирать очередь параллельно, не блокируя друг друга
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' "
+            + "AND (next_attempt_at IS NULL OR next_attempt_at <= ?2) ORDER BY id LIMIT ?1 "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(int batchSize, LocalDateTime now);
+}
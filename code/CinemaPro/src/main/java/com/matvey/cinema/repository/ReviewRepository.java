@@ -1,10 +1,18 @@
 package com.matvey.cinema.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.matvey.cinema.model.dto.ReviewExportRow;
+import com.matvey.cinema.model.dto.ReviewView;
 import com.matvey.cinema.model.entities.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -31,4 +39,41 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // TODO: Remove or refactor this default method if it's not used or causing issues
     // default void updateReviewDetails(...) { ... }
+
+    // Keyset-пагинация: поиск по первичному ключу вместо OFFSET
+    @EntityGraph(attributePaths = {"user", "movie"})
+    List<Review> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Потоковая выгрузка, см. TicketRepository.streamAllForExport
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.matvey.cinema.model.dto.ReviewExportRow(r.id, r.movie.id, r.user.id, "
+            + "r.rating, r.content) FROM Review r ORDER BY r.id")
+    Stream<ReviewExportRow> streamAllForExport();
+
+    // Те же плоские строки пачками по ID - для построения поискового индекса на любой БД
+    @Query("SELECT new com.matvey.cinema.model.dto.ReviewExportRow(r.id, r.movie.id, r.user.id, "
+            + "r.rating, r.content) FROM Review r WHERE r.id > :afterId ORDER BY r.id")
+    List<ReviewExportRow> findExportRowsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT new com.matvey.cinema.model.dto.ReviewView(r.id, r.rating, r.content, "
+            + "r.movie.id, u.id, u.username) FROM Review r JOIN r.user u "
+            + "WHERE r.movie.id = :movieId ORDER BY r.id")
+    List<ReviewView> findViewsByMovieId(@Param("movieId") Long movieId);
+
+    // Keyset-страницы отзывов фильма: новые сначала, затем по (оценка, ID) - обе идут по индексам на movie_id
+    @Query("SELECT new com.matvey.cinema.model.dto.ReviewView(r.id, r.rating, r.content, "
+            + "r.movie.id, u.id, u.username) FROM Review r JOIN r.user u "
+            + "WHERE r.movie.id = :movieId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ReviewView> findRecentViewsByMovieId(@Param("movieId") Long movieId, @Param("beforeId") long beforeId,
+                                              Limit limit);
+
+    @Query("SELECT new com.matvey.cinema.model.dto.ReviewView(r.id, r.rating, r.content, "
+            + "r.movie.id, u.id, u.username) FROM Review r JOIN r.user u "
+            + "WHERE r.movie.id = :movieId AND (r.rating < :rating OR (r.rating = :rating AND r.id < :beforeId)) "
+            + "ORDER BY r.rating DESC, r.id DESC")
+    List<ReviewView> findTopRatedViewsByMovieId(@Param("movieId") Long movieId, @Param("rating") int rating,
+                                                @Param("beforeId") long beforeId, Limit limit);
 }
@@ -3,26 +3,33 @@ package com.matvey.cinema.repository;
 import com.matvey.cinema.model.dto.SeatRequest;
 import com.matvey.cinema.model.entities.Seat;
 import com.matvey.cinema.model.entities.Theater;
-import com.matvey.cinema.model.entities.Ticket;
 import com.matvey.cinema.service.TheaterService;
 import com.matvey.cinema.service.TicketService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface SeatRepository extends JpaRepository<Seat, Long> {
 
-    // Поиск мест по названию театра
-    @Query(value =
-            "SELECT s.* FROM seats s JOIN theaters t ON s.theater_id = t.id WHERE t.name = ?1",
-            nativeQuery = true)
+    // Поиск мест по названию театра.
+    // JPQL вместо native: кэш запросов инвалидируется по таблицам seats/theaters, а места берутся из L2
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s FROM Theater t JOIN t.seats s WHERE t.name = ?1")
     List<Seat> findSeatsByTheaterName(String theaterName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s FROM Theater t JOIN t.seats s WHERE t.id = ?1")
+    List<Seat> findSeatsByTheaterId(Long theaterId);
+
     @Query(value = "SELECT theater_id FROM seats WHERE id = :id", nativeQuery = true)
     Optional<Long> findTheaterIdById(@Param("id") Long id);
 
@@ -40,13 +47,11 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
             theater.getSeats().add(seat);
         }
 
-        List<Ticket> tickets = new ArrayList<>();
-        for (Long ticketId : seatRequest.getTicketIds()) {
-            Optional<Ticket> ticketOptional = ticketService.findById(ticketId);
-            ticketOptional.ifPresent(tickets::add);
-        }
-        seat.setTickets(tickets);
+        seat.setTickets(new ArrayList<>(ticketService.findAllByIds(seatRequest.getTicketIds())));
     }
 
     Optional<Seat> findBySeatRowAndNumber(int seatRow, int number);
+
+    // Keyset-пагинация: поиск по первичному ключу вместо OFFSET
+    List<Seat> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -1,6 +1,9 @@
 package com.matvey.cinema.repository;
 
 import com.matvey.cinema.model.dto.ShowtimeRequest;
+import com.matvey.cinema.model.dto.ShowtimeSlot;
+import com.matvey.cinema.model.dto.ShowtimeView;
+import com.matvey.cinema.model.dto.UpcomingShowtime;
 import com.matvey.cinema.model.entities.Movie;
 import com.matvey.cinema.model.entities.Showtime;
 import com.matvey.cinema.model.entities.Theater;
@@ -8,9 +11,12 @@ import com.matvey.cinema.model.entities.Ticket;
 import com.matvey.cinema.service.MovieService;
 import com.matvey.cinema.service.TheaterService;
 import com.matvey.cinema.service.TicketService;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,16 +25,20 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"movie", "theater"})
+    List<Showtime> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"movie", "theater"})
+    Optional<Showtime> findById(Long id);
+
     // Поиск сеансов по названию театра
-    @Query(value =
-            "SELECT st.* FROM showtimes st JOIN theaters t ON st.theater_id=t.id WHERE t.name = ?1",
-            nativeQuery = true)
+    @Query("SELECT st FROM Showtime st JOIN FETCH st.theater t JOIN FETCH st.movie WHERE t.name = ?1")
     List<Showtime> findShowtimesByTheaterName(String theaterName);
 
     // Поиск сеансов по названию фильма
-    @Query(value =
-            "SELECT st.* FROM showtimes st JOIN movies m ON st.movie_id = m.id WHERE m.title = ?1",
-            nativeQuery = true)
+    @Query("SELECT st FROM Showtime st JOIN FETCH st.movie m JOIN FETCH st.theater WHERE m.title = ?1")
     List<Showtime> findShowtimesByMovieTitle(String movieTitle);
 
 
@@ -76,5 +86,43 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
 
     }
 
+    @EntityGraph(attributePaths = {"movie", "theater"})
     List<Showtime> findByMovieId(Long movieId);
+
+    // Keyset-пагинация: поиск по первичному ключу вместо OFFSET
+    @EntityGraph(attributePaths = {"movie"})
+    List<Showtime> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT new com.matvey.cinema.model.dto.ShowtimeView(s.id, s.dateTime, s.type, "
+            + "m.id, m.title, t.id, t.name) FROM Showtime s JOIN s.movie m JOIN s.theater t "
+            + "WHERE m.id = :movieId ORDER BY s.id")
+    List<ShowtimeView> findViewsByMovieId(@Param("movieId") Long movieId);
+
+    // Диапазон [from, to) по starts_at: range scan по idx_showtimes_starts_at
+    @EntityGraph(attributePaths = {"movie"})
+    @Query("SELECT s FROM Showtime s WHERE s.startsAt >= :from AND s.startsAt < :to ORDER BY s.startsAt, s.id")
+    List<Showtime> findStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // То же в одном зале: range scan по idx_showtimes_theater_starts_at (theater_id, starts_at)
+    @EntityGraph(attributePaths = {"movie"})
+    @Query("SELECT s FROM Showtime s WHERE s.theater.id = :theaterId "
+            + "AND s.startsAt >= :from AND s.startsAt < :to ORDER BY s.startsAt, s.id")
+    List<Showtime> findStartingBetweenInTheater(@Param("theaterId") Long theaterId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    // Окно UpcomingShowtimeIndex одной выборкой без сущностей: range scan по idx_showtimes_starts_at
+    @Query("SELECT new com.matvey.cinema.model.dto.UpcomingShowtime(s.id, s.startsAt, s.type, "
+            + "m.id, m.title, t.id, t.name) FROM Showtime s JOIN s.movie m JOIN s.theater t "
+            + "WHERE s.startsAt >= :from AND s.startsAt < :to ORDER BY s.startsAt, s.id")
+    List<UpcomingShowtime> findUpcomingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Все сеансы зала для TheaterOccupancyIndex: range scan по idx_showtimes_theater_starts_at
+    @Query("SELECT new com.matvey.cinema.model.dto.ShowtimeSlot(s.id, s.startsAt, m.durationMinutes) "
+            + "FROM Showtime s JOIN s.movie m WHERE s.theater.id = :theaterId AND s.startsAt IS NOT NULL "
+            + "ORDER BY s.startsAt, s.id")
+    List<ShowtimeSlot> findTimelineByTheaterId(@Param("theaterId") Long theaterId);
+
+    // Сеансы, у которых starts_at ещё не заполнен из строкового dateTime
+    List<Showtime> findByStartsAtIsNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -1,5 +1,8 @@
 package com.matvey.cinema.repository;
 
+import com.matvey.cinema.model.dto.TicketExportRow;
+import com.matvey.cinema.model.dto.TicketRefund;
+import com.matvey.cinema.model.dto.TicketView;
 import com.matvey.cinema.model.entities.Seat;
 import com.matvey.cinema.model.entities.Showtime;
 import com.matvey.cinema.model.entities.Ticket;
@@ -8,28 +11,43 @@ import com.matvey.cinema.model.entities.Ticket;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param; // Needed for @Param
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    // Все связи, которые попадают в JSON билета, загружаются одним запросом
+    @Override
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
+    List<Ticket> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
+    Optional<Ticket> findById(Long id);
+
     // Your original methods (assuming they work with your DB schema)
-    @Query(value =
-            "SELECT t.* FROM tickets t JOIN users u ON t.user_id = u.id WHERE u.username = ?1",
-            nativeQuery = true)
+    // JOIN FETCH: сеанс, фильм, пользователь и место приходят тем же запросом, без N+1
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.user u JOIN FETCH t.showtime s LEFT JOIN FETCH s.movie "
+            + "JOIN FETCH t.seat WHERE u.username = ?1")
     List<Ticket> findTicketsByUserUsername(String username);
 
-    @Query(value =
-            "SELECT t.* FROM tickets t JOIN showtimes s ON t.showtime_id=s.id WHERE s.date_time=?1",
-            nativeQuery = true)
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.showtime s LEFT JOIN FETCH s.movie JOIN FETCH t.user "
+            + "JOIN FETCH t.seat WHERE s.dateTime = ?1")
     List<Ticket> findTicketsByShowtimeDateTime(String showtimeDateTime);
 
-    @Query(value = "SELECT * FROM tickets WHERE seat_id = ?1", nativeQuery = true)
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.seat st JOIN FETCH t.showtime s LEFT JOIN FETCH s.movie "
+            + "JOIN FETCH t.user WHERE st.id = ?1")
     List<Ticket> findTicketsBySeatId(Long seatId);
 
     // <-- RETURNED: Your original methods for finding foreign key IDs -->
@@ -42,21 +60,62 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query(value = "SELECT seat_id FROM tickets WHERE id = :id", nativeQuery = true)
     Optional<Long> findSeatIdById(@Param("id") Long id);
 
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
     List<Ticket> findByUser_Username(String username);
 
     // If Ticket entity has ManyToOne Showtime showtime:
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
     List<Ticket> findByShowtime_DateTime(String showtimeDateTime); // If datetime is String
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
     List<Ticket> findByShowtime(Showtime showtime); // Find by Showtime entity
 
     // If Ticket entity has ManyToOne Seat seat:
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
     List<Ticket> findBySeatId(Long seatId); // Find by Seat entity ID using Spring Data
 
     // Method for finding a ticket by Showtime and Seat number (for purchase validation)
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
     Optional<Ticket> findByShowtimeAndSeatNumber(Showtime showtime, String seatNumber);
 
     // Your original method to find by Showtime ID
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
     List<Ticket> findByShowtime_Id(Long showtimeId); // Keeping your method
 
+    // Only the seat numbers, for the occupancy registry (no entity hydration)
+    @Query("SELECT t.seatNumber FROM Ticket t WHERE t.showtime.id = :showtimeId")
+    List<String> findSeatNumbersByShowtimeId(@Param("showtimeId") Long showtimeId);
+
+    // Данные для возврата без загрузки сущностей билетов, пользователей и мест
+    @Query("SELECT new com.matvey.cinema.model.dto.TicketRefund(t.id, t.user.id, t.seat.id, "
+            + "t.seatNumber, t.price) FROM Ticket t WHERE t.showtime.id = :showtimeId")
+    List<TicketRefund> findRefundsByShowtimeId(@Param("showtimeId") Long showtimeId);
+
+    // Массовая отмена одним DELETE вместо N удалений по ID
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Ticket t WHERE t.showtime.id = :showtimeId")
+    int deleteAllByShowtimeIdInBulk(@Param("showtimeId") Long showtimeId);
+
     @EntityGraph(attributePaths = {"showtime", "user", "seat", "showtime.movie", "showtime.theater"})
     List<Ticket> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Keyset-пагинация: поиск по первичному ключу вместо OFFSET
+    @EntityGraph(attributePaths = {"showtime", "showtime.movie", "user", "seat"})
+    List<Ticket> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Однонаправленный курсор для выгрузки. С useCursorFetch=true в URL MySQL Connector/J читает
+    // строки серверным курсором порциями по fetch size, иначе весь результат читается в память
+    // драйвера. Integer.MIN_VALUE понимает только MySQL, другие драйверы его отвергают
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.matvey.cinema.model.dto.TicketExportRow(t.id, t.showtime.id, t.user.id, "
+            + "t.seat.id, t.seatNumber, t.price) FROM Ticket t ORDER BY t.id")
+    Stream<TicketExportRow> streamAllForExport();
+
+    // Проекция для личного кабинета: одна строка на билет, без колонок пользователя
+    @Query("SELECT new com.matvey.cinema.model.dto.TicketView(t.id, t.seatNumber, t.price, s.id, "
+            + "s.dateTime, s.type, m.title, th.name, t.seat.id) FROM Ticket t JOIN t.showtime s "
+            + "JOIN s.movie m JOIN s.theater th WHERE t.user.id = :userId ORDER BY t.id")
+    List<TicketView> findViewsByUserId(@Param("userId") Long userId);
+}
@@ -1,7 +1,9 @@
 package com.matvey.cinema.repository;
 
 import com.matvey.cinema.model.entities.User;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,5 +15,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // <-- ДОБАВЛЕНО: Метод для поиска пользователя по нику И паролю -->
     Optional<User> findByUsernameAndPassword(String username, String password);
 
-
-}
\ No newline at end of file
+    // Keyset-пагинация: поиск по первичному ключу вместо OFFSET
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
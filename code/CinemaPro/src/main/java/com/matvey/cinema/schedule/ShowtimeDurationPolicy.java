@@ -0,0 +1,39 @@
+package com.matvey.cinema.schedule;
+
+import com.matvey.cinema.model.entities.Movie;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * How long a showtime keeps its theater busy: the movie duration (or the default one for movies
+ * without it) plus the cleanup break before the next showtime.
+ */
+@Component
+public class ShowtimeDurationPolicy {
+
+    private final Duration defaultDuration;
+    private final Duration cleanup;
+
+    public ShowtimeDurationPolicy(@Value("${showtime.schedule.default-duration-minutes:120}") long defaultMinutes,
+                                  @Value("${showtime.schedule.cleanup-minutes:15}") long cleanupMinutes) {
+        this.defaultDuration = Duration.ofMinutes(defaultMinutes);
+        this.cleanup = Duration.ofMinutes(cleanupMinutes);
+    }
+
+    public Duration screening(Movie movie) {
+        return screening(movie == null ? null : movie.getDurationMinutes());
+    }
+
+    public Duration screening(Integer durationMinutes) {
+        return durationMinutes == null ? defaultDuration : Duration.ofMinutes(durationMinutes);
+    }
+
+    public Duration occupancy(Movie movie) {
+        return screening(movie).plus(cleanup);
+    }
+
+    public Duration occupancy(Integer durationMinutes) {
+        return screening(durationMinutes).plus(cleanup);
+    }
+}
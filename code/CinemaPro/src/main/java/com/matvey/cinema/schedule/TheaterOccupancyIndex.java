@@ -0,0 +1,284 @@
+package com.matvey.cinema.schedule;
+
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ShowtimeSlot;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.transaction.TransactionCallbacks;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory occupancy of every theater: one {@link TheaterTimeline} of showtimes per theater,
+ * loaded from the database on first access and then kept up to date by the showtime service.
+ * Conflict checks on create/update and "what is playing at T" lookups are {@code O(log n)}
+ * instead of a scan over all showtimes of the theater.
+ *
+ * <p>A reservation is visible to other writers immediately; if the surrounding transaction
+ * does not commit, the theater is dropped from the index and reloaded on next access.
+ */
+@Component
+public class TheaterOccupancyIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TheaterOccupancyIndex.class);
+
+    /**
+     * What occupies a slot: the showtime and the moment its screening ends (the rest of the slot
+     * is the cleanup break).
+     */
+    public record Booking(Long showtimeId, LocalDateTime screeningEnd) {
+    }
+
+    // Слот сеанса, которого ещё нет в БД (генерация расписания), см. reserveNew
+    public record NewSlot(LocalDateTime start, LocalDateTime end, LocalDateTime screeningEnd) {
+    }
+
+    /**
+     * New slot number {@code index} of a {@link #reserveNew} batch collides with {@code occupied}.
+     * The occupied slot of another new showtime has a {@link Booking} without ID.
+     */
+    public record Overlap(int index, TheaterTimeline.Slot<Booking> occupied) {
+    }
+
+    private final ShowtimeRepository showtimeRepository;
+    private final ShowtimeDurationPolicy durationPolicy;
+    private final TransactionTemplate primaryTransaction;
+    private final Map<Long, TheaterState> theaters = new ConcurrentHashMap<>();
+
+    public TheaterOccupancyIndex(ShowtimeRepository showtimeRepository, ShowtimeDurationPolicy durationPolicy,
+                                 PlatformTransactionManager transactionManager) {
+        this.showtimeRepository = showtimeRepository;
+        this.durationPolicy = durationPolicy;
+        // Отдельная пишущая транзакция всегда идёт на primary, даже внутри read-only запроса
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Takes the theater for the showtime (moving it if the showtime was already indexed) or throws
+     * {@link ValidationException} naming the showtime it overlaps. The showtime must have an ID.
+     */
+    public void reserve(Showtime showtime) {
+        LocalDateTime start = showtime.getStartsAt();
+        if (start == null || showtime.getTheater() == null || showtime.getTheater().getId() == null) {
+            return;
+        }
+        Long showtimeId = showtime.getId();
+        Long theaterId = showtime.getTheater().getId();
+        LocalDateTime end = start.plus(durationPolicy.occupancy(showtime.getMovie()));
+        Booking booking = new Booking(showtimeId, start.plus(durationPolicy.screening(showtime.getMovie())));
+
+        // Откат транзакции снимает и резерв, и освобождение старого слота
+        List<Long> touched = new ArrayList<>();
+        touched.add(theaterId);
+        TransactionCallbacks.onRollback(() -> touched.forEach(this::invalidate));
+
+        // Сеанс перенесли в другой зал: освобождаем старый
+        theaters.forEach((otherTheaterId, other) -> {
+            if (!otherTheaterId.equals(theaterId)) {
+                synchronized (other) {
+                    if (other.contains(showtimeId)) {
+                        touched.add(otherTheaterId);
+                        if (!other.remove(showtimeId)) {
+                            theaters.remove(otherTheaterId);
+                        }
+                    }
+                }
+            }
+        });
+
+        Optional<TheaterTimeline.Slot<Booking>> overlap = Optional.empty();
+        boolean added = false;
+        while (!added) {
+            TheaterState state = stateOf(theaterId, showtimeId);
+            synchronized (state) {
+                if (!state.remove(showtimeId)) {
+                    // Сеанс попал в слитый слот: перечитываем зал без него
+                    theaters.remove(theaterId, state);
+                    continue;
+                }
+                overlap = state.add(showtimeId, start, end, booking);
+                added = true;
+            }
+        }
+        if (overlap.isPresent()) {
+            TheaterTimeline.Slot<Booking> slot = overlap.get();
+            logger.warn("Showtime ID: {} at {} overlaps showtime ID: {} in theater ID: {}",
+                    showtimeId, start, slot.value().showtimeId(), theaterId);
+            throw new ValidationException(List.of("Зал занят сеансом ID " + slot.value().showtimeId()
+                    + " с " + slot.start() + " до " + slot.end()));
+        }
+        logger.debug("Showtime ID: {} reserved theater ID: {} from {} to {}", showtimeId, theaterId, start, end);
+    }
+
+    /**
+     * Reserves slots of new showtimes of one theater, all or nothing: under the theater's lock every
+     * slot is checked against the indexed showtimes and the slots before it. Returns all overlaps;
+     * if there are any, or {@code hold} is false, nothing stays reserved. Held slots are visible to
+     * other writers right away; once the transaction ends the theater is reloaded, so committed
+     * showtimes come back with their IDs and rolled back ones are gone.
+     */
+    public List<Overlap> reserveNew(Long theaterId, List<NewSlot> slots, boolean hold) {
+        List<Overlap> overlaps = new ArrayList<>();
+        while (true) {
+            TheaterState state = stateOf(theaterId, null);
+            synchronized (state) {
+                if (theaters.get(theaterId) != state) {
+                    // Зал сбросили, пока мы ждали блокировку: резерв в старом состоянии никто не увидит
+                    continue;
+                }
+                List<LocalDateTime> added = new ArrayList<>();
+                for (int i = 0; i < slots.size(); i++) {
+                    NewSlot slot = slots.get(i);
+                    Optional<TheaterTimeline.Slot<Booking>> overlap = state.timeline.tryAdd(slot.start(), slot.end(),
+                            new Booking(null, slot.screeningEnd()));
+                    if (overlap.isPresent()) {
+                        overlaps.add(new Overlap(i, overlap.get()));
+                    } else {
+                        added.add(slot.start());
+                    }
+                }
+                if (!overlaps.isEmpty() || !hold) {
+                    added.forEach(state.timeline::remove);
+                    return overlaps;
+                }
+                break;
+            }
+        }
+        // Слоты без ID не снять по одному: после транзакции зал перечитывается целиком
+        TransactionCallbacks.afterCommit(() -> theaters.remove(theaterId));
+        TransactionCallbacks.onRollback(() -> invalidate(theaterId));
+        logger.debug("{} new showtimes reserved theater ID: {}", slots.size(), theaterId);
+        return overlaps;
+    }
+
+    public void release(Long showtimeId, Long theaterId) {
+        TransactionCallbacks.afterCommit(() -> {
+            TheaterState state = theaters.get(theaterId);
+            if (state == null) {
+                return;
+            }
+            synchronized (state) {
+                if (!state.remove(showtimeId)) {
+                    theaters.remove(theaterId);
+                }
+            }
+            logger.debug("Showtime ID: {} released theater ID: {}", showtimeId, theaterId);
+        });
+    }
+
+    /**
+     * ID of the showtime being screened in the theater at the given moment; empty during the
+     * cleanup break and when the theater is free.
+     */
+    public Optional<Long> playingAt(Long theaterId, LocalDateTime time) {
+        TheaterState state = stateOf(theaterId, null);
+        synchronized (state) {
+            return state.timeline.at(time)
+                    .map(TheaterTimeline.Slot::value)
+                    .filter(booking -> booking.screeningEnd().isAfter(time))
+                    .map(Booking::showtimeId);
+        }
+    }
+
+    // Длительность фильма влияет на все залы, где он идёт
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(theaters::clear);
+    }
+
+    private void invalidate(Long theaterId) {
+        theaters.remove(theaterId);
+        logger.debug("Occupancy of theater ID: {} dropped after rollback", theaterId);
+    }
+
+    private TheaterState stateOf(Long theaterId, Long excludedShowtimeId) {
+        return theaters.computeIfAbsent(theaterId, id -> {
+            TheaterState state = new TheaterState();
+            for (ShowtimeSlot slot : loadTimeline(id)) {
+                if (slot.id().equals(excludedShowtimeId)) {
+                    continue;
+                }
+                LocalDateTime start = slot.startsAt();
+                state.load(slot.id(), start, start.plus(durationPolicy.occupancy(slot.durationMinutes())),
+                        new Booking(slot.id(), start.plus(durationPolicy.screening(slot.durationMinutes()))));
+            }
+            logger.info("Occupancy for theater ID: {} loaded, {} slots{}.", id, state.timeline.size(),
+                    state.exact ? "" : " (overlapping showtimes merged)");
+            return state;
+        });
+    }
+
+    /**
+     * The loaded timeline is kept and trusted by {@link #reserve} for conflict checks, so it must
+     * not come from a replica that lags behind. A read-write transaction is on the primary already;
+     * a read-only one (as in {@link #playingAt}) would be routed to the replica, so the timeline is
+     * read in a transaction of its own.
+     */
+    private List<ShowtimeSlot> loadTimeline(Long theaterId) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return showtimeRepository.findTimelineByTheaterId(theaterId);
+        }
+        return primaryTransaction.execute(status -> showtimeRepository.findTimelineByTheaterId(theaterId));
+    }
+
+    /**
+     * Timeline of one theater plus where each showtime's slot starts. Showtimes that already
+     * overlap in the database are merged into one slot (the theater is then not {@code exact});
+     * a merged showtime cannot be removed without reloading the theater.
+     */
+    private static final class TheaterState {
+        private final TheaterTimeline<Booking> timeline = new TheaterTimeline<>();
+        private final Map<Long, LocalDateTime> starts = new HashMap<>();
+        private boolean exact = true;
+
+        void load(Long showtimeId, LocalDateTime start, LocalDateTime end, Booking booking) {
+            Optional<TheaterTimeline.Slot<Booking>> overlap = timeline.tryAdd(start, end, booking);
+            if (overlap.isEmpty()) {
+                starts.put(showtimeId, start);
+                return;
+            }
+            // Сеансы грузятся по возрастанию начала, поэтому новый сливается только с последним слотом
+            timeline.addMerging(start, end, booking);
+            starts.put(overlap.get().value().showtimeId(), null);
+            starts.put(showtimeId, null);
+            exact = false;
+        }
+
+        Optional<TheaterTimeline.Slot<Booking>> add(Long showtimeId, LocalDateTime start, LocalDateTime end,
+                                                    Booking booking) {
+            Optional<TheaterTimeline.Slot<Booking>> overlap = timeline.tryAdd(start, end, booking);
+            if (overlap.isEmpty()) {
+                starts.put(showtimeId, start);
+            }
+            return overlap;
+        }
+
+        boolean contains(Long showtimeId) {
+            return starts.containsKey(showtimeId);
+        }
+
+        // false, если слот сеанса нельзя убрать точно и зал нужно перечитать
+        boolean remove(Long showtimeId) {
+            if (!starts.containsKey(showtimeId)) {
+                return true;
+            }
+            LocalDateTime start = starts.remove(showtimeId);
+            if (start == null) {
+                return false;
+            }
+            timeline.remove(start);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.matvey.cinema.schedule;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Occupied time of one theater: non-overlapping intervals {@code [start, end)} ordered by start.
+ * Because the intervals never overlap, only the interval with the greatest start before a given
+ * end can intersect a new one, so overlap checks and point lookups are {@code O(log n)}.
+ *
+ * @param <T> what occupies the slot (a showtime, a generated schedule entry)
+ */
+public class TheaterTimeline<T> {
+
+    public record Slot<T>(LocalDateTime start, LocalDateTime end, T value) {
+    }
+
+    private final NavigableMap<LocalDateTime, Slot<T>> slots = new TreeMap<>();
+
+    public Optional<Slot<T>> findOverlap(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Slot<T>> candidate = slots.lowerEntry(end);
+        if (candidate != null && candidate.getValue().end().isAfter(start)) {
+            return Optional.of(candidate.getValue());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Adds the interval unless it overlaps an occupied one; returns the slot it collides with.
+     */
+    public Optional<Slot<T>> tryAdd(LocalDateTime start, LocalDateTime end, T value) {
+        Optional<Slot<T>> overlap = findOverlap(start, end);
+        if (overlap.isEmpty()) {
+            slots.put(start, new Slot<>(start, end, value));
+        }
+        return overlap;
+    }
+
+    /**
+     * Adds an interval that already exists elsewhere (for example in the database) even if it
+     * overlaps: colliding intervals are merged into one, so later checks still see the whole
+     * occupied span. The merged slot keeps the value of the earliest interval.
+     */
+    public void addMerging(LocalDateTime start, LocalDateTime end, T value) {
+        Slot<T> merged = new Slot<>(start, end, value);
+        Optional<Slot<T>> overlap;
+        while ((overlap = findOverlap(merged.start(), merged.end())).isPresent()) {
+            Slot<T> other = overlap.get();
+            slots.remove(other.start());
+            boolean otherFirst = other.start().isBefore(merged.start());
+            merged = new Slot<>(otherFirst ? other.start() : merged.start(),
+                    other.end().isAfter(merged.end()) ? other.end() : merged.end(),
+                    otherFirst ? other.value() : merged.value());
+        }
+        slots.put(merged.start(), merged);
+    }
+
+    // Слот, который идёт в момент time, если такой есть
+    public Optional<Slot<T>> at(LocalDateTime time) {
+        Map.Entry<LocalDateTime, Slot<T>> candidate = slots.floorEntry(time);
+        if (candidate != null && candidate.getValue().end().isAfter(time)) {
+            return Optional.of(candidate.getValue());
+        }
+        return Optional.empty();
+    }
+
+    // Освобождает слот, начинающийся в start; слияния addMerging не откатываются
+    public Optional<Slot<T>> remove(LocalDateTime start) {
+        return Optional.ofNullable(slots.remove(start));
+    }
+
+    public int size() {
+        return slots.size();
+    }
+}
@@ -0,0 +1,179 @@
+package com.matvey.cinema.schedule;
+
+import com.matvey.cinema.model.dto.UpcomingShowtime;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.transaction.TransactionCallbacks;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Showtimes starting within the next {@code horizon-hours}, grouped into fixed time buckets
+ * ({@code bucket-minutes} wide). The window slides forward as time passes: expired buckets are
+ * dropped and only the buckets entering the horizon are read from the database. An upcoming
+ * query touches just the buckets it spans instead of the whole showtime table.
+ *
+ * <p>Mutations are serialized and applied after commit; reads are lock-free.
+ */
+@Component
+public class UpcomingShowtimeIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UpcomingShowtimeIndex.class);
+    private static final Comparator<UpcomingShowtime> BY_START =
+            Comparator.comparing(UpcomingShowtime::startsAt).thenComparing(UpcomingShowtime::id);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final long bucketMinutes;
+    private final long horizonBuckets;
+
+    private final NavigableMap<Long, Map<Long, UpcomingShowtime>> buckets = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> bucketOf = new ConcurrentHashMap<>();
+    // Покрытые корзины [coveredFrom, coveredTo); coveredTo == coveredFrom - индекс пуст
+    private volatile long coveredFrom;
+    private volatile long coveredTo;
+
+    public UpcomingShowtimeIndex(ShowtimeRepository showtimeRepository,
+                                 @Value("${showtime.upcoming.bucket-minutes:15}") long bucketMinutes,
+                                 @Value("${showtime.upcoming.horizon-hours:24}") long horizonHours) {
+        this.showtimeRepository = showtimeRepository;
+        this.bucketMinutes = bucketMinutes;
+        this.horizonBuckets = Math.max(1, horizonHours * 60 / bucketMinutes);
+    }
+
+    public long horizonHours() {
+        return horizonBuckets * bucketMinutes / 60;
+    }
+
+    /**
+     * Showtimes starting in {@code [from, to)} ordered by start. The part of the range beyond the
+     * horizon is not covered and returns nothing.
+     */
+    public List<UpcomingShowtime> upcoming(LocalDateTime now, LocalDateTime from, LocalDateTime to) {
+        if (bucket(now) != coveredFrom || coveredFrom == coveredTo) {
+            slide(now);
+        }
+        List<UpcomingShowtime> result = new ArrayList<>();
+        for (Map<Long, UpcomingShowtime> bucket : buckets.subMap(bucket(from), true, bucket(to), true).values()) {
+            for (UpcomingShowtime showtime : bucket.values()) {
+                // Крайние корзины покрыты частично
+                if (!showtime.startsAt().isBefore(from) && showtime.startsAt().isBefore(to)) {
+                    result.add(showtime);
+                }
+            }
+        }
+        result.sort(BY_START);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${showtime.upcoming.slide-interval-ms:60000}")
+    public void slideToNow() {
+        slide(LocalDateTime.now());
+    }
+
+    /**
+     * Moves the window to start at the bucket of {@code now}: drops expired buckets and loads
+     * the ones that entered the horizon with one range query.
+     */
+    public synchronized void slide(LocalDateTime now) {
+        long from = bucket(now);
+        long to = from + horizonBuckets;
+        if (from == coveredFrom && coveredFrom != coveredTo) {
+            return;
+        }
+        if (coveredFrom == coveredTo || from >= coveredTo || from < coveredFrom) {
+            clear();
+            load(from, to);
+        } else {
+            NavigableMap<Long, Map<Long, UpcomingShowtime>> expired = buckets.headMap(from, false);
+            expired.values().forEach(bucket -> bucket.keySet().forEach(bucketOf::remove));
+            expired.clear();
+            load(coveredTo, to);
+        }
+        coveredFrom = from;
+        coveredTo = to;
+    }
+
+    // Изменения сеанса: применяются после коммита, чтобы откат не попал в индекс
+    public void put(Showtime showtime) {
+        if (showtime.getId() == null) {
+            return;
+        }
+        UpcomingShowtime entry = showtime.getStartsAt() == null || showtime.getMovie() == null
+                || showtime.getTheater() == null ? null
+                : new UpcomingShowtime(showtime.getId(), showtime.getStartsAt(), showtime.getType(),
+                        showtime.getMovie().getId(), showtime.getMovie().getTitle(),
+                        showtime.getTheater().getId(), showtime.getTheater().getName());
+        TransactionCallbacks.afterCommit(() -> apply(showtime.getId(), entry));
+    }
+
+    public void remove(Long showtimeId) {
+        TransactionCallbacks.afterCommit(() -> apply(showtimeId, null));
+    }
+
+    // Для изменений в обход put/remove: пакетная вставка, переименование фильма или зала
+    public void reload() {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                clear();
+            }
+        });
+    }
+
+    private synchronized void apply(Long showtimeId, UpcomingShowtime entry) {
+        Long previous = bucketOf.remove(showtimeId);
+        if (previous != null) {
+            Map<Long, UpcomingShowtime> bucket = buckets.get(previous);
+            if (bucket != null) {
+                bucket.remove(showtimeId);
+            }
+        }
+        if (entry == null) {
+            return;
+        }
+        long target = bucket(entry.startsAt());
+        if (target >= coveredFrom && target < coveredTo) {
+            buckets.computeIfAbsent(target, key -> new ConcurrentHashMap<>()).put(showtimeId, entry);
+            bucketOf.put(showtimeId, target);
+        }
+    }
+
+    private void load(long fromBucket, long toBucket) {
+        if (fromBucket >= toBucket) {
+            return;
+        }
+        List<UpcomingShowtime> loaded =
+                showtimeRepository.findUpcomingBetween(startOf(fromBucket), startOf(toBucket));
+        for (UpcomingShowtime showtime : loaded) {
+            long target = bucket(showtime.startsAt());
+            buckets.computeIfAbsent(target, key -> new ConcurrentHashMap<>()).put(showtime.id(), showtime);
+            bucketOf.put(showtime.id(), target);
+        }
+        logger.debug("Upcoming index loaded {} showtimes from {} to {}", loaded.size(),
+                startOf(fromBucket), startOf(toBucket));
+    }
+
+    private void clear() {
+        buckets.clear();
+        bucketOf.clear();
+        coveredTo = coveredFrom;
+    }
+
+    private long bucket(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketMinutes * 60);
+    }
+
+    private LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketMinutes * 60, 0, ZoneOffset.UTC);
+    }
+}
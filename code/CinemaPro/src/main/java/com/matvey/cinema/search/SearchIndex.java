@@ -0,0 +1,315 @@
+package com.matvey.cinema.search;
+
+import com.matvey.cinema.model.dto.MovieView;
+import com.matvey.cinema.model.dto.ReviewExportRow;
+import com.matvey.cinema.model.dto.SearchHit;
+import com.matvey.cinema.model.dto.SearchTarget;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Review;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.repository.ReviewRepository;
+import com.matvey.cinema.transaction.TransactionCallbacks;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-process inverted index over movie title, director and genre and review content, ranked
+ * with BM25. Each query term matches exactly, as a prefix of longer terms and, from four
+ * characters on, with one or two typos; prefix and fuzzy matches score lower than exact ones.
+ * Field boosts make a hit in a title outweigh the same word in a review.
+ *
+ * <p>The index is built from the database at startup and then follows the services: changes are
+ * applied after commit and serialized; reads are lock-free.
+ */
+@Component
+public class SearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    // Стандартные параметры BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final double TITLE_BOOST = 3.0;
+    private static final double DIRECTOR_BOOST = 2.0;
+    private static final double GENRE_BOOST = 1.5;
+    private static final double CONTENT_BOOST = 1.0;
+
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 50;
+    private static final int TITLE_EXCERPT_LENGTH = 80;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final Comparator<Map.Entry<DocKey, Double>> BY_SCORE =
+            Map.Entry.<DocKey, Double>comparingByValue().reversed()
+                    .thenComparing(entry -> entry.getKey().target())
+                    .thenComparing(entry -> entry.getKey().id());
+
+    private final MovieRepository movieRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<DocKey, Document> documents = new ConcurrentHashMap<>();
+    // Терм -> документ -> частота с учётом весов полей; сортированный словарь даёт поиск по префиксу
+    private final NavigableMap<String, Map<DocKey, Double>> postings = new ConcurrentSkipListMap<>();
+    private volatile double totalLength;
+
+    public SearchIndex(MovieRepository movieRepository, ReviewRepository reviewRepository,
+                       TransactionTemplate transactionTemplate) {
+        this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Top {@code limit} documents for {@code query} among {@code targets}, best first. Query terms
+     * are combined with OR; a document matching more of them ranks higher.
+     */
+    public List<SearchHit> search(String query, Set<SearchTarget> targets, int limit) {
+        List<String> terms = TextAnalyzer.tokens(query);
+        if (terms.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+        int documentCount = documents.size();
+        double averageLength = Math.max(totalLength / documentCount, 1.0);
+        Map<DocKey, Double> scores = new HashMap<>();
+        for (String term : terms.stream().distinct().toList()) {
+            // Для каждого терма запроса документ получает лучшее из совпадений: точное, префикс или опечатка
+            Map<DocKey, Double> best = new HashMap<>();
+            expand(term).forEach((indexed, weight) -> {
+                Map<DocKey, Double> docs = postings.get(indexed);
+                if (docs == null || docs.isEmpty()) {
+                    return;
+                }
+                double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                docs.forEach((key, frequency) -> {
+                    Document document = documents.get(key);
+                    if (document == null || !targets.contains(key.target())) {
+                        return;
+                    }
+                    double norm = K1 * (1 - B + B * document.length() / averageLength);
+                    best.merge(key, weight * idf * frequency * (K1 + 1) / (frequency + norm), Math::max);
+                });
+            });
+            best.forEach((key, score) -> scores.merge(key, score, Double::sum));
+        }
+        List<SearchHit> hits = new ArrayList<>();
+        scores.entrySet().stream().sorted(BY_SCORE).limit(limit).forEach(entry -> {
+            Document document = documents.get(entry.getKey());
+            if (document != null) {
+                hits.add(new SearchHit(entry.getKey().target(), entry.getKey().id(), document.movieId(),
+                        document.title(), Math.round(entry.getValue() * 1000) / 1000.0));
+            }
+        });
+        return hits;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // Изменения применяются после коммита, чтобы откат не попал в индекс
+    public void indexMovie(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        Document document = movieDocument(movie.getId(), movie.getTitle(), movie.getDirector(), movie.getGenre());
+        TransactionCallbacks.afterCommit(() -> put(document));
+    }
+
+    public void indexReview(Review review) {
+        if (review.getId() == null) {
+            return;
+        }
+        Document document = reviewDocument(review.getId(),
+                review.getMovie() != null ? review.getMovie().getId() : null,
+                review.getUser() != null ? review.getUser().getId() : null, review.getContent());
+        TransactionCallbacks.afterCommit(() -> put(document));
+    }
+
+    public void removeReview(Long reviewId) {
+        TransactionCallbacks.afterCommit(() -> remove(new DocKey(SearchTarget.REVIEW, reviewId)));
+    }
+
+    // Отзывы фильма удаляются каскадом вместе с ним
+    public void removeMovie(Long movieId) {
+        TransactionCallbacks.afterCommit(() -> {
+            remove(new DocKey(SearchTarget.MOVIE, movieId));
+            removeReviewsWhere(document -> Objects.equals(document.movieId(), movieId));
+        });
+    }
+
+    public void removeReviewsOfUser(Long userId) {
+        TransactionCallbacks.afterCommit(() -> removeReviewsWhere(document -> Objects.equals(document.userId(), userId)));
+    }
+
+    /**
+     * Rebuilds the index from the database: movies through the list projection, reviews as flat
+     * rows in id-ordered batches, so no entities are hydrated.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Document> loaded = transactionTemplate.execute(status -> {
+            List<Document> result = new ArrayList<>();
+            for (MovieView movie : movieRepository.findAllViews()) {
+                result.add(movieDocument(movie.id(), movie.title(), movie.director(), movie.genre()));
+            }
+            long afterId = 0L;
+            List<ReviewExportRow> batch;
+            do {
+                batch = reviewRepository.findExportRowsAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (ReviewExportRow review : batch) {
+                    result.add(reviewDocument(review.id(), review.movieId(), review.userId(), review.content()));
+                    afterId = review.id();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            return result;
+        });
+        synchronized (this) {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+            if (loaded != null) {
+                loaded.forEach(this::put);
+            }
+        }
+        logger.info("Search index built: {} documents, {} terms", documents.size(), postings.size());
+    }
+
+    // Точный терм, продолжения префикса и близкие по расстоянию Левенштейна термы словаря
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1.0);
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet().stream()
+                    .limit(MAX_EXPANSIONS)
+                    .forEach(indexed -> expansions.putIfAbsent(indexed, PREFIX_WEIGHT));
+        }
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = term.length() >= 8 ? 2 : 1;
+            // Опечатку в первой букве не ищем: так просматривается только часть словаря
+            String first = term.substring(0, 1);
+            int found = 0;
+            for (String indexed : postings.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                if (found >= MAX_EXPANSIONS) {
+                    break;
+                }
+                if (!expansions.containsKey(indexed) && Math.abs(indexed.length() - term.length()) <= maxEdits
+                        && editDistance(term, indexed, maxEdits) <= maxEdits) {
+                    expansions.put(indexed, FUZZY_WEIGHT);
+                    found++;
+                }
+            }
+        }
+        return expansions;
+    }
+
+    // Расстояние Левенштейна с отсечением: при превышении limit возвращает limit + 1
+    static int editDistance(String left, String right, int limit) {
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= right.length(); j++) {
+                int substitution = previous[j - 1] + (left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[right.length()];
+    }
+
+    private synchronized void put(Document document) {
+        remove(document.key());
+        documents.put(document.key(), document);
+        document.terms().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(document.key(), frequency));
+        totalLength += document.length();
+    }
+
+    private synchronized void remove(DocKey key) {
+        Document previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        previous.terms().keySet().forEach(term -> {
+            Map<DocKey, Double> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+        totalLength -= previous.length();
+    }
+
+    private synchronized void removeReviewsWhere(Predicate<Document> condition) {
+        documents.values().stream()
+                .filter(document -> document.key().target() == SearchTarget.REVIEW && condition.test(document))
+                .map(Document::key)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    private static Document movieDocument(Long id, String title, String director, String genre) {
+        Map<String, Double> terms = new HashMap<>();
+        double length = addField(terms, title, TITLE_BOOST)
+                + addField(terms, director, DIRECTOR_BOOST)
+                + addField(terms, genre, GENRE_BOOST);
+        return new Document(new DocKey(SearchTarget.MOVIE, id), id, null, title, terms, length);
+    }
+
+    private static Document reviewDocument(Long id, Long movieId, Long userId, String content) {
+        Map<String, Double> terms = new HashMap<>();
+        double length = addField(terms, content, CONTENT_BOOST);
+        String excerpt = content == null || content.length() <= TITLE_EXCERPT_LENGTH
+                ? content : content.substring(0, TITLE_EXCERPT_LENGTH) + "…";
+        return new Document(new DocKey(SearchTarget.REVIEW, id), movieId, userId, excerpt, terms, length);
+    }
+
+    // Возвращает число термов поля: длина документа для BM25 считается без весов
+    private static int addField(Map<String, Double> terms, String text, double boost) {
+        List<String> tokens = TextAnalyzer.tokens(text);
+        tokens.forEach(token -> terms.merge(token, boost, Double::sum));
+        return tokens.size();
+    }
+
+    private record DocKey(SearchTarget target, Long id) {
+    }
+
+    private record Document(DocKey key, Long movieId, Long userId, String title, Map<String, Double> terms,
+                            double length) {
+    }
+}
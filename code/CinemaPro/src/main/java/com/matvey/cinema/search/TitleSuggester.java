@@ -0,0 +1,213 @@
+package com.matvey.cinema.search;
+
+import com.matvey.cinema.model.dto.MovieSuggestion;
+import com.matvey.cinema.model.dto.MovieView;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.rating.MovieRatingListener;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.transaction.TransactionCallbacks;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Prefix trie over movie titles and directors for the search box. Every word of a title or a
+ * director name starts a key, so "нол" finds "Кристофер Нолан" and "интерст" finds
+ * "Интерстеллар". Each node keeps the top {@link #MAX_SUGGESTIONS} movies of its subtree ordered
+ * by popularity (number of reviews), so a lookup is a walk down the prefix with no scan.
+ * Popularity follows committed review changes through {@link MovieRatingListener}.
+ *
+ * <p>A change touches only the nodes on the paths of the changed movie's keys; their top lists
+ * are recomputed bottom-up from the children's lists. Writes are serialized, reads are lock-free.
+ */
+@Component
+public class TitleSuggester implements MovieRatingListener {
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleSuggester.class);
+
+    private static final Comparator<Entry> BY_POPULARITY = Comparator.comparingLong(Entry::popularity).reversed()
+            .thenComparing(Entry::sortTitle)
+            .thenComparing(Entry::id);
+
+    private final MovieRepository movieRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private volatile Node root = new Node();
+
+    public TitleSuggester(MovieRepository movieRepository, TransactionTemplate transactionTemplate) {
+        this.movieRepository = movieRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Up to {@code limit} movies with a title or director word starting with {@code prefix},
+     * most reviewed first.
+     */
+    public List<MovieSuggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", TextAnalyzer.tokens(prefix));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.stream()
+                .limit(Math.min(limit, MAX_SUGGESTIONS))
+                .map(entry -> new MovieSuggestion(entry.id(), entry.title(), entry.director(), entry.releaseYear()))
+                .toList();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Популярность уже известного фильма сохраняется: правка названия не меняет число отзывов
+    public void indexMovie(Movie movie) {
+        if (movie.getId() == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            Entry previous = entries.get(movie.getId());
+            put(new Entry(movie.getId(), movie.getTitle(), movie.getDirector(), movie.getReleaseYear(),
+                    previous != null ? previous.popularity() : 0L));
+        });
+    }
+
+    public void removeMovie(Long movieId) {
+        TransactionCallbacks.afterCommit(() -> remove(movieId));
+    }
+
+    // Фильм поднимается или опускается только в топах узлов на путях своих ключей
+    @Override
+    public synchronized void onReviewCountChanged(Long movieId, long delta) {
+        Entry entry = entries.get(movieId);
+        if (entry != null) {
+            put(new Entry(entry.id(), entry.title(), entry.director(), entry.releaseYear(),
+                    Math.max(0L, entry.popularity() + delta)));
+        }
+    }
+
+    @Override
+    public void onRatingsRebuilt() {
+        rebuild();
+    }
+
+    // Словарь собирается заново отдельно от текущего и подменяется целиком
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<MovieView> movies = transactionTemplate.execute(status -> movieRepository.findAllViews());
+        synchronized (this) {
+            Node fresh = new Node();
+            entries.clear();
+            if (movies != null) {
+                for (MovieView movie : movies) {
+                    Entry entry = new Entry(movie.id(), movie.title(), movie.director(), movie.releaseYear(),
+                            movie.reviewCount());
+                    entries.put(entry.id(), entry);
+                    entry.keys().forEach(key -> link(fresh, key, entry));
+                }
+            }
+            root = fresh;
+        }
+        logger.info("Title suggester built: {} movies", entries.size());
+    }
+
+    private synchronized void put(Entry entry) {
+        remove(entry.id());
+        entries.put(entry.id(), entry);
+        entry.keys().forEach(key -> link(root, key, entry));
+    }
+
+    private synchronized void remove(Long movieId) {
+        Entry previous = entries.remove(movieId);
+        if (previous != null) {
+            previous.keys().forEach(key -> unlink(root, key, previous));
+        }
+    }
+
+    private static void link(Node root, String key, Entry entry) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+        node.terminals.add(entry);
+        recompute(path);
+    }
+
+    private static void unlink(Node root, String key, Entry entry) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+            path.add(node);
+        }
+        if (node == null) {
+            return;
+        }
+        node.terminals.remove(entry);
+        // Опустевшие узлы отрезаются от родителя, чтобы словарь не рос от правок
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            if (current.terminals.isEmpty() && current.children.isEmpty()) {
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+            }
+        }
+        recompute(path);
+    }
+
+    // Топ узла - лучшие из фильмов, чей ключ кончается в нём, и топов детей
+    private static void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Set<Entry> candidates = new LinkedHashSet<>(node.terminals);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            node.top = candidates.stream().sorted(BY_POPULARITY).limit(MAX_SUGGESTIONS).toList();
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>(4);
+        // Меняется только под блокировкой писателя
+        private final Set<Entry> terminals = new LinkedHashSet<>(1);
+        private volatile List<Entry> top = List.of();
+    }
+
+    private record Entry(Long id, String title, String director, Integer releaseYear, long popularity) {
+
+        String sortTitle() {
+            return TextAnalyzer.normalize(title);
+        }
+
+        // Ключи - хвосты названия и имени режиссёра, начиная с каждого слова
+        Set<String> keys() {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String text : new String[] {title, director}) {
+                List<String> words = TextAnalyzer.tokens(text);
+                for (int i = 0; i < words.size(); i++) {
+                    keys.add(String.join(" ", words.subList(i, words.size())));
+                }
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.matvey.cinema.service;
+
+import com.matvey.cinema.model.dto.ArchiveReport;
+import com.matvey.cinema.model.entities.ArchivedShowtime;
+import com.matvey.cinema.model.entities.ArchivedTicket;
+import java.util.List;
+
+public interface ArchiveService {
+
+    List<ArchivedShowtime> findShowtimesByMovieId(Long movieId);
+
+    List<ArchivedShowtime> findShowtimesByTheaterId(Long theaterId);
+
+    List<ArchivedTicket> findTicketsByShowtimeId(Long showtimeId);
+
+    List<ArchivedTicket> findTicketsByUserId(Long userId);
+
+    ArchiveReport archiveOlderThan(int days);
+}
@@ -0,0 +1,12 @@
+package com.matvey.cinema.service;
+
+import com.matvey.cinema.model.dto.ExportFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportTickets(ExportFormat format, OutputStream out) throws IOException;
+
+    void exportReviews(ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,6 +1,8 @@
 package com.matvey.cinema.service;
 
+import com.matvey.cinema.model.dto.MovieRating;
 import com.matvey.cinema.model.dto.MovieRequest;
+import com.matvey.cinema.model.dto.MovieView;
 import com.matvey.cinema.model.entities.Movie;
 import java.util.List;
 import java.util.Optional;
@@ -14,12 +16,13 @@ public interface MovieService {
 
     void deleteById(Long id);
 
-    List<Movie> findAllWithReviews();
+    List<MovieView> findAllViews();
+
+    MovieRating findRating(Long movieId);
 
     Movie createMovie(MovieRequest movieRequest);
 
     void evictMovieCache(Long movieId);
     void evictAllMoviesCache();
-    void evictAllMoviesWithReviewsCache();
 
 }
@@ -0,0 +1,6 @@
+package com.matvey.cinema.service;
+
+public interface OutboxService {
+
+    void publish(String aggregateType, Long aggregateId, String eventType, Object payload);
+}
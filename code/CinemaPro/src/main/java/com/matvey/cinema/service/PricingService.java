@@ -0,0 +1,11 @@
+package com.matvey.cinema.service;
+
+import com.matvey.cinema.model.dto.ShowtimePriceTable;
+import java.math.BigDecimal;
+
+public interface PricingService {
+
+    ShowtimePriceTable getPriceTable(Long showtimeId);
+
+    BigDecimal quote(Long showtimeId, String seatNumber);
+}
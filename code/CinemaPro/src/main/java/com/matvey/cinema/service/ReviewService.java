@@ -1,20 +1,31 @@
 package com.matvey.cinema.service;
 
+import com.matvey.cinema.model.dto.ReviewOrder;
 import com.matvey.cinema.model.dto.ReviewRequest;
+import com.matvey.cinema.model.dto.ReviewView;
 import com.matvey.cinema.model.entities.Review;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReviewService {
     Optional<Review> findById(Long id);
 
+    List<Review> findAllByIds(Collection<Long> ids);
+
     List<Review> findAll();
 
+    List<Review> findPage(long afterId, int limit);
+
     List<Review> findReviewsByMovieTitle(String movieTitle);
 
     List<Review> findReviewsByMovieId(Long movieId);
 
+    List<ReviewView> findViewsByMovieId(Long movieId);
+
+    List<ReviewView> findMoviePage(Long movieId, ReviewOrder order, long[] afterKey, int limit);
+
     List<Review> findReviewsByUserUsername(String userUsername);
 
     Review save(Review review);
@@ -1,14 +1,19 @@
 package com.matvey.cinema.service;
 
 import com.matvey.cinema.model.entities.Seat;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface SeatService {
     Optional<Seat> findById(Long id);
 
+    List<Seat> findAllByIds(Collection<Long> ids);
+
     List<Seat> findAll();
 
+    List<Seat> findPage(long afterId, int limit);
+
     List<Seat> findSeatsByTheaterName(String theaterName);
 
     Seat save(Seat seat);
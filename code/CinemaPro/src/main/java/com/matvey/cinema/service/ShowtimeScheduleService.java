@@ -0,0 +1,9 @@
+package com.matvey.cinema.service;
+
+import com.matvey.cinema.model.dto.ScheduleRequest;
+import com.matvey.cinema.model.dto.ScheduleResult;
+
+public interface ShowtimeScheduleService {
+
+    ScheduleResult generate(ScheduleRequest request, boolean dryRun);
+}
@@ -1,14 +1,22 @@
 package com.matvey.cinema.service;
 
+import com.matvey.cinema.model.dto.ShowtimeView;
+import com.matvey.cinema.model.dto.UpcomingShowtime;
 import com.matvey.cinema.model.entities.Showtime;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ShowtimeService {
     Optional<Showtime> findById(Long id);
 
+    List<Showtime> findAllByIds(Collection<Long> ids);
+
     List<Showtime> findAll();
 
+    List<Showtime> findPage(long afterId, int limit);
+
     List<Showtime> findShowtimesByTheaterName(String theaterName);
 
     List<Showtime> findShowtimesByMovieTitle(String movieTitle);
@@ -18,4 +26,12 @@ public interface ShowtimeService {
     void deleteById(Long id);
 
     List<Showtime> findShowtimesByMovieId(Long movieId);
+
+    List<ShowtimeView> findViewsByMovieId(Long movieId);
+
+    List<UpcomingShowtime> findUpcoming(int hours);
+
+    Optional<Showtime> findPlayingAt(Long theaterId, LocalDateTime time);
+
+    List<Showtime> findStartingBetween(LocalDateTime from, LocalDateTime to, Long theaterId);
 }
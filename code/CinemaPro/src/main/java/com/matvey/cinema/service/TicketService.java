@@ -1,9 +1,13 @@
 package com.matvey.cinema.service;
 
+import com.matvey.cinema.model.dto.BulkOrderResult;
 import com.matvey.cinema.model.dto.PurchaseRequestDto;
+import com.matvey.cinema.model.dto.TicketRefund;
 import com.matvey.cinema.model.dto.TicketRequest;
+import com.matvey.cinema.model.dto.TicketView;
 import com.matvey.cinema.model.entities.Showtime; // Keep if needed for findByShowtimeAndSeatNumber signature
 import com.matvey.cinema.model.entities.Ticket;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,10 +15,16 @@ public interface TicketService {
 
     List<Ticket> findAll();
 
+    List<Ticket> findPage(long afterId, int limit);
+
     Optional<Ticket> findById(Long id);
 
+    List<Ticket> findAllByIds(Collection<Long> ids);
+
     List<Ticket> findByUserId(Long userId);
 
+    List<TicketView> findViewsByUserId(Long userId);
+
     List<Ticket> findTicketsByUserUsername(String userUsername);
 
     List<Ticket> findTicketsByShowtimeDateTime(String showtimeDateTime);
@@ -34,4 +44,10 @@ public interface TicketService {
     Ticket mapTicketRequestToTicket(TicketRequest ticketRequest);
 
     List<Ticket> purchaseTickets(PurchaseRequestDto purchaseRequest);
+
+    List<BulkOrderResult> purchaseTicketsInBulk(List<PurchaseRequestDto> orders);
+
+    TicketRefund cancelTicket(Long id);
+
+    List<TicketRefund> cancelShowtimeTickets(Long showtimeId);
 }
\ No newline at end of file
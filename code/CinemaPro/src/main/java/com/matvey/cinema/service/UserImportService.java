@@ -0,0 +1,14 @@
+package com.matvey.cinema.service;
+
+import com.matvey.cinema.model.dto.UserImportReport;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    // JSON-массив или NDJSON (объект на строку)
+    UserImportReport importJson(InputStream in) throws IOException;
+
+    // CSV с заголовком username,email,password
+    UserImportReport importCsv(InputStream in) throws IOException;
+}
@@ -9,6 +9,8 @@ public interface UserService {
 
     List<User> findAll();
 
+    List<User> findPage(long afterId, int limit);
+
     User save(User user); // <-- ПАРОЛЬ БУДЕТ СОХРАНЯТЬСЯ КАК STRING
 
     void deleteById(Long id);
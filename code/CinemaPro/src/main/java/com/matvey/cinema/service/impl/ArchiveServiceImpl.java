@@ -0,0 +1,71 @@
+package com.matvey.cinema.service.impl;
+
+import com.matvey.cinema.archive.ShowtimeArchiver;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ArchiveReport;
+import com.matvey.cinema.model.entities.ArchivedShowtime;
+import com.matvey.cinema.model.entities.ArchivedTicket;
+import com.matvey.cinema.repository.ArchivedShowtimeRepository;
+import com.matvey.cinema.repository.ArchivedTicketRepository;
+import com.matvey.cinema.service.ArchiveService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Исторические запросы идут только в архивные таблицы и не нагружают живые showtimes/tickets
+@Service
+public class ArchiveServiceImpl implements ArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    private final ArchivedShowtimeRepository archivedShowtimeRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
+    private final ShowtimeArchiver showtimeArchiver;
+
+    public ArchiveServiceImpl(ArchivedShowtimeRepository archivedShowtimeRepository,
+                              ArchivedTicketRepository archivedTicketRepository,
+                              ShowtimeArchiver showtimeArchiver) {
+        this.archivedShowtimeRepository = archivedShowtimeRepository;
+        this.archivedTicketRepository = archivedTicketRepository;
+        this.showtimeArchiver = showtimeArchiver;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedShowtime> findShowtimesByMovieId(Long movieId) {
+        logger.info("Получение архивных сеансов фильма с ID: {}", movieId);
+        return archivedShowtimeRepository.findByMovieIdOrderByStartsAtAsc(movieId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedShowtime> findShowtimesByTheaterId(Long theaterId) {
+        logger.info("Получение архивных сеансов зала с ID: {}", theaterId);
+        return archivedShowtimeRepository.findByTheaterIdOrderByStartsAtAsc(theaterId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedTicket> findTicketsByShowtimeId(Long showtimeId) {
+        logger.info("Получение архивных билетов сеанса с ID: {}", showtimeId);
+        return archivedTicketRepository.findByShowtimeIdOrderByIdAsc(showtimeId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedTicket> findTicketsByUserId(Long userId) {
+        logger.info("Получение архивных билетов пользователя с ID: {}", userId);
+        return archivedTicketRepository.findByUserIdOrderByIdAsc(userId);
+    }
+
+    @Override
+    public ArchiveReport archiveOlderThan(int days) {
+        if (days < 1) {
+            throw new ValidationException(List.of("Срок хранения должен быть не меньше 1 дня"));
+        }
+        logger.info("Ручной запуск архивации сеансов старше {} дней", days);
+        return showtimeArchiver.archive(LocalDateTime.now().minusDays(days));
+    }
+}
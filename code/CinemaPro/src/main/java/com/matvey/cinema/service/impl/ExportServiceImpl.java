@@ -0,0 +1,149 @@
+package com.matvey.cinema.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.model.dto.ExportFormat;
+import com.matvey.cinema.model.dto.ReviewExportRow;
+import com.matvey.cinema.model.dto.TicketExportRow;
+import com.matvey.cinema.repository.ReviewRepository;
+import com.matvey.cinema.repository.TicketRepository;
+import com.matvey.cinema.service.ExportService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Full-table exports written row by row: rows come from a forward-only JPA stream of flat
+ * projections and go straight to the response, so heap use does not depend on table size.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private static final String[] TICKET_COLUMNS =
+        {"id", "showtimeId", "userId", "seatId", "seatNumber", "price"};
+    private static final String[] REVIEW_COLUMNS =
+        {"id", "movieId", "userId", "rating", "content"};
+
+    private final TicketRepository ticketRepository;
+    private final ReviewRepository reviewRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(TicketRepository ticketRepository, ReviewRepository reviewRepository,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.reviewRepository = reviewRepository;
+        this.objectMapper = objectMapper;
+        // Выгрузка выполняется в потоке StreamingResponseBody, поэтому транзакция открывается здесь
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void exportTickets(ExportFormat format, OutputStream out) throws IOException {
+        export("tickets", format, out, TICKET_COLUMNS, ticketRepository::streamAllForExport,
+                row -> new Object[] {row.id(), row.showtimeId(), row.userId(), row.seatId(),
+                    row.seatNumber(), row.price()});
+    }
+
+    @Override
+    public void exportReviews(ExportFormat format, OutputStream out) throws IOException {
+        export("reviews", format, out, REVIEW_COLUMNS, reviewRepository::streamAllForExport,
+                row -> new Object[] {row.id(), row.movieId(), row.userId(), row.rating(), row.content()});
+    }
+
+    private <T> void export(String name, ExportFormat format, OutputStream out, String[] columns,
+                            Supplier<Stream<T>> source, Function<T, Object[]> values) throws IOException {
+        logger.info("Starting {} export as {}", name, format);
+        try {
+            Long count = readOnlyTransaction.execute(status -> {
+                try (Stream<T> rows = source.get()) {
+                    return format == ExportFormat.CSV
+                            ? writeCsv(rows.iterator(), out, columns, values)
+                            : writeNdjson(rows.iterator(), out, columns, values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Export of {} finished: {} rows", name, count);
+        } catch (UncheckedIOException e) {
+            // Обычно клиент закрыл соединение посреди выгрузки
+            logger.warn("Export of {} aborted: {}", name, e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private <T> long writeNdjson(Iterator<T> rows, OutputStream out, String[] columns,
+                                 Function<T, Object[]> values) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            while (rows.hasNext()) {
+                Object[] row = values.apply(rows.next());
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    generator.writeObjectField(columns[i], row[i]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private <T> long writeCsv(Iterator<T> rows, OutputStream out, String[] columns,
+                              Function<T, Object[]> values) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns));
+        writer.write('\n');
+        while (rows.hasNext()) {
+            Object[] row = values.apply(rows.next());
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(row[i]));
+            }
+            writer.write('\n');
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -2,7 +2,11 @@ package com.matvey.cinema.service.impl;
 
 import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.rating.MovieRatingAggregator;
+import com.matvey.cinema.repository.MovieRatingStatsRepository;
 import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.search.SearchIndex;
+import com.matvey.cinema.search.TitleSuggester;
 import com.matvey.cinema.service.MovieService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,9 +14,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.model.dto.MovieRating;
 import com.matvey.cinema.model.dto.MovieRequest;
+import com.matvey.cinema.model.dto.MovieView;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,11 +30,22 @@ public class MovieServiceImpl implements MovieService {
 
     private final MovieRepository movieRepository;
     private final InMemoryCache cache;
+    private final MovieRatingStatsRepository ratingStatsRepository;
+    private final MovieRatingAggregator ratingAggregator;
+    private final SearchIndex searchIndex;
+    private final TitleSuggester titleSuggester;
 
     @Autowired
-    public MovieServiceImpl(MovieRepository movieRepository, InMemoryCache cache) {
+    public MovieServiceImpl(MovieRepository movieRepository, InMemoryCache cache,
+                            MovieRatingStatsRepository ratingStatsRepository,
+                            MovieRatingAggregator ratingAggregator, SearchIndex searchIndex,
+                            TitleSuggester titleSuggester) {
         this.movieRepository = movieRepository;
         this.cache = cache;
+        this.ratingStatsRepository = ratingStatsRepository;
+        this.ratingAggregator = ratingAggregator;
+        this.searchIndex = searchIndex;
+        this.titleSuggester = titleSuggester;
     }
 
     @Override
@@ -100,7 +119,8 @@ public class MovieServiceImpl implements MovieService {
         if (savedMovie.getId() != null) {
             cache.evict("movie::id:" + savedMovie.getId());
         }
-        cache.evict("movie::all_with_reviews");
+        searchIndex.indexMovie(savedMovie);
+        titleSuggester.indexMovie(savedMovie);
 
         return savedMovie;
     }
@@ -117,6 +137,9 @@ public class MovieServiceImpl implements MovieService {
             evictRelatedCache(movie);
 
             movieRepository.deleteById(id); //  Удаляем фильм ПОСЛЕ очистки кеша.
+            ratingAggregator.forget(id);
+            searchIndex.removeMovie(id);
+            titleSuggester.removeMovie(id);
             logger.info("Movie with ID: {} successfully deleted.", id);
         } else {
             logger.warn("Movie with ID: {} not found for deletion.", id);
@@ -152,36 +175,38 @@ public class MovieServiceImpl implements MovieService {
         // Очистка кеша самого фильма и списков фильмов
         cache.evict("movie::id:" + movie.getId());
         cache.evict("movie::all");
-        cache.evict("movie::all_with_reviews");
         logger.debug("Evicted movie and movie lists from cache.");
     }
 
 
+    // Проекции не кэшируются: запрос по нужным колонкам дешевле, чем инвалидация ещё одного ключа
     @Override
     @Transactional(readOnly = true)
-    public List<Movie> findAllWithReviews() {
-        String cacheKey = "movie::all_with_reviews";
-        logger.info("Finding all movies with reviews");
+    public List<MovieView> findAllViews() {
+        logger.info("Finding all movie views.");
+        return movieRepository.findAllViews();
+    }
 
-        Optional<Object> cachedData = cache.get(cacheKey);
-        if (cachedData.isPresent()) {
-            logger.info("All movies with reviews found in cache.");
-            Object data = cachedData.get();
-            if (data instanceof List) {
-                List<?> list = (List<?>) data;
-                if (!list.isEmpty() && list.get(0) instanceof Movie) {
-                    return (List<Movie>) data;
-                } else if (list.isEmpty()) {
-                    return (List<Movie>) data;
-                }
-            }
-            cache.evict(cacheKey);
-            logger.warn("Incorrect data type in cache for key: {}", cacheKey);
+    // Одна строка movie_rating_stats вместо выборки всех отзывов фильма
+    @Override
+    @Transactional(readOnly = true)
+    public MovieRating findRating(Long movieId) {
+        logger.info("Finding rating aggregates for movie ID: {}", movieId);
+        if (!movieRepository.existsById(movieId)) {
+            throw new CustomNotFoundException("Movie not found with ID: " + movieId);
         }
-        List<Movie> movies = movieRepository.findAllWithReviews();
-        cache.put(cacheKey, movies);
-        logger.info("All movies with reviews added to cache.");
-        return movies;
+        return ratingStatsRepository.findById(movieId)
+                .map(stats -> new MovieRating(movieId, stats.getReviewCount(),
+                        MovieRating.average(stats.getReviewCount(), stats.getRatingSum()), stats.getHistogram()))
+                .orElseGet(() -> new MovieRating(movieId, 0, null, emptyHistogram()));
+    }
+
+    private static Map<Integer, Long> emptyHistogram() {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int rating = MovieRatingAggregator.MIN_RATING; rating <= MovieRatingAggregator.MAX_RATING; rating++) {
+            histogram.put(rating, 0L);
+        }
+        return histogram;
     }
 
     @Override
@@ -193,6 +218,7 @@ public class MovieServiceImpl implements MovieService {
         newMovie.setDirector(movieRequest.getDirector());
         newMovie.setReleaseYear(movieRequest.getReleaseYear());
         newMovie.setGenre(movieRequest.getGenre());
+        newMovie.setDurationMinutes(movieRequest.getDurationMinutes());
         Movie savedMovie = save(newMovie);
         logger.info("Movie with ID '{}' successfully created and saved.", savedMovie.getId());
         return savedMovie;
@@ -211,12 +237,5 @@ public class MovieServiceImpl implements MovieService {
         cache.evict(cacheKey);
         logger.debug("Evicted all movies cache.");
     }
-
-    @Override
-    public void evictAllMoviesWithReviewsCache() {
-        String cacheKey = "movie::all_with_reviews";
-        cache.evict(cacheKey);
-        logger.debug("Evicted all movies with reviews cache.");
-    }
 }
 
@@ -0,0 +1,40 @@
+package com.matvey.cinema.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.model.entities.OutboxEvent;
+import com.matvey.cinema.repository.OutboxEventRepository;
+import com.matvey.cinema.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Событие должно попасть в ту же транзакцию, что и изменение, о котором оно сообщает
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void publish(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload for " + eventType, e);
+        }
+        OutboxEvent event = outboxEventRepository.save(
+                new OutboxEvent(aggregateType, aggregateId, eventType, json));
+        logger.debug("Outbox event {} queued with ID: {}", eventType, event.getId());
+    }
+}
@@ -0,0 +1,117 @@
+package com.matvey.cinema.service.impl;
+
+import com.matvey.cinema.cache.CacheKeys;
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.model.dto.OccupancyBand;
+import com.matvey.cinema.model.dto.ShowtimePriceTable;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.repository.SeatRepository;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.service.PricingService;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PricingServiceImpl implements PricingService {
+    private static final Logger logger = LoggerFactory.getLogger(PricingServiceImpl.class);
+
+    private static final BigDecimal FRONT_ROW_MULTIPLIER = new BigDecimal("0.80");
+    private static final BigDecimal CENTER_ROW_MULTIPLIER = new BigDecimal("1.20");
+    private static final int FRONT_ROWS = 2;
+
+    private final ShowtimeRepository showtimeRepository;
+    private final SeatRepository seatRepository;
+    private final SeatOccupancyRegistry occupancyRegistry;
+    private final InMemoryCache cache;
+    private final BigDecimal basePrice;
+
+    public PricingServiceImpl(ShowtimeRepository showtimeRepository,
+                              SeatRepository seatRepository,
+                              SeatOccupancyRegistry occupancyRegistry,
+                              InMemoryCache cache,
+                              @Value("${pricing.base-price:300}") BigDecimal basePrice) {
+        this.showtimeRepository = showtimeRepository;
+        this.seatRepository = seatRepository;
+        this.occupancyRegistry = occupancyRegistry;
+        this.cache = cache;
+        this.basePrice = basePrice;
+    }
+
+    @Override
+    public ShowtimePriceTable getPriceTable(Long showtimeId) {
+        String cacheKey = CacheKeys.SHOWTIME_PRICES_PREFIX + showtimeId;
+        Optional<Object> cachedData = cache.get(cacheKey);
+        if (cachedData.isPresent() && cachedData.get() instanceof ShowtimePriceTable table) {
+            // Таблица действительна, пока заполненность зала остаётся в том же диапазоне
+            OccupancyBand currentBand = OccupancyBand.of(
+                    occupancyRegistry.countOccupied(showtimeId), table.getPrices().size());
+            if (currentBand == table.getOccupancyBand()) {
+                logger.debug("Price table for showtime ID: {} found in cache.", showtimeId);
+                return table;
+            }
+            logger.info("Occupancy band of showtime ID: {} changed from {} to {}, rebuilding prices.",
+                    showtimeId, table.getOccupancyBand(), currentBand);
+        }
+
+        Long theaterId = showtimeRepository.findTheaterIdById(showtimeId)
+                .orElseThrow(() -> new CustomNotFoundException("Сеанс не найден с ID: " + showtimeId));
+        List<Seat> seats = seatRepository.findSeatsByTheaterId(theaterId);
+        ShowtimePriceTable table = buildPriceTable(showtimeId, seats);
+        cache.put(cacheKey, table);
+        logger.info("Price table for showtime ID: {} ({} seats, band {}) added to cache.",
+                showtimeId, seats.size(), table.getOccupancyBand());
+        return table;
+    }
+
+    @Override
+    public BigDecimal quote(Long showtimeId, String seatNumber) {
+        ShowtimePriceTable table = getPriceTable(showtimeId);
+        BigDecimal price = table.getPrices().get(seatNumber);
+        if (price == null) {
+            logger.warn("Seat {} is not part of the price table for showtime ID: {}, using base price.",
+                    seatNumber, showtimeId);
+            return scale(basePrice.multiply(table.getOccupancyBand().getMultiplier()));
+        }
+        return price;
+    }
+
+    private ShowtimePriceTable buildPriceTable(Long showtimeId, List<Seat> seats) {
+        OccupancyBand band = OccupancyBand.of(occupancyRegistry.countOccupied(showtimeId), seats.size());
+        int rowCount = seats.stream().mapToInt(Seat::getSeatRow).max().orElse(0);
+
+        Map<String, BigDecimal> prices = new LinkedHashMap<>();
+        seats.stream()
+                .sorted(Comparator.comparingInt(Seat::getSeatRow).thenComparingInt(Seat::getNumber))
+                .forEach(seat -> prices.put(seat.getSeatRow() + "-" + seat.getNumber(),
+                        scale(basePrice.multiply(rowMultiplier(seat.getSeatRow(), rowCount))
+                                .multiply(band.getMultiplier()))));
+        return new ShowtimePriceTable(showtimeId, band, prices);
+    }
+
+    private BigDecimal rowMultiplier(int row, int rowCount) {
+        if (row <= FRONT_ROWS && rowCount > FRONT_ROWS) {
+            return FRONT_ROW_MULTIPLIER;
+        }
+        // Средняя треть зала считается лучшими местами
+        int third = rowCount / 3;
+        if (third > 0 && row > third && row <= rowCount - third) {
+            return CENTER_ROW_MULTIPLIER;
+        }
+        return BigDecimal.ONE;
+    }
+
+    private BigDecimal scale(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP);
+    }
+}
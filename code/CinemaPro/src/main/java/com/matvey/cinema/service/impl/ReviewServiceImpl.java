@@ -1,21 +1,29 @@
 package com.matvey.cinema.service.impl;
 
 import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.model.dto.ReviewOrder;
 import com.matvey.cinema.model.dto.ReviewRequest;
+import com.matvey.cinema.model.dto.ReviewView;
 import com.matvey.cinema.model.entities.Movie;
 import com.matvey.cinema.model.entities.Review;
 import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.rating.MovieRatingAggregator;
 import com.matvey.cinema.repository.ReviewRepository;
 import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.search.SearchIndex;
 import com.matvey.cinema.service.MovieService;
 import com.matvey.cinema.service.ReviewService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -26,16 +34,40 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserRepository userRepository;
     private final InMemoryCache cache;
     private final MovieService movieService;
+    private final MovieRatingAggregator ratingAggregator;
+    private final SearchIndex searchIndex;
 
     @Autowired
     public ReviewServiceImpl(ReviewRepository reviewRepository,
                              UserRepository userRepository,
                              InMemoryCache cache,
-                             MovieService movieService) {
+                             MovieService movieService,
+                             MovieRatingAggregator ratingAggregator,
+                             SearchIndex searchIndex) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.cache = cache;
         this.movieService = movieService;
+        this.ratingAggregator = ratingAggregator;
+        this.searchIndex = searchIndex;
+    }
+
+    // Одна выборка findAllById на все промахи кэша вместо findById на каждый ID
+    @Override
+    @Transactional(readOnly = true)
+    public List<Review> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Review> found = cache.getAll(distinctIds, id -> "review::id:" + id, Review.class);
+        int cached = found.size();
+        List<Long> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            reviewRepository.findAllById(misses).forEach(review -> found.put(review.getId(), review));
+        }
+        logger.info("Resolved {} reviews ({} from cache).", found.size(), cached);
+        return distinctIds.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
     @Override
@@ -70,6 +102,33 @@ public class ReviewServiceImpl implements ReviewService {
         return review;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewView> findViewsByMovieId(Long movieId) {
+        logger.info("Fetching review views for movie ID: {}", movieId);
+        return reviewRepository.findViewsByMovieId(movieId);
+    }
+
+    // afterKey - ключ последнего отзыва предыдущей страницы в порядке order, null для первой
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewView> findMoviePage(Long movieId, ReviewOrder order, long[] afterKey, int limit) {
+        logger.info("Fetching {} page of reviews for movie ID: {}, size: {}", order, movieId, limit);
+        long beforeId = afterKey == null ? Long.MAX_VALUE : afterKey[afterKey.length - 1];
+        if (order == ReviewOrder.RATING) {
+            int rating = afterKey == null ? Integer.MAX_VALUE : (int) afterKey[0];
+            return reviewRepository.findTopRatedViewsByMovieId(movieId, rating, beforeId, Limit.of(limit));
+        }
+        return reviewRepository.findRecentViewsByMovieId(movieId, beforeId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Review> findPage(long afterId, int limit) {
+        logger.info("Fetching page of reviews after ID: {}, size: {}", afterId, limit);
+        return reviewRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Review> findAll() {
@@ -137,6 +196,13 @@ public class ReviewServiceImpl implements ReviewService {
         Review savedReview = reviewRepository.save(review);
         logger.info("Review successfully saved with ID: {}", savedReview.getId());
 
+        // Новый отзыв ещё не учтён; у загруженного или смерженного учтены значения из БД
+        ratingAggregator.record(savedReview.getCountedMovieId(), savedReview.getCountedRating(),
+                Optional.ofNullable(savedReview.getMovie()).map(Movie::getId).orElse(null),
+                savedReview.getRating());
+        savedReview.markCounted();
+        searchIndex.indexReview(savedReview);
+
         // Очистка кэша отзывов при сохранении
         cache.evict("review::all");
         if (savedReview.getId() != null) {
@@ -149,10 +215,9 @@ public class ReviewServiceImpl implements ReviewService {
         Optional.ofNullable(savedReview.getMovie()).map(Movie::getId).ifPresent(movieId -> {
             cache.evict("review::movie_id:" + movieId);
             logger.info("Cache for reviews of movie ID '{}' cleared upon saving.", movieId);
-            // Очистка кэша фильма и всех фильмов с отзывами
+            // Очистка кэша фильма
             movieService.evictMovieCache(movieId);
-            movieService.evictAllMoviesWithReviewsCache();
-            logger.info("Movie cache and all movies with reviews cache cleared for movie ID '{}' upon review saving.", movieId);
+            logger.info("Movie cache cleared for movie ID '{}' upon review saving.", movieId);
         });
 
         return savedReview;
@@ -231,15 +296,16 @@ public class ReviewServiceImpl implements ReviewService {
             cache.evict("review::user_id:" + userId);
             logger.info("Cache for reviews of user ID '{}' cleared upon deletion.", userId);
         });
-        // Очистка кеша фильма и всех фильмов с отзывами при удалении
+        // Очистка кеша фильма при удалении
         if (movieId != null) {
             cache.evict("review::movie_id:" + movieId);
             movieService.evictMovieCache(movieId);
-            movieService.evictAllMoviesWithReviewsCache();
-            logger.info("Movie cache and all movies with reviews cache cleared for movie ID '{}' upon review deletion.", movieId);
+            logger.info("Movie cache cleared for movie ID '{}' upon review deletion.", movieId);
         }
 
         reviewRepository.deleteById(id);
+        ratingAggregator.record(review.getCountedMovieId(), review.getCountedRating(), null, null);
+        searchIndex.removeReview(id);
         logger.info("Review with ID: {} successfully deleted from DB.", id);
     }
 
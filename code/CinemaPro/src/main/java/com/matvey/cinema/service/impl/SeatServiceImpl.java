@@ -6,11 +6,16 @@ import com.matvey.cinema.exception.CustomNotFoundException;
 import com.matvey.cinema.model.entities.Seat;
 import com.matvey.cinema.repository.SeatRepository;
 import com.matvey.cinema.service.SeatService;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -26,6 +31,27 @@ public class SeatServiceImpl implements SeatService {
         this.cache = cache;
     }
 
+    // Одна выборка findAllById на все промахи кэша вместо findById на каждый ID
+    @Override
+    public List<Seat> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Seat> found = cache.getAll(distinctIds, id -> CacheKeys.SEAT_PREFIX + id, Seat.class);
+        int cached = found.size();
+        List<Long> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            seatRepository.findAllById(misses).forEach(seat -> found.put(seat.getId(), seat));
+        }
+        List<Long> notFound = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!notFound.isEmpty()) {
+            throw new CustomNotFoundException("Места не найдены с ID: " + notFound);
+        }
+        logger.info("Resolved {} seats ({} from cache).", found.size(), cached);
+        return distinctIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
     @Override
     public Optional<Seat> findById(Long id) {
         String cacheKey = CacheKeys.SEAT_PREFIX + id;
@@ -50,6 +76,13 @@ public class SeatServiceImpl implements SeatService {
         return seat;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Seat> findPage(long afterId, int limit) {
+        logger.info("Получение страницы мест после ID: {}, размер: {}", afterId, limit);
+        return seatRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     @Override
     public List<Seat> findAll() {
         String cacheKey = CacheKeys.SEATS_ALL;
@@ -0,0 +1,230 @@
+package com.matvey.cinema.service.impl;
+
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ScheduleRequest;
+import com.matvey.cinema.model.dto.ScheduleResult;
+import com.matvey.cinema.model.dto.ScheduleRule;
+import com.matvey.cinema.model.dto.ScheduledShowtime;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.repository.TheaterRepository;
+import com.matvey.cinema.schedule.ShowtimeDurationPolicy;
+import com.matvey.cinema.schedule.TheaterOccupancyIndex;
+import com.matvey.cinema.schedule.TheaterTimeline;
+import com.matvey.cinema.schedule.UpcomingShowtimeIndex;
+import com.matvey.cinema.service.ShowtimeScheduleService;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Expands recurrence rules into showtimes in memory, reserves them in {@link TheaterOccupancyIndex}
+ * under each theater's lock (against each other, the stored showtimes and concurrent writers), and
+ * inserts the whole schedule with a single JDBC batch. A schedule with any overlap is rejected as a
+ * whole; the reservations are dropped with the transaction.
+ */
+@Service
+public class ShowtimeScheduleServiceImpl implements ShowtimeScheduleService {
+    private static final Logger logger = LoggerFactory.getLogger(ShowtimeScheduleServiceImpl.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO showtimes (date_time, type, starts_at, movie_id, theater_id) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_REPORTED_CONFLICTS = 50;
+
+    private final MovieRepository movieRepository;
+    private final TheaterRepository theaterRepository;
+    private final ShowtimeDurationPolicy durationPolicy;
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryCache cache;
+    private final TheaterOccupancyIndex occupancyIndex;
+    private final UpcomingShowtimeIndex upcomingIndex;
+    private final int maxDays;
+    private final int maxShowtimes;
+
+    public ShowtimeScheduleServiceImpl(MovieRepository movieRepository, TheaterRepository theaterRepository,
+                                       ShowtimeDurationPolicy durationPolicy,
+                                       JdbcTemplate jdbcTemplate, InMemoryCache cache,
+                                       TheaterOccupancyIndex occupancyIndex, UpcomingShowtimeIndex upcomingIndex,
+                                       @Value("${showtime.schedule.max-days:62}") int maxDays,
+                                       @Value("${showtime.schedule.max-showtimes:20000}") int maxShowtimes) {
+        this.movieRepository = movieRepository;
+        this.theaterRepository = theaterRepository;
+        this.durationPolicy = durationPolicy;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = cache;
+        this.occupancyIndex = occupancyIndex;
+        this.upcomingIndex = upcomingIndex;
+        this.maxDays = maxDays;
+        this.maxShowtimes = maxShowtimes;
+    }
+
+    @Override
+    @Transactional
+    public ScheduleResult generate(ScheduleRequest request, boolean dryRun) {
+        List<ScheduleRule> rules = request.rules();
+        validateRules(rules);
+
+        Map<Long, Movie> movies = loadAll(rules, ScheduleRule::movieId, movieRepository::findAllById,
+                Movie::getId, "Фильмы не найдены с ID: ");
+        Map<Long, Theater> theaters = loadAll(rules, ScheduleRule::theaterId, theaterRepository::findAllById,
+                Theater::getId, "Театры не найдены с ID: ");
+
+        List<ScheduledShowtime> generated = expand(rules, movies);
+        generated.sort(Comparator.comparing(ScheduledShowtime::startsAt));
+        reserveSlots(generated, movies, !dryRun);
+
+        if (dryRun) {
+            logger.info("Schedule dry run: {} showtimes from {} rules, no overlaps", generated.size(), rules.size());
+            return new ScheduleResult(0, true, generated);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, generated.stream()
+                .map(showtime -> new Object[] {
+                    showtime.startsAt().format(Showtime.DATE_TIME_FORMATTER),
+                    showtime.type(),
+                    Timestamp.valueOf(showtime.startsAt()),
+                    showtime.movieId(),
+                    showtime.theaterId()})
+                .toList());
+        evictShowtimeCaches(movies.values(), theaters.values());
+        upcomingIndex.reload();
+        logger.info("Schedule created: {} showtimes from {} rules in {} theaters",
+                generated.size(), rules.size(), theaters.size());
+        return new ScheduleResult(generated.size(), false, generated);
+    }
+
+    private void validateRules(List<ScheduleRule> rules) {
+        List<String> errors = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            ScheduleRule rule = rules.get(i);
+            if (rule.to().isBefore(rule.from())) {
+                errors.add("Правило " + (i + 1) + ": дата 'to' раньше 'from'");
+                continue;
+            }
+            long days = ChronoUnit.DAYS.between(rule.from(), rule.to()) + 1;
+            if (days > maxDays) {
+                errors.add("Правило " + (i + 1) + ": интервал больше " + maxDays + " дней");
+            }
+            // Грубая оценка сверху до разворачивания, чтобы не строить огромный список
+            total += days * rule.times().size();
+        }
+        if (total > maxShowtimes) {
+            errors.add("Расписание даёт больше " + maxShowtimes + " сеансов");
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors);
+        }
+    }
+
+    private <T> Map<Long, T> loadAll(List<ScheduleRule> rules, Function<ScheduleRule, Long> idOf,
+                                     Function<List<Long>, List<T>> loader, Function<T, Long> entityId,
+                                     String notFoundMessage) {
+        List<Long> ids = rules.stream().map(idOf).distinct().toList();
+        Map<Long, T> found = loader.apply(ids).stream().collect(Collectors.toMap(entityId, Function.identity()));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new CustomNotFoundException(notFoundMessage + missing);
+        }
+        return found;
+    }
+
+    private List<ScheduledShowtime> expand(List<ScheduleRule> rules, Map<Long, Movie> movies) {
+        List<ScheduledShowtime> generated = new ArrayList<>();
+        for (ScheduleRule rule : rules) {
+            Movie movie = movies.get(rule.movieId());
+            Set<DayOfWeek> days = rule.days();
+            for (LocalDate date = rule.from(); !date.isAfter(rule.to()); date = date.plusDays(1)) {
+                if (!days.contains(date.getDayOfWeek())) {
+                    continue;
+                }
+                for (LocalTime time : rule.times()) {
+                    LocalDateTime start = date.atTime(time).truncatedTo(ChronoUnit.MINUTES);
+                    generated.add(new ScheduledShowtime(rule.movieId(), rule.theaterId(), rule.type(), start,
+                            start.plus(durationPolicy.occupancy(movie))));
+                }
+            }
+        }
+        return generated;
+    }
+
+    private void reserveSlots(List<ScheduledShowtime> generated, Map<Long, Movie> movies, boolean hold) {
+        Map<Long, List<ScheduledShowtime>> byTheater = generated.stream()
+                .collect(Collectors.groupingBy(ScheduledShowtime::theaterId, LinkedHashMap::new, Collectors.toList()));
+
+        List<String> conflicts = new ArrayList<>();
+        int conflictCount = 0;
+        for (Map.Entry<Long, List<ScheduledShowtime>> entry : byTheater.entrySet()) {
+            List<ScheduledShowtime> showtimes = entry.getValue();
+            List<TheaterOccupancyIndex.NewSlot> slots = showtimes.stream()
+                    .map(showtime -> new TheaterOccupancyIndex.NewSlot(showtime.startsAt(), showtime.endsAt(),
+                            showtime.startsAt().plus(durationPolicy.screening(movies.get(showtime.movieId())))))
+                    .toList();
+            // Резерв держится до конца транзакции, поэтому параллельная запись в тот же зал его увидит
+            List<TheaterOccupancyIndex.Overlap> overlaps = occupancyIndex.reserveNew(entry.getKey(), slots, hold);
+            if (overlaps.isEmpty()) {
+                continue;
+            }
+            Map<LocalDateTime, ScheduledShowtime> byStart = showtimes.stream()
+                    .collect(Collectors.toMap(ScheduledShowtime::startsAt, Function.identity(), (a, b) -> a));
+            for (TheaterOccupancyIndex.Overlap overlap : overlaps) {
+                if (++conflictCount <= MAX_REPORTED_CONFLICTS) {
+                    ScheduledShowtime showtime = showtimes.get(overlap.index());
+                    conflicts.add("Театр " + showtime.theaterId() + ": сеанс фильма " + showtime.movieId() + " в "
+                            + showtime.startsAt() + " пересекается с " + describe(overlap.occupied(), byStart));
+                }
+            }
+        }
+        if (conflictCount > MAX_REPORTED_CONFLICTS) {
+            conflicts.add("... и ещё " + (conflictCount - MAX_REPORTED_CONFLICTS) + " пересечений");
+        }
+        if (!conflicts.isEmpty()) {
+            logger.warn("Schedule rejected: {} overlapping showtimes", conflictCount);
+            throw new ValidationException(conflicts);
+        }
+    }
+
+    private String describe(TheaterTimeline.Slot<TheaterOccupancyIndex.Booking> occupied,
+                            Map<LocalDateTime, ScheduledShowtime> newByStart) {
+        Long showtimeId = occupied.value().showtimeId();
+        if (showtimeId != null) {
+            return "сеансом ID " + showtimeId + " в " + occupied.start();
+        }
+        ScheduledShowtime other = newByStart.get(occupied.start());
+        return other != null
+                ? "новым сеансом фильма " + other.movieId() + " в " + other.startsAt()
+                : "другим новым сеансом в " + occupied.start();
+    }
+
+    private void evictShowtimeCaches(Iterable<Movie> movies, Iterable<Theater> theaters) {
+        cache.evict("showtime::all");
+        for (Movie movie : movies) {
+            cache.evict("showtime::by_movie_id:" + movie.getId());
+            cache.evict("showtime::by_movie_title:" + movie.getTitle());
+        }
+        for (Theater theater : theaters) {
+            cache.evict("showtime::by_theater_name:" + theater.getName());
+        }
+    }
+}
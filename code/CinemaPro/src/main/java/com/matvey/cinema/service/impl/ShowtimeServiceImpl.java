@@ -2,28 +2,68 @@ package com.matvey.cinema.service.impl;
 
 import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ShowtimeView;
+import com.matvey.cinema.model.dto.UpcomingShowtime;
 import com.matvey.cinema.model.entities.Showtime;
 import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.schedule.TheaterOccupancyIndex;
+import com.matvey.cinema.schedule.UpcomingShowtimeIndex;
 import com.matvey.cinema.service.ShowtimeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ShowtimeServiceImpl implements ShowtimeService {
     private static final Logger logger = LoggerFactory.getLogger(ShowtimeServiceImpl.class);
+    // Ограничение окна диапазонного запроса, чтобы ответ оставался небольшим
+    private static final Duration MAX_RANGE = Duration.ofDays(31);
 
     private final ShowtimeRepository showtimeRepository;
     private final InMemoryCache cache;
+    private final TheaterOccupancyIndex occupancyIndex;
+    private final UpcomingShowtimeIndex upcomingIndex;
 
     @Autowired
-    public ShowtimeServiceImpl(ShowtimeRepository showtimeRepository, InMemoryCache cache) {
+    public ShowtimeServiceImpl(ShowtimeRepository showtimeRepository, InMemoryCache cache,
+                               TheaterOccupancyIndex occupancyIndex, UpcomingShowtimeIndex upcomingIndex) {
         this.showtimeRepository = showtimeRepository;
         this.cache = cache;
+        this.occupancyIndex = occupancyIndex;
+        this.upcomingIndex = upcomingIndex;
+    }
+
+    // Одна выборка findAllById на все промахи кэша вместо findById на каждый ID
+    @Override
+    @Transactional(readOnly = true)
+    public List<Showtime> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Showtime> found = cache.getAll(distinctIds, id -> "showtime::id:" + id, Showtime.class);
+        int cached = found.size();
+        List<Long> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            showtimeRepository.findAllById(misses).forEach(showtime -> found.put(showtime.getId(), showtime));
+        }
+        List<Long> notFound = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!notFound.isEmpty()) {
+            throw new CustomNotFoundException("Сеансы не найдены с ID: " + notFound);
+        }
+        logger.info("Resolved {} showtimes ({} from cache).", found.size(), cached);
+        return distinctIds.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
     @Override
@@ -38,8 +78,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
             Object data = cachedData.get();
             if (data instanceof Showtime) {
                 Showtime showtime = (Showtime) data;
-                // Принудительная загрузка связанных сущностей после извлечения из кэша
-                loadRelatedEntities(showtime);
                 return Optional.of(showtime);
             } else {
                 logger.error("Cached object for key {} is not a Showtime, it is of type {}. Evicting from cache.",
@@ -56,8 +94,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         }
 
         showtime.ifPresent(value -> {
-            // Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ПЕРЕД кэшированием
-            loadRelatedEntities(value);
             cache.put(cacheKey, value);
             logger.info("Сеанс с ID: {} добавлен в кэш.", id);
         });
@@ -65,6 +101,52 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         return showtime;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Showtime> findStartingBetween(LocalDateTime from, LocalDateTime to, Long theaterId) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException(List.of("Начало диапазона должно быть раньше конца"));
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new ValidationException(List.of("Диапазон не должен превышать " + MAX_RANGE.toDays() + " дней"));
+        }
+        logger.info("Получение сеансов с {} по {}, зал: {}", from, to, theaterId);
+        return theaterId == null
+                ? showtimeRepository.findStartingBetween(from, to)
+                : showtimeRepository.findStartingBetweenInTheater(theaterId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Showtime> findPlayingAt(Long theaterId, LocalDateTime time) {
+        logger.info("Поиск сеанса, идущего в зале {} в {}", theaterId, time);
+        return occupancyIndex.playingAt(theaterId, time).map(id -> findById(id).orElseThrow());
+    }
+
+    @Override
+    public List<UpcomingShowtime> findUpcoming(int hours) {
+        if (hours < 1 || hours > upcomingIndex.horizonHours()) {
+            throw new ValidationException(
+                    List.of("Количество часов должно быть от 1 до " + upcomingIndex.horizonHours()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return upcomingIndex.upcoming(now, now, now.plusHours(hours));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShowtimeView> findViewsByMovieId(Long movieId) {
+        logger.info("Получение проекций сеансов для фильма с ID: {}", movieId);
+        return showtimeRepository.findViewsByMovieId(movieId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Showtime> findPage(long afterId, int limit) {
+        logger.info("Получение страницы сеансов после ID: {}, размер: {}", afterId, limit);
+        return showtimeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> findAll() {
@@ -80,8 +162,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
                 if (list.isEmpty() || list.get(0) instanceof Showtime) {
                     try {
                         List<Showtime> showtimes = (List<Showtime>) data;
-                        // Принудительная загрузка связанных сущностей после извлечения из кэша
-                        showtimes.forEach(this::loadRelatedEntities);
                         return showtimes;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -95,8 +175,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
 
         logger.info("Кэш промах для всех сеансов. Получение из репозитория.");
         List<Showtime> showtimes = showtimeRepository.findAll();
-        // Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ПЕРЕД кэшированием
-        showtimes.forEach(this::loadRelatedEntities);
 
         cache.put(cacheKey, showtimes);
         logger.info("Все сеансы добавлены в кэш.");
@@ -119,8 +197,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
                 if (list.isEmpty() || list.get(0) instanceof Showtime) {
                     try {
                         List<Showtime> showtimes = (List<Showtime>) data;
-                        // Принудительная загрузка связанных сущностей после извлечения из кэша
-                        showtimes.forEach(this::loadRelatedEntities);
                         return showtimes;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -139,8 +215,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
             return List.of();
         }
 
-        // Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ПЕРЕД кэшированием
-        showtimes.forEach(this::loadRelatedEntities);
 
         cache.put(cacheKey, showtimes);
         logger.info("Сеансы для театра {} добавлены в кэш.", theaterName);
@@ -163,8 +237,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
                 if (list.isEmpty() || list.get(0) instanceof Showtime) {
                     try {
                         List<Showtime> showtimes = (List<Showtime>) data;
-                        // Принудительная загрузка связанных сущностей после извлечения из кэша
-                        showtimes.forEach(this::loadRelatedEntities);
                         return showtimes;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -183,8 +255,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
             return List.of();
         }
 
-        // Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ПЕРЕД кэшированием
-        showtimes.forEach(this::loadRelatedEntities);
 
         cache.put(cacheKey, showtimes);
         logger.info("Сеансы для фильма по названию {} добавлены в кэш.", movieTitle);
@@ -212,6 +282,9 @@ public class ShowtimeServiceImpl implements ShowtimeService {
 
 
         Showtime savedShowtime = showtimeRepository.save(showtime);
+        // После save у нового сеанса есть ID; при пересечении транзакция откатится вместе со вставкой
+        occupancyIndex.reserve(savedShowtime);
+        upcomingIndex.put(savedShowtime);
 
         // --- Очистка кэша ---
         // Очистка общего кэша всех сеансов
@@ -319,6 +392,10 @@ public class ShowtimeServiceImpl implements ShowtimeService {
 
             // Выполнение удаления сеанса из БД
             showtimeRepository.deleteById(id);
+            if (showtime.getTheater() != null) {
+                occupancyIndex.release(id, showtime.getTheater().getId());
+            }
+            upcomingIndex.remove(id);
             logger.info("Сеанс с ID: {} успешно удален из БД и кэш очищен.", id);
 
         } else {
@@ -343,8 +420,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
                 if (list.isEmpty() || list.get(0) instanceof Showtime) {
                     try {
                         List<Showtime> showtimes = (List<Showtime>) data;
-                        // Принудительная загрузка связанных сущностей после извлечения из кэша
-                        showtimes.forEach(this::loadRelatedEntities);
                         return showtimes;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -362,31 +437,11 @@ public class ShowtimeServiceImpl implements ShowtimeService {
             logger.warn("Сеансы для фильма с ID {} не найдены в базе данных.", movieId);
             return List.of();
         }
-        showtimes.forEach(this::loadRelatedEntities);
 
         cache.put(cacheKey, showtimes);
         logger.info("Сеансы для фильма с ID: {} добавлены в кэш.", movieId);
 
         return showtimes;
     }
-
-    private void loadRelatedEntities(Showtime showtime) {
-        try {
-            if (showtime.getMovie() != null) {
-                logger.debug("Accessing Movie for showtime {}", showtime.getId());
-                showtime.getMovie().getTitle();
-            } else {
-                logger.debug("Movie is null for showtime {}", showtime.getId());
-            }
-            if (showtime.getTheater() != null) {
-                logger.debug("Accessing Theater for showtime {}", showtime.getId());
-                showtime.getTheater().getName();
-            } else {
-                logger.debug("Theater is null for showtime {}", showtime.getId());
-            }
-        } catch (Exception e) {
-            logger.error("Ошибка при принудительной загрузке связанных сущностей для сеанса ID: {}", showtime.getId(), e);
-        }
-    }
 }
 
@@ -2,8 +2,14 @@ package com.matvey.cinema.service.impl;
 
 import com.matvey.cinema.cache.CacheKeys;
 import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.model.dto.BulkOrderResult;
 import com.matvey.cinema.model.dto.PurchaseRequestDto;
+import com.matvey.cinema.model.dto.TicketRefund;
 import com.matvey.cinema.model.dto.TicketRequest;
+import com.matvey.cinema.model.dto.TicketView;
 import com.matvey.cinema.model.entities.Seat;
 import com.matvey.cinema.model.entities.Showtime;
 import com.matvey.cinema.model.entities.Ticket;
@@ -12,15 +18,34 @@ import com.matvey.cinema.repository.SeatRepository;
 import com.matvey.cinema.repository.ShowtimeRepository;
 import com.matvey.cinema.repository.TicketRepository;
 import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.outbox.OutboxEventTypes;
+import com.matvey.cinema.service.OutboxService;
+import com.matvey.cinema.service.PricingService;
 import com.matvey.cinema.service.TicketService;
+import com.matvey.cinema.transaction.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,6 +59,11 @@ public class TicketServiceImpl implements TicketService {
     private final UserRepository userRepository;
     private final SeatRepository seatRepository;
     private final InMemoryCache cache;
+    private final PricingService pricingService;
+    private final SeatOccupancyRegistry occupancyRegistry;
+    private final OutboxService outboxService;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final TransactionTemplate transactionTemplate;
 
     private static final Pattern SEAT_PATTERN = Pattern.compile("(\\d+)-(\\d+)");
 
@@ -43,12 +73,22 @@ public class TicketServiceImpl implements TicketService {
                              ShowtimeRepository showtimeRepository,
                              UserRepository userRepository,
                              SeatRepository seatRepository,
-                             InMemoryCache cache) {
+                             InMemoryCache cache,
+                             PricingService pricingService,
+                             SeatOccupancyRegistry occupancyRegistry,
+                             OutboxService outboxService,
+                             ReplicaLagGuard replicaLagGuard,
+                             TransactionTemplate transactionTemplate) {
         this.ticketRepository = ticketRepository;
         this.showtimeRepository = showtimeRepository;
         this.userRepository = userRepository;
         this.seatRepository = seatRepository;
         this.cache = cache;
+        this.pricingService = pricingService;
+        this.occupancyRegistry = occupancyRegistry;
+        this.outboxService = outboxService;
+        this.replicaLagGuard = replicaLagGuard;
+        this.transactionTemplate = transactionTemplate;
     }
 
 
@@ -91,23 +131,11 @@ public class TicketServiceImpl implements TicketService {
         // }
 
         // === Получение данных напрямую из репозитория (ОСТАВЛЕНО) ===
-        // Получение данных из репозитория (без EntityGraph, предполагаем Lazy Loading)
+        // Сеанс, фильм, пользователь и место приходят одним запросом (EntityGraph)
         List<Ticket> tickets = ticketRepository.findByUserId(userId);
         // ============================================================
 
 
-        // --- Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ (ОСТАВЛЕНО) ---
-        // Обходим каждый билет и обращаемся к геттерам связанных объектов
-        tickets.forEach(ticket -> {
-            // Проверка на null перед обращением к геттеру
-            if (ticket.getShowtime() != null) {
-                ticket.getShowtime().getMovie(); // Обращение к Movie через Showtime
-            }
-            if (ticket.getSeat() != null) {
-                ticket.getSeat(); // Обращение к Seat
-            }
-        });
-        // --- Конец принудительной загрузки ---
 
         // УДАЛЕНО: Логика добавления в кэш
         // Помещение полностью загруженных данных в кэш
@@ -122,6 +150,24 @@ public class TicketServiceImpl implements TicketService {
 
     // Ваши существующие методы (оставлены для полноты, убедитесь, что они нужны и корректны):
 
+    // Одна выборка findAllById на все промахи кэша вместо findById на каждый ID
+    @Override
+    @Transactional(readOnly = true)
+    public List<Ticket> findAllByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Ticket> found = cache.getAll(distinctIds, id -> CacheKeys.TICKET_PREFIX + id, Ticket.class);
+        int cached = found.size();
+        List<Long> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            ticketRepository.findAllById(misses).forEach(ticket -> found.put(ticket.getId(), ticket));
+        }
+        logger.info("Resolved {} tickets ({} from cache).", found.size(), cached);
+        return distinctIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Ticket> findById(Long id) {
@@ -134,13 +180,6 @@ public class TicketServiceImpl implements TicketService {
             Object data = cachedData.get();
             if (data instanceof Ticket) {
                 Ticket ticket = (Ticket) data;
-                // Принудительная загрузка связей после извлечения из кэша
-                if (ticket.getShowtime() != null) {
-                    ticket.getShowtime().getMovie();
-                }
-                if (ticket.getSeat() != null) {
-                    ticket.getSeat();
-                }
                 return Optional.of(ticket);
             } else {
                 cache.evict(cacheKey);
@@ -155,13 +194,6 @@ public class TicketServiceImpl implements TicketService {
         }
 
         ticket.ifPresent(value -> {
-            // Принудительная загрузка связанных сущностей перед кэшированием
-            if(value.getShowtime() != null) {
-                value.getShowtime().getMovie(); // Загрузка Movie через Showtime
-            }
-            if(value.getSeat() != null) {
-                value.getSeat(); // Загрузка Seat
-            }
             cache.put(cacheKey, value);
             logger.info("Ticket with ID: {} added to cache.", id);
         });
@@ -170,6 +202,21 @@ public class TicketServiceImpl implements TicketService {
         return ticket;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketView> findViewsByUserId(Long userId) {
+        logger.info("Fetching ticket views for user ID: {}", userId);
+        return ticketRepository.findViewsByUserId(userId);
+    }
+
+    // Страницы не кэшируются: в кэше остаются только отдельные записи
+    @Override
+    @Transactional(readOnly = true)
+    public List<Ticket> findPage(long afterId, int limit) {
+        logger.info("Fetching page of tickets after ID: {}, size: {}", afterId, limit);
+        return ticketRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     @Override
     @Transactional(readOnly = true) // Транзакция только для чтения
     public List<Ticket> findAll() {
@@ -185,15 +232,6 @@ public class TicketServiceImpl implements TicketService {
                 if (list.isEmpty() || list.get(0) instanceof Ticket) {
                     try {
                         List<Ticket> tickets = (List<Ticket>) data;
-                        // Принудительная загрузка связей после извлечения из кэша
-                        tickets.forEach(ticket -> {
-                            if(ticket.getShowtime() != null) {
-                                ticket.getShowtime().getMovie();
-                            }
-                            if(ticket.getSeat() != null) {
-                                ticket.getSeat();
-                            }
-                        });
                         return tickets;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -207,15 +245,6 @@ public class TicketServiceImpl implements TicketService {
 
         List<Ticket> tickets = ticketRepository.findAll();
 
-        // Принудительная загрузка связанных сущностей для всех билетов ВНУТРИ ТРАНЗАКЦИИ перед кэшированием
-        tickets.forEach(ticket -> {
-            if(ticket.getShowtime() != null) {
-                ticket.getShowtime().getMovie(); // Загрузка Movie через Showtime
-            }
-            if(ticket.getSeat() != null) {
-                ticket.getSeat(); // Загрузка Seat
-            }
-        });
 
 
         cache.put(cacheKey, tickets);
@@ -240,15 +269,6 @@ public class TicketServiceImpl implements TicketService {
                 if (list.isEmpty() || list.get(0) instanceof Ticket) {
                     try {
                         List<Ticket> tickets = (List<Ticket>) data;
-                        // Принудительная загрузка связей после извлечения из кэша
-                        tickets.forEach(ticket -> {
-                            if(ticket.getShowtime() != null) {
-                                ticket.getShowtime().getMovie();
-                            }
-                            if(ticket.getSeat() != null) {
-                                ticket.getSeat();
-                            }
-                        });
                         return tickets;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -263,16 +283,6 @@ public class TicketServiceImpl implements TicketService {
         // Получение данных из репозитория
         List<Ticket> tickets = ticketRepository.findByUser_Username(userUsername);
 
-        // --- Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ---
-        tickets.forEach(ticket -> {
-            if(ticket.getShowtime() != null) {
-                ticket.getShowtime().getMovie(); // Загрузка Movie через Showtime
-            }
-            if(ticket.getSeat() != null) {
-                ticket.getSeat(); // Загрузка Seat
-            }
-        });
-        // --- Конец принудительной загрузки ---
 
 
         cache.put(cacheKey, tickets);
@@ -297,15 +307,6 @@ public class TicketServiceImpl implements TicketService {
                 if (list.isEmpty() || list.get(0) instanceof Ticket) {
                     try {
                         List<Ticket> tickets = (List<Ticket>) data;
-                        // Принудительная загрузка связей после извлечения из кэша
-                        tickets.forEach(ticket -> {
-                            if(ticket.getShowtime() != null) {
-                                ticket.getShowtime().getMovie();
-                            }
-                            if(ticket.getSeat() != null) {
-                                ticket.getSeat();
-                            }
-                        });
                         return tickets;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -320,16 +321,6 @@ public class TicketServiceImpl implements TicketService {
         // Получение данных из репозитория
         List<Ticket> tickets = ticketRepository.findByShowtime_DateTime(showtimeDateTime);
 
-        // --- Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ---
-        tickets.forEach(ticket -> {
-            if(ticket.getShowtime() != null) {
-                ticket.getShowtime().getMovie(); // Загрузка Movie через Showtime
-            }
-            if(ticket.getSeat() != null) {
-                ticket.getSeat(); // Загрузка Seat
-            }
-        });
-        // --- Конец принудительной загрузки ---
 
 
         cache.put(cacheKey, tickets);
@@ -353,15 +344,6 @@ public class TicketServiceImpl implements TicketService {
                 if (list.isEmpty() || list.get(0) instanceof Ticket) {
                     try {
                         List<Ticket> tickets = (List<Ticket>) data;
-                        // Принудительная загрузка связей после извлечения из кэша
-                        tickets.forEach(ticket -> {
-                            if(ticket.getShowtime() != null) {
-                                ticket.getShowtime().getMovie();
-                            }
-                            if(ticket.getSeat() != null) {
-                                ticket.getSeat();
-                            }
-                        });
                         return tickets;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -376,16 +358,6 @@ public class TicketServiceImpl implements TicketService {
         // Получение данных из репозитория
         List<Ticket> tickets = ticketRepository.findBySeatId(seatId);
 
-        // --- Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ---
-        tickets.forEach(ticket -> {
-            if(ticket.getShowtime() != null) {
-                ticket.getShowtime().getMovie(); // Загрузка Movie через Showtime
-            }
-            if(ticket.getSeat() != null) {
-                ticket.getSeat(); // Загрузка Seat
-            }
-        });
-        // --- Конец принудительной загрузки ---
 
 
         cache.put(cacheKey, tickets);
@@ -449,6 +421,9 @@ public class TicketServiceImpl implements TicketService {
         Optional.ofNullable(ticket.getShowtime()).map(Showtime::getId).ifPresent(showtimeId -> {
             cache.evict(CacheKeys.TICKETS_SHOWTIME_PREFIX + showtimeId); // Очищаем кэш для findTicketsByShowtimeDateTime и findByShowtimeId
             logger.info("Cache for tickets of showtime ID '{}' cleared upon deletion.", showtimeId);
+            if (ticket.getSeatNumber() != null) {
+                occupancyRegistry.release(showtimeId, List.of(ticket.getSeatNumber()));
+            }
         });
 
         Optional.ofNullable(ticket.getSeat()).map(Seat::getId).ifPresent(seatId -> {
@@ -476,15 +451,6 @@ public class TicketServiceImpl implements TicketService {
                 if (list.isEmpty() || list.get(0) instanceof Ticket) {
                     try {
                         List<Ticket> tickets = (List<Ticket>) data;
-                        // Принудительная загрузка связей после извлечения из кэша
-                        tickets.forEach(ticket -> {
-                            if(ticket.getShowtime() != null) {
-                                ticket.getShowtime().getMovie();
-                            }
-                            if(ticket.getSeat() != null) {
-                                ticket.getSeat();
-                            }
-                        });
                         return tickets;
                     } catch (ClassCastException e) {
                         logger.error("ClassCastException when casting cached data for key: {}", cacheKey, e);
@@ -499,18 +465,6 @@ public class TicketServiceImpl implements TicketService {
         // Получение данных из репозитория
         List<Ticket> tickets = ticketRepository.findByShowtime_Id(showtimeId);
 
-        // --- Принудительная загрузка связанных сущностей ВНУТРИ ТРАНЗАКЦИИ ---
-        tickets.forEach(ticket -> {
-            if(ticket.getShowtime() != null) {
-                ticket.getShowtime().getMovie(); // Загрузка Movie через Showtime
-            }
-            if(ticket.getSeat() != null) {
-                ticket.getSeat(); // Загрузка Seat
-            }
-        });
-        // --- Конец принудительной загрузки ---
-
-
         cache.put(cacheKey, tickets);
         logger.info("Tickets for showtime ID {} added to cache.", showtimeId);
 
@@ -540,8 +494,14 @@ public class TicketServiceImpl implements TicketService {
         logger.debug("Found user: {}", user.getId());
 
         List<Ticket> createdTickets = new ArrayList<>();
-        BigDecimal basePrice = BigDecimal.valueOf(300.0); // TODO: Determine real price based on showtime/seat/etc.
 
+        // Места занимаются в реестре сразу, как и в пакетной покупке: параллельная покупка тех же мест
+        // получит отказ, а откат транзакции их освободит
+        if (!occupancyRegistry.tryClaim(showtime.getId(), purchaseRequest.getSeatNumbers())) {
+            logger.warn("Seats {} are already occupied for showtime ID: {}. Purchase attempt failed.",
+                    purchaseRequest.getSeatNumbers(), showtime.getId());
+            throw new IllegalStateException("One of the seats is already occupied: " + purchaseRequest.getSeatNumbers());
+        }
 
         // 3. Обрабатываем каждое выбранное место
         for (String seatNumber : purchaseRequest.getSeatNumbers()) {
@@ -583,7 +543,7 @@ public class TicketServiceImpl implements TicketService {
             // !!! ИСПРАВЛЕНИЕ: Устанавливаем строковое представление номера места !!!
             newTicket.setSeatNumber(seatNumber); // <-- Устанавливаем значение из входящего запроса
 
-            newTicket.setPrice(basePrice); // Устанавливаем цену
+            newTicket.setPrice(pricingService.quote(showtime.getId(), seatNumber)); // Цена из таблицы цен сеанса
             // Если у вас есть поле purchaseTime, установите его здесь:
             // newTicket.setPurchaseTime(LocalDateTime.now());
 
@@ -596,7 +556,28 @@ public class TicketServiceImpl implements TicketService {
 
         logger.info("Purchase process completed successfully. Created tickets: {}. Clearing cache...", createdTickets.size());
 
-        // 4. Очистка кэша после покупки
+        // Подтверждение и прочие побочные эффекты уходят через outbox в той же транзакции
+        Map<String, Object> confirmation = new LinkedHashMap<>();
+        confirmation.put("showtimeId", showtime.getId());
+        confirmation.put("userId", user.getId());
+        confirmation.put("ticketIds", createdTickets.stream().map(Ticket::getId).toList());
+        confirmation.put("seatNumbers", purchaseRequest.getSeatNumbers());
+        confirmation.put("total", createdTickets.stream().map(Ticket::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        outboxService.publish(OutboxEventTypes.AGGREGATE_TICKET_ORDER, createdTickets.get(0).getId(),
+                OutboxEventTypes.TICKETS_PURCHASED, confirmation);
+
+        // 4. Очистка кэша после коммита: до него чтение успело бы снова закэшировать старый список
+        TransactionCallbacks.afterCommit(() -> evictPurchasedTickets(showtime, user, createdTickets));
+
+        return createdTickets; // Возвращаем список созданных билетов
+    }
+
+    private void evictPurchasedTickets(Showtime showtime, User user, List<Ticket> createdTickets) {
+        // Ближайшие чтения этого пользователя и сеанса идут на primary: реплика может ещё не увидеть покупку
+        replicaLagGuard.pinUser(user.getId());
+        replicaLagGuard.pinShowtime(showtime.getId());
+
         // Очистка кэша для findByShowtimeId и findTicketsByShowtimeDateTime
         if (showtime.getId() != null) {
             cache.evict(CacheKeys.TICKETS_SHOWTIME_PREFIX + showtime.getId());
@@ -629,10 +610,223 @@ public class TicketServiceImpl implements TicketService {
             }
         }
         cache.evict(CacheKeys.TICKETS_ALL); // Очистка кэша для findAll
+    }
 
-        return createdTickets; // Возвращаем список созданных билетов
+
+    // Без @Transactional: каждая попытка идёт в своей транзакции, см. processBulk
+    @Override
+    public List<BulkOrderResult> purchaseTicketsInBulk(List<PurchaseRequestDto> orders) {
+        logger.info("Starting bulk purchase of {} orders", orders.size());
+        List<Integer> all = IntStream.range(0, orders.size()).boxed().toList();
+
+        BulkOrderResult[] results;
+        try {
+            results = transactionTemplate.execute(status -> processBulk(orders, all));
+        } catch (DataAccessException e) {
+            // Пачка откатилась целиком (место заняли в обход реестра, например с другого экземпляра) -
+            // повторяем заказы по одному, чтобы отказ получил только виновный
+            logger.warn("Bulk of {} orders failed ({}), retrying order by order", orders.size(), e.getMessage());
+            results = new BulkOrderResult[orders.size()];
+            for (Integer i : all) {
+                try {
+                    results[i] = transactionTemplate.execute(status -> processBulk(orders, List.of(i)))[i];
+                } catch (DataAccessException orderError) {
+                    logger.warn("Bulk order {} failed: {}", i, orderError.getMostSpecificCause().getMessage());
+                    results[i] = BulkOrderResult.rejected(i,
+                            "One of the seats is already occupied: " + orders.get(i).getSeatNumbers());
+                }
+            }
+        }
+
+        logger.info("Bulk purchase completed: {} of {} orders accepted.",
+                Arrays.stream(results).filter(BulkOrderResult::accepted).count(), orders.size());
+        return List.of(results);
+    }
+
+    /**
+     * Validates, claims and saves the given orders of the bulk in the current transaction. Returns
+     * results indexed like {@code orders}; positions of other orders stay {@code null}. A unique-key
+     * violation on insert fails the whole call.
+     */
+    private BulkOrderResult[] processBulk(List<PurchaseRequestDto> orders, List<Integer> indices) {
+        // 1. Все сеансы и пользователи пачки - двумя запросами вместо двух на каждый заказ
+        Map<Long, Showtime> showtimes = showtimeRepository.findAllById(indices.stream()
+                        .map(i -> orders.get(i).getShowtimeId()).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Showtime::getId, Function.identity()));
+        Map<Long, User> users = userRepository.findAllById(indices.stream()
+                        .map(i -> orders.get(i).getUserId()).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // 2. Заказы группируются по сеансу: схема зала загружается один раз на сеанс
+        Map<Long, List<Integer>> ordersByShowtime = new LinkedHashMap<>();
+        for (Integer i : indices) {
+            ordersByShowtime.computeIfAbsent(orders.get(i).getShowtimeId(), id -> new ArrayList<>()).add(i);
+        }
+
+        BulkOrderResult[] results = new BulkOrderResult[orders.size()];
+        List<Ticket> ticketsToSave = new ArrayList<>();
+        Map<Integer, List<Ticket>> ticketsByOrder = new HashMap<>();
+
+        for (Map.Entry<Long, List<Integer>> group : ordersByShowtime.entrySet()) {
+            Showtime showtime = showtimes.get(group.getKey());
+            if (showtime == null) {
+                group.getValue().forEach(i -> results[i] =
+                        BulkOrderResult.rejected(i, "Showtime not found with ID: " + group.getKey()));
+                continue;
+            }
+            Map<String, Seat> hall = seatRepository.findSeatsByTheaterId(showtime.getTheater().getId())
+                    .stream().collect(Collectors.toMap(
+                            seat -> seat.getSeatRow() + "-" + seat.getNumber(), Function.identity(), (a, b) -> a));
+
+            for (Integer i : group.getValue()) {
+                PurchaseRequestDto order = orders.get(i);
+                User user = users.get(order.getUserId());
+                String error = validateBulkOrder(order, user, hall);
+                if (error == null && !occupancyRegistry.tryClaim(showtime.getId(), order.getSeatNumbers())) {
+                    error = "One of the seats is already occupied: " + order.getSeatNumbers();
+                }
+                if (error != null) {
+                    results[i] = BulkOrderResult.rejected(i, error);
+                    continue;
+                }
+
+                List<Ticket> orderTickets = new ArrayList<>(order.getSeatNumbers().size());
+                for (String seatNumber : order.getSeatNumbers()) {
+                    Ticket ticket = new Ticket();
+                    ticket.setShowtime(showtime);
+                    ticket.setUser(user);
+                    ticket.setSeat(hall.get(seatNumber));
+                    ticket.setSeatNumber(seatNumber);
+                    ticket.setPrice(pricingService.quote(showtime.getId(), seatNumber));
+                    orderTickets.add(ticket);
+                }
+                ticketsByOrder.put(i, orderTickets);
+                ticketsToSave.addAll(orderTickets);
+            }
+        }
+
+        // 3. Все принятые билеты сохраняются одним saveAll; flush, чтобы нарушение уникальности
+        // всплыло здесь, а не при коммите
+        ticketRepository.saveAll(ticketsToSave);
+        ticketRepository.flush();
+
+        Set<Long> touchedUsers = new HashSet<>();
+        for (Map.Entry<Integer, List<Ticket>> entry : ticketsByOrder.entrySet()) {
+            int i = entry.getKey();
+            List<Ticket> orderTickets = entry.getValue();
+            BigDecimal total = orderTickets.stream().map(Ticket::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+            List<Long> ticketIds = orderTickets.stream().map(Ticket::getId).toList();
+            results[i] = BulkOrderResult.accepted(i, ticketIds, total);
+
+            PurchaseRequestDto order = orders.get(i);
+            touchedUsers.add(order.getUserId());
+            Map<String, Object> confirmation = new LinkedHashMap<>();
+            confirmation.put("showtimeId", order.getShowtimeId());
+            confirmation.put("userId", order.getUserId());
+            confirmation.put("ticketIds", ticketIds);
+            confirmation.put("seatNumbers", order.getSeatNumbers());
+            confirmation.put("total", total);
+            outboxService.publish(OutboxEventTypes.AGGREGATE_TICKET_ORDER, ticketIds.get(0),
+                    OutboxEventTypes.TICKETS_PURCHASED, confirmation);
+        }
+
+        // 4. Очистка кэша после коммита, один раз на сеанс/пользователя, а не на каждый билет
+        TransactionCallbacks.afterCommit(() -> {
+            touchedUsers.forEach(replicaLagGuard::pinUser);
+            ordersByShowtime.keySet().forEach(replicaLagGuard::pinShowtime);
+            cache.evict(CacheKeys.TICKETS_ALL);
+            ordersByShowtime.keySet().forEach(id -> cache.evict(CacheKeys.TICKETS_SHOWTIME_PREFIX + id));
+            touchedUsers.forEach(id -> cache.evict(CacheKeys.TICKETS_USER_PREFIX + id));
+            ticketsToSave.forEach(ticket -> cache.evict(CacheKeys.TICKETS_SEAT_PREFIX + ticket.getSeat().getId()));
+        });
+        return results;
     }
 
+    private String validateBulkOrder(PurchaseRequestDto order, User user, Map<String, Seat> hall) {
+        if (user == null) {
+            return "User not found with ID: " + order.getUserId();
+        }
+        Set<String> unique = new LinkedHashSet<>();
+        for (String seatNumber : order.getSeatNumbers()) {
+            if (!SEAT_PATTERN.matcher(seatNumber).matches()) {
+                return "Invalid seat number format: " + seatNumber;
+            }
+            if (!hall.containsKey(seatNumber)) {
+                return "Seat entity not found for number: " + seatNumber;
+            }
+            if (!unique.add(seatNumber)) {
+                return "Seat " + seatNumber + " is listed twice";
+            }
+        }
+        return null;
+    }
+
+    @Transactional
+    @Override
+    public TicketRefund cancelTicket(Long id) {
+        logger.info("Cancelling ticket with ID: {}", id);
+        Ticket ticket = ticketRepository.findById(id)
+                .orElseThrow(() -> new CustomNotFoundException("Ticket not found with ID: " + id));
+
+        Long showtimeId = ticket.getShowtime().getId();
+        TicketRefund refund = new TicketRefund(ticket.getId(), ticket.getUser().getId(),
+                ticket.getSeat().getId(), ticket.getSeatNumber(), ticket.getPrice());
+
+        ticketRepository.delete(ticket);
+        evictCancelledTickets(showtimeId, List.of(refund));
+        occupancyRegistry.release(showtimeId, List.of(refund.seatNumber()));
+        publishRefunds(OutboxEventTypes.AGGREGATE_TICKET_ORDER, id, showtimeId, List.of(refund));
+
+        logger.info("Ticket with ID: {} cancelled, seat {} released.", id, refund.seatNumber());
+        return refund;
+    }
+
+    @Transactional
+    @Override
+    public List<TicketRefund> cancelShowtimeTickets(Long showtimeId) {
+        logger.info("Cancelling all tickets for showtime ID: {}", showtimeId);
+        if (!showtimeRepository.existsById(showtimeId)) {
+            throw new CustomNotFoundException("Showtime not found with ID: " + showtimeId);
+        }
+
+        List<TicketRefund> refunds = ticketRepository.findRefundsByShowtimeId(showtimeId);
+        if (refunds.isEmpty()) {
+            logger.info("No tickets to cancel for showtime ID: {}", showtimeId);
+            return refunds;
+        }
+
+        int deleted = ticketRepository.deleteAllByShowtimeIdInBulk(showtimeId);
+        evictCancelledTickets(showtimeId, refunds);
+        occupancyRegistry.release(showtimeId, refunds.stream().map(TicketRefund::seatNumber).toList());
+        publishRefunds(OutboxEventTypes.AGGREGATE_SHOWTIME, showtimeId, showtimeId, refunds);
+
+        logger.info("Cancelled {} tickets for showtime ID: {} in one batch.", deleted, showtimeId);
+        return refunds;
+    }
+
+    private void evictCancelledTickets(Long showtimeId, List<TicketRefund> refunds) {
+        TransactionCallbacks.afterCommit(() -> {
+            replicaLagGuard.pinShowtime(showtimeId);
+            refunds.forEach(refund -> replicaLagGuard.pinUser(refund.userId()));
+            cache.evict(CacheKeys.TICKETS_ALL);
+            cache.evict(CacheKeys.TICKETS_SHOWTIME_PREFIX + showtimeId);
+            for (TicketRefund refund : refunds) {
+                cache.evict(CacheKeys.TICKET_PREFIX + refund.ticketId());
+                cache.evict(CacheKeys.TICKETS_USER_PREFIX + refund.userId());
+                cache.evict(CacheKeys.TICKETS_SEAT_PREFIX + refund.seatId());
+            }
+        });
+    }
+
+    private void publishRefunds(String aggregateType, Long aggregateId, Long showtimeId,
+                                List<TicketRefund> refunds) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("showtimeId", showtimeId);
+        payload.put("refunds", refunds);
+        payload.put("total", refunds.stream().map(TicketRefund::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        outboxService.publish(aggregateType, aggregateId, OutboxEventTypes.TICKETS_REFUNDED, payload);
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -0,0 +1,390 @@
+package com.matvey.cinema.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.cache.CacheKeys;
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.UserImportReport;
+import com.matvey.cinema.model.dto.UserImportReport.RowError;
+import com.matvey.cinema.model.dto.UserImportRow;
+import com.matvey.cinema.service.UserImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk user import for data migrations. The body is read row by row and processed in chunks of
+ * {@code user.import.batch-size}: a chunk is validated in parallel, checked for usernames that
+ * already exist and inserted with one JDBC batch in its own transaction. A bad row is reported
+ * and skipped, it never aborts the rest of the load. Only broken JSON syntax or a failed read of
+ * the body stops the reading: chunks before it stay imported and the report says after which row
+ * the body was abandoned.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final String INSERT_SQL = "INSERT INTO users (username, email, password) VALUES (?, ?, ?)";
+    private static final String EXISTING_SQL = "SELECT username FROM users WHERE username IN (:usernames)";
+    private static final List<String> CSV_COLUMNS = List.of("username", "email", "password");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final InMemoryCache cache;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportServiceImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper, Validator validator, InMemoryCache cache,
+                                 @Value("${user.import.batch-size:1000}") int batchSize,
+                                 @Value("${user.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.cache = cache;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public UserImportReport importJson(InputStream in) throws IOException {
+        // readValues читает и JSON-массив, и последовательность объектов (NDJSON) без загрузки в память
+        try (MappingIterator<UserImportRow> rows = objectMapper.readerFor(UserImportRow.class).readValues(in)) {
+            return load(new JsonRows(rows));
+        }
+    }
+
+    @Override
+    public UserImportReport importCsv(InputStream in) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return load(new CsvRows(reader));
+        }
+    }
+
+    private UserImportReport load(RowSource source) {
+        long started = System.currentTimeMillis();
+        Progress progress = new Progress();
+        List<ParsedRow> chunk = new ArrayList<>(batchSize);
+        while (source.hasNext()) {
+            chunk.add(source.next());
+            if (chunk.size() == batchSize) {
+                processChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, progress);
+        }
+        if (progress.imported > 0) {
+            cache.evict(CacheKeys.USERS_ALL);
+        }
+        UserImportReport.Abort abort = source.abort();
+        if (abort != null) {
+            logger.warn("User import stopped after row {}: {}", abort.lastGoodRow(), abort.reason());
+        }
+        logger.info("User import finished in {} ms: {} rows, {} imported, {} failed",
+                System.currentTimeMillis() - started, progress.processed, progress.imported, progress.failed);
+        return new UserImportReport(progress.processed, progress.imported, progress.failed,
+                progress.errors, progress.failed > progress.errors.size(), abort);
+    }
+
+    private void processChunk(List<ParsedRow> chunk, Progress progress) {
+        // Валидация не зависит от соседних строк, поэтому идёт параллельно; порядок строк сохраняется
+        List<List<String>> violations = chunk.parallelStream().map(this::validate).toList();
+
+        Map<String, ParsedRow> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ParsedRow parsed = chunk.get(i);
+            List<String> messages = violations.get(i);
+            if (messages.isEmpty() && !progress.seenUsernames.add(usernameKey(parsed.row()))) {
+                messages = List.of("Имя пользователя повторяется в файле импорта");
+            }
+            if (messages.isEmpty()) {
+                candidates.put(usernameKey(parsed.row()), parsed);
+            } else {
+                progress.fail(parsed, messages);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            List<String> existing = namedJdbcTemplate.queryForList(EXISTING_SQL,
+                    new MapSqlParameterSource("usernames", candidates.values().stream()
+                            .map(parsed -> parsed.row().username()).toList()),
+                    String.class);
+            for (String username : existing) {
+                ParsedRow parsed = candidates.remove(username.toLowerCase(Locale.ROOT));
+                if (parsed != null) {
+                    progress.fail(parsed, List.of("Пользователь с таким именем уже существует"));
+                }
+            }
+        }
+
+        insert(new ArrayList<>(candidates.values()), progress);
+        progress.processed += chunk.size();
+        logger.debug("User import chunk done: {} rows so far, {} imported", progress.processed, progress.imported);
+    }
+
+    private void insert(List<ParsedRow> rows, Progress progress) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL,
+                    rows.stream().map(parsed -> new Object[] {parsed.row().username(),
+                        parsed.row().email(), parsed.row().password()}).toList()));
+            progress.imported += rows.size();
+        } catch (DataAccessException e) {
+            // Пачка откатилась целиком (например, параллельная вставка того же имени) - ищем виновные строки
+            logger.warn("Batch of {} users failed ({}), retrying row by row", rows.size(), e.getMessage());
+            for (ParsedRow parsed : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, parsed.row().username(), parsed.row().email(),
+                            parsed.row().password());
+                    progress.imported++;
+                } catch (DataAccessException rowError) {
+                    progress.fail(parsed, List.of("Ошибка вставки: " + rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+    }
+
+    private List<String> validate(ParsedRow parsed) {
+        if (parsed.error() != null) {
+            return List.of(parsed.error());
+        }
+        return validator.validate(parsed.row()).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    // Уникальный ключ users.username в MySQL не различает регистр
+    private static String usernameKey(UserImportRow row) {
+        return row.username().toLowerCase(Locale.ROOT);
+    }
+
+    private final class Progress {
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        void fail(ParsedRow parsed, List<String> messages) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(parsed.line(), parsed.row() == null ? null : parsed.row().username(),
+                        messages));
+            }
+        }
+    }
+
+    private record ParsedRow(long line, UserImportRow row, String error) {
+    }
+
+    private interface RowSource extends Iterator<ParsedRow> {
+        // Где чтение тела прервалось; null - тело прочитано до конца
+        default UserImportReport.Abort abort() {
+            return null;
+        }
+    }
+
+    private static final class JsonRows implements RowSource {
+        private final MappingIterator<UserImportRow> rows;
+        private long line;
+        private UserImportReport.Abort abort;
+
+        JsonRows(MappingIterator<UserImportRow> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (abort != null) {
+                return false;
+            }
+            try {
+                return rows.hasNextValue();
+            } catch (IOException e) {
+                // Предыдущие пачки уже сохранены, поэтому не 400, а отметка в отчёте
+                abort = new UserImportReport.Abort(line, "Некорректный JSON после строки " + line + ": "
+                        + message(e));
+                return false;
+            }
+        }
+
+        @Override
+        public ParsedRow next() {
+            line++;
+            try {
+                return new ParsedRow(line, rows.nextValue(), null);
+            } catch (JsonProcessingException e) {
+                // После синтаксической ошибки продолжить разбор нельзя, после ошибки типа поля - можно
+                if (e instanceof StreamReadException) {
+                    abandon(e);
+                }
+                return new ParsedRow(line, null, "Некорректная запись: " + e.getOriginalMessage());
+            } catch (IOException e) {
+                abandon(e);
+                return new ParsedRow(line, null, "Некорректная запись: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public UserImportReport.Abort abort() {
+            return abort;
+        }
+
+        private void abandon(IOException e) {
+            abort = new UserImportReport.Abort(line - 1, "Некорректный JSON в строке " + line + ": " + message(e));
+        }
+
+        private static String message(IOException e) {
+            return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+     * Columns are matched by the header, so their order does not matter.
+     */
+    private static final class CsvRows implements RowSource {
+        private final Reader reader;
+        private final int[] columnIndexes = new int[CSV_COLUMNS.size()];
+        private List<String> nextRecord;
+        private long line;
+        private UserImportReport.Abort abort;
+
+        CsvRows(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new ValidationException(List.of("Пустой CSV: нет заголовка"));
+            }
+            List<String> normalized = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+                columnIndexes[i] = normalized.indexOf(CSV_COLUMNS.get(i));
+                if (columnIndexes[i] < 0) {
+                    missing.add("В заголовке CSV нет колонки " + CSV_COLUMNS.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new ValidationException(missing);
+            }
+            nextRecord = readRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRecord != null;
+        }
+
+        @Override
+        public ParsedRow next() {
+            if (nextRecord == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> record = nextRecord;
+            line++;
+            try {
+                nextRecord = readRecord();
+            } catch (IOException e) {
+                // Как и для JSON: предыдущие пачки уже сохранены, строка прочитана целиком
+                abort = new UserImportReport.Abort(line, "Ошибка чтения CSV после строки " + line + ": "
+                        + e.getMessage());
+                nextRecord = null;
+            }
+            if (record.size() < CSV_COLUMNS.size()) {
+                return new ParsedRow(line, null, "Ожидалось " + CSV_COLUMNS.size() + " колонки, получено "
+                        + record.size());
+            }
+            return new ParsedRow(line, new UserImportRow(field(record, 0), field(record, 1), field(record, 2)), null);
+        }
+
+        @Override
+        public UserImportReport.Abort abort() {
+            return abort;
+        }
+
+        private String field(List<String> record, int column) {
+            int index = columnIndexes[column];
+            return index < record.size() ? record.get(index) : null;
+        }
+
+        // null - конец файла; пустые строки пропускаются
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (following != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    if (fields.isEmpty() && field.isEmpty()) {
+                        continue;
+                    }
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (c == -1 && fields.isEmpty() && field.isEmpty()) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
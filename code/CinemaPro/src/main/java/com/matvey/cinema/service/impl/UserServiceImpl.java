@@ -4,13 +4,17 @@ import com.matvey.cinema.cache.CacheKeys;
 import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.exception.CustomNotFoundException;
 import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.rating.MovieRatingAggregator;
 import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.search.SearchIndex;
 import com.matvey.cinema.service.UserService;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -19,11 +23,16 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final InMemoryCache cache;
+    private final MovieRatingAggregator ratingAggregator;
+    private final SearchIndex searchIndex;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, InMemoryCache cache) {
+    public UserServiceImpl(UserRepository userRepository, InMemoryCache cache,
+                           MovieRatingAggregator ratingAggregator, SearchIndex searchIndex) {
         this.userRepository = userRepository;
         this.cache = cache;
+        this.ratingAggregator = ratingAggregator;
+        this.searchIndex = searchIndex;
     }
 
     @Override
@@ -50,6 +59,13 @@ public class UserServiceImpl implements UserService {
         return user;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findPage(long afterId, int limit) {
+        logger.info("Получение страницы пользователей после ID: {}, размер: {}", afterId, limit);
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     @Override
     public List<User> findAll() {
         String cacheKey = CacheKeys.USERS_ALL;
@@ -88,6 +104,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         logger.info("Удаление пользователя с ID: {}", id);
         cache.evict(CacheKeys.USERS_ALL);
@@ -97,7 +114,10 @@ public class UserServiceImpl implements UserService {
             throw new CustomNotFoundException("Пользователь не найден с ID: " + id);
         }
 
+        // Отзывы удалятся каскадом, их оценки нужно вычесть из агрегатов фильмов
+        ratingAggregator.removeReviewsOfUser(id);
         userRepository.deleteById(id);
+        searchIndex.removeReviewsOfUser(id);
         logger.info("Пользователь с ID: {} успешно удален и кэш очищен.", id);
     }
 
@@ -0,0 +1,199 @@
+package com.matvey.cinema.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.cache.SeatMapListener;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fan-out hub for live seat maps. Seat changes from {@link SeatOccupancyRegistry} are coalesced
+ * per showtime (the last state of a seat wins) and flushed on a short fixed delay, so a burst of
+ * purchases becomes one event that is encoded once and written to every watcher of the showtime.
+ */
+@Component
+public class SeatMapSseHub implements SeatMapListener {
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapSseHub.class);
+
+    private static final String TAKEN = "t";
+    private static final String FREE = "f";
+
+    private final SeatOccupancyRegistry occupancyRegistry;
+    private final ShowtimeRepository showtimeRepository;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+
+    private final Map<Long, List<Watcher>> watchers = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, String>> pending = new ConcurrentHashMap<>();
+
+    public SeatMapSseHub(SeatOccupancyRegistry occupancyRegistry,
+                         ShowtimeRepository showtimeRepository,
+                         ObjectMapper objectMapper,
+                         @Value("${seatmap.sse.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.occupancyRegistry = occupancyRegistry;
+        this.showtimeRepository = showtimeRepository;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    public SseEmitter subscribe(Long showtimeId) {
+        if (!showtimeRepository.existsById(showtimeId)) {
+            throw new CustomNotFoundException("Сеанс не найден с ID: " + showtimeId);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        open(showtimeId, emitter);
+        logger.debug("Seat map watcher added for showtime ID: {}, watchers: {}",
+                showtimeId, watcherCount(showtimeId));
+        return emitter;
+    }
+
+    void open(Long showtimeId, SseEmitter emitter) {
+        // Зритель регистрируется до чтения снимка, чтобы не потерять изменения между ними,
+        // а дельты до отправки снимка ждут в его очереди
+        Watcher watcher = watch(showtimeId, emitter);
+
+        // Первое событие - полный список занятых мест, дальше только изменения
+        try {
+            watcher.start(SseEmitter.event().name("snapshot")
+                    .data(encode(Map.of(TAKEN, occupancyRegistry.getOccupiedSeats(showtimeId))),
+                            MediaType.APPLICATION_JSON)
+                    .build());
+        } catch (IOException | IllegalStateException e) {
+            unwatch(showtimeId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private Watcher watch(Long showtimeId, SseEmitter emitter) {
+        Watcher watcher = new Watcher(emitter);
+        // compute() атомарен относительно unwatch(): новый зритель не попадёт в уже удалённый список
+        watchers.compute(showtimeId, (id, showtimeWatchers) -> {
+            List<Watcher> list = showtimeWatchers != null ? showtimeWatchers : new CopyOnWriteArrayList<>();
+            list.add(watcher);
+            return list;
+        });
+        emitter.onCompletion(() -> unwatch(showtimeId, emitter));
+        emitter.onTimeout(() -> unwatch(showtimeId, emitter));
+        emitter.onError(e -> unwatch(showtimeId, emitter));
+        return watcher;
+    }
+
+    int watcherCount(Long showtimeId) {
+        List<Watcher> showtimeWatchers = watchers.get(showtimeId);
+        return showtimeWatchers != null ? showtimeWatchers.size() : 0;
+    }
+
+    @Override
+    public void onSeatsOccupied(Long showtimeId, Collection<String> seatNumbers) {
+        enqueue(showtimeId, seatNumbers, TAKEN);
+    }
+
+    @Override
+    public void onSeatsReleased(Long showtimeId, Collection<String> seatNumbers) {
+        enqueue(showtimeId, seatNumbers, FREE);
+    }
+
+    @Scheduled(fixedDelayString = "${seatmap.sse.flush-interval-ms:50}")
+    public void flush() {
+        for (Long showtimeId : new ArrayList<>(pending.keySet())) {
+            Map<String, String> changes = pending.remove(showtimeId);
+            List<Watcher> showtimeWatchers = watchers.get(showtimeId);
+            if (changes == null || showtimeWatchers == null || showtimeWatchers.isEmpty()) {
+                continue;
+            }
+
+            Map<String, List<String>> grouped = new LinkedHashMap<>();
+            changes.forEach((seat, state) ->
+                    grouped.computeIfAbsent(state, s -> new ArrayList<>()).add(seat));
+            String delta = encode(grouped);
+
+            // Кадр собирается один раз: build() дописывает данные в builder, повторно его отправлять нельзя
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().name("delta")
+                    .data(delta, MediaType.APPLICATION_JSON)
+                    .build();
+            for (Watcher watcher : showtimeWatchers) {
+                try {
+                    watcher.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    unwatch(showtimeId, watcher.emitter);
+                }
+            }
+        }
+    }
+
+    private void unwatch(Long showtimeId, SseEmitter emitter) {
+        // Последний зритель ушёл - сеанс больше не отслеживается
+        watchers.computeIfPresent(showtimeId, (id, showtimeWatchers) -> {
+            showtimeWatchers.removeIf(watcher -> watcher.emitter == emitter);
+            return showtimeWatchers.isEmpty() ? null : showtimeWatchers;
+        });
+    }
+
+    private void enqueue(Long showtimeId, Collection<String> seatNumbers, String state) {
+        if (!watchers.containsKey(showtimeId)) {
+            return;
+        }
+        // compute() атомарен относительно remove() в flush(), поэтому изменения не теряются
+        pending.compute(showtimeId, (id, changes) -> {
+            Map<String, String> batch = changes != null ? changes : new LinkedHashMap<>();
+            seatNumbers.forEach(seat -> batch.put(seat, state));
+            return batch;
+        });
+    }
+
+    private String encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode seat map event", e);
+        }
+    }
+
+    /**
+     * Connection of one watcher. Deltas flushed while its snapshot is still being read wait in the
+     * backlog, so the client never gets a change before the state it applies to.
+     */
+    private static final class Watcher {
+        private final SseEmitter emitter;
+        private List<Set<ResponseBodyEmitter.DataWithMediaType>> backlog = new ArrayList<>();
+
+        private Watcher(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void send(Set<ResponseBodyEmitter.DataWithMediaType> frame) throws IOException {
+            if (backlog != null) {
+                backlog.add(frame);
+                return;
+            }
+            emitter.send(frame);
+        }
+
+        synchronized void start(Set<ResponseBodyEmitter.DataWithMediaType> snapshot) throws IOException {
+            emitter.send(snapshot);
+            for (Set<ResponseBodyEmitter.DataWithMediaType> frame : backlog) {
+                emitter.send(frame);
+            }
+            backlog = null;
+        }
+    }
+}
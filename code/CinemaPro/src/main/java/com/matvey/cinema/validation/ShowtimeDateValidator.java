@@ -1,16 +1,13 @@
 package com.matvey.cinema.validation;
 
+import com.matvey.cinema.model.entities.Showtime;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 public class ShowtimeDateValidator implements ConstraintValidator<ValidShowtimeDate, String> {
 
-    private static final DateTimeFormatter FORMATTER =
-            DateTimeFormatter.ofPattern("dd.MM.yyyy H:mm");
-
     @Override
     public void initialize(ValidShowtimeDate constraintAnnotation) {
         // This method is not implemented because there are no initialization
@@ -27,7 +24,7 @@ public class ShowtimeDateValidator implements ConstraintValidator<ValidShowtimeD
             return true;
         }
         try {
-            LocalDateTime dateTime = LocalDateTime.parse(value, FORMATTER);
+            LocalDateTime dateTime = LocalDateTime.parse(value, Showtime.DATE_TIME_FORMATTER);
             return !dateTime.isBefore(LocalDateTime.now());
         } catch (DateTimeParseException e) {
             return false;
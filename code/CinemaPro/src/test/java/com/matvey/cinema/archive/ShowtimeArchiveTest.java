@@ -0,0 +1,132 @@
+package com.matvey.cinema.archive;
+
+import com.matvey.cinema.model.dto.ArchiveReport;
+import com.matvey.cinema.model.entities.ArchivedShowtime;
+import com.matvey.cinema.model.entities.ArchivedTicket;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.repository.ArchivedShowtimeRepository;
+import com.matvey.cinema.repository.ArchivedTicketRepository;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.repository.TicketRepository;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The archiver commits chunk by chunk, so the test runs without the surrounding transaction.
+ * A batch size of 2 makes three expired showtimes take two chunks.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = {"archive.batch-size=2", "archive.pause-ms=0"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ShowtimeArchiver.class, ServiceLayerTestConfig.class})
+class ShowtimeArchiveTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private ShowtimeArchiver archiver;
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ArchivedShowtimeRepository archivedShowtimeRepository;
+
+    @Autowired
+    private ArchivedTicketRepository archivedTicketRepository;
+
+    private Long userId;
+    private Long movieId;
+    private Long firstOldShowtimeId;
+    private Long liveShowtimeId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Theater theater = data.theater("Archive Hall");
+            Movie movie = data.movie("Archive Movie");
+            movieId = movie.getId();
+            Seat seat = data.seat(theater, 1, 1);
+            User user = data.user("archive_user");
+            userId = user.getId();
+
+            Showtime firstOld = data.showtime(movie, theater, "01.06.2020 18:00");
+            data.showtime(movie, theater, "02.06.2020 18:00");
+            data.showtime(movie, theater, "03.06.2020 18:00");
+            Showtime live = data.showtime(movie, theater, "01.06.2030 18:00");
+            firstOldShowtimeId = firstOld.getId();
+            liveShowtimeId = live.getId();
+
+            data.ticket(firstOld, user, seat, "1-1");
+            data.ticket(firstOld, user, seat, "1-2");
+            data.ticket(live, user, seat, "1-1");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("tickets", "tickets_archive", "showtimes", "showtimes_archive", "seats",
+                "theaters", "movies", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void movesExpiredShowtimesWithTicketsInChunks() {
+        ArchiveReport report = archiver.archive(CUTOFF);
+
+        assertEquals(3, report.showtimes());
+        assertEquals(2, report.tickets());
+        assertEquals(2, report.chunks());
+        assertEquals(List.of(liveShowtimeId), showtimeRepository.findAll().stream().map(Showtime::getId).toList());
+        assertEquals(1, ticketRepository.count());
+
+        List<ArchivedTicket> archivedTickets = archivedTicketRepository.findByUserIdOrderByIdAsc(userId);
+        assertEquals(2, archivedTickets.size());
+        assertEquals(firstOldShowtimeId, archivedTickets.get(0).getShowtimeId());
+        List<ArchivedShowtime> archivedShowtimes = archivedShowtimeRepository.findByMovieIdOrderByStartsAtAsc(movieId);
+        assertEquals(3, archivedShowtimes.size());
+        assertEquals(LocalDateTime.of(2020, 6, 1, 18, 0), archivedShowtimes.get(0).getStartsAt());
+    }
+
+    @Test
+    void secondRunFindsNothingToArchive() {
+        archiver.archive(CUTOFF);
+
+        ArchiveReport report = archiver.archive(CUTOFF);
+
+        assertEquals(0, report.showtimes());
+        assertEquals(3, archivedShowtimeRepository.count());
+    }
+}
@@ -0,0 +1,76 @@
+package com.matvey.cinema.aspect;
+
+import com.matvey.cinema.aspect.RepositoryTimingEndpoint.RepositoryMethodTiming;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.repository.ReviewRepository;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.TestData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@CinemaJpaTest
+@TestPropertySource(properties = "repository.slow-threshold-ms=0")
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({RepositoryTimingAspect.class, RepositoryTimingEndpoint.class, RepositoryTimingTest.Metrics.class})
+class RepositoryTimingTest {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private RepositoryTimingEndpoint endpoint;
+
+    @Test
+    void timesDeclaredAndInheritedRepositoryMethods() {
+        Movie movie = movieRepository.save(TestData.newMovie("Timed Movie", null));
+        movieRepository.findById(movie.getId());
+        movieRepository.findById(movie.getId());
+        reviewRepository.findReviewsByMovieTitle("Timed Movie");
+
+        List<RepositoryMethodTiming> timings = endpoint.topOffenders("count", null);
+
+        RepositoryMethodTiming findById = find(timings, "MovieRepository.findById");
+        assertEquals(2, findById.count());
+        assertEquals(2, findById.slowCount(), "threshold 0 makes every call slow");
+        assertEquals(1, find(timings, "ReviewRepository.findReviewsByMovieTitle").count());
+        assertEquals("MovieRepository.findById", timings.get(0).method(), "sorted by count");
+    }
+
+    @Test
+    void limitsTopOffenders() {
+        movieRepository.findAll();
+        movieRepository.count();
+        reviewRepository.findAll();
+
+        assertEquals(2, endpoint.topOffenders(null, 2).size());
+    }
+
+    private static RepositoryMethodTiming find(List<RepositoryMethodTiming> timings, String method) {
+        return timings.stream().filter(timing -> timing.method().equals(method)).findFirst()
+                .orElseThrow(() -> new AssertionError(method + " not timed: " + timings));
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
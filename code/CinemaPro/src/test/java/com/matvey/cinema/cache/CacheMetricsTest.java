@@ -0,0 +1,36 @@
+package com.matvey.cinema.cache;
+
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheMetricsTest {
+
+    @Test
+    void publishesOnlyInMemoryCacheWithoutHibernateStatistics() {
+        Statistics statistics = mock(Statistics.class);
+        when(statistics.isStatisticsEnabled()).thenReturn(false);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        InMemoryCache cache = new InMemoryCache(new ReplicaLagGuard(5000, ""));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new CacheMetrics(entityManagerFactory, cache).bindTo(registry);
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("missing");
+
+        assertEquals(0.5, registry.get("cache.hit.ratio").tag("cache", "inmemory").gauge().value());
+        assertNull(registry.find("cache.gets").tag("cache", "hibernate.l2").functionCounter());
+        assertNull(registry.find("cache.hit.ratio").tag("cache", "hibernate.query").gauge());
+        verify(statistics, never()).getSecondLevelCacheRegionNames();
+    }
+}
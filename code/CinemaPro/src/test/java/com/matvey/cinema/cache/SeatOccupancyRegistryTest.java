@@ -0,0 +1,128 @@
+package com.matvey.cinema.cache;
+
+import com.matvey.cinema.repository.TicketRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SeatOccupancyRegistryTest {
+    private static final Long SHOWTIME_ID = 1L;
+
+    private SeatOccupancyRegistry registry;
+    private SeatMapListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.findSeatNumbersByShowtimeId(SHOWTIME_ID)).thenReturn(List.of("1-1"));
+        listener = mock(SeatMapListener.class);
+        ObjectProvider<SeatMapListener> listeners = mock(ObjectProvider.class);
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+        registry = new SeatOccupancyRegistry(ticketRepository, listeners);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void claimFailsIfAnySeatIsTaken() {
+        assertFalse(registry.tryClaim(SHOWTIME_ID, List.of("1-2", "1-1")));
+        assertFalse(registry.isOccupied(SHOWTIME_ID, "1-2"));
+
+        assertTrue(registry.tryClaim(SHOWTIME_ID, List.of("1-2", "1-3")));
+        assertEquals(3, registry.countOccupied(SHOWTIME_ID));
+        verify(listener).onSeatsOccupied(SHOWTIME_ID, List.of("1-2", "1-3"));
+    }
+
+    @Test
+    void concurrentClaimsOfTheSameSeatHaveOneWinner() throws Exception {
+        int buyers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> claims = new ArrayList<>();
+        try {
+            for (int i = 0; i < buyers; i++) {
+                String ownSeat = "2-" + i;
+                Callable<Boolean> claim = () -> {
+                    start.await();
+                    return registry.tryClaim(SHOWTIME_ID, List.of(ownSeat, "5-5"));
+                };
+                claims.add(pool.submit(claim));
+            }
+            start.countDown();
+            int won = 0;
+            for (Future<Boolean> claim : claims) {
+                won += claim.get() ? 1 : 0;
+            }
+            assertEquals(1, won);
+            assertEquals(3, registry.countOccupied(SHOWTIME_ID));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void claimIsUndoneOnRollbackAndAnnouncedOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(registry.tryClaim(SHOWTIME_ID, List.of("3-1")));
+        assertTrue(registry.isOccupied(SHOWTIME_ID, "3-1"), "claim is visible to other buyers right away");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(registry.isOccupied(SHOWTIME_ID, "3-1"));
+        verify(listener, never()).onSeatsOccupied(any(), any());
+    }
+
+    @Test
+    void releaseWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        registry.release(SHOWTIME_ID, List.of("1-1"));
+        assertTrue(registry.isOccupied(SHOWTIME_ID, "1-1"));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(registry.isOccupied(SHOWTIME_ID, "1-1"));
+        verify(listener).onSeatsReleased(SHOWTIME_ID, List.of("1-1"));
+    }
+
+    @Test
+    void rolledBackCancellationKeepsTheSeat() {
+        assertTrue(registry.isOccupied(SHOWTIME_ID, "1-1"));
+        TransactionSynchronizationManager.initSynchronization();
+        registry.release(SHOWTIME_ID, List.of("1-1"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(registry.isOccupied(SHOWTIME_ID, "1-1"));
+        verify(listener, never()).onSeatsReleased(any(), any());
+    }
+
+    // То же, что делает менеджер транзакций по завершении
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,46 @@
+package com.matvey.cinema.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolSizerTest {
+
+    @Test
+    void poolSizeFollowsCpuCountBelowDatabaseLimit() {
+        assertEquals(9, ConnectionPoolSizer.poolSize(4, 151, 10, 1));
+    }
+
+    @Test
+    void poolSizeIsCappedByDatabaseShareOfEachInstance() {
+        assertEquals(14, ConnectionPoolSizer.poolSize(16, 151, 10, 10));
+        assertEquals(ConnectionPoolSizer.MIN_POOL_SIZE, ConnectionPoolSizer.poolSize(16, 20, 10, 50));
+    }
+
+    @Test
+    void sizesPoolAsFixedSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("datasource.pool.db-max-connections", "100")
+                .withProperty("datasource.pool.instances", "2");
+        HikariDataSource dataSource = new HikariDataSource();
+
+        new ConnectionPoolSizer(environment, 8).postProcessAfterInitialization(dataSource, "dataSource");
+
+        assertEquals(17, dataSource.getMaximumPoolSize());
+        assertEquals(17, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    void keepsExplicitMaximumPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("replica.datasource.hikari.maximum-pool-size", "30");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(30);
+
+        new ConnectionPoolSizer(environment, 8).postProcessAfterInitialization(dataSource, "replicaDataSource");
+
+        assertEquals(30, dataSource.getMaximumPoolSize());
+    }
+}
@@ -0,0 +1,143 @@
+package com.matvey.cinema.datasource;
+
+import com.matvey.cinema.cache.InMemoryCache;
+import java.util.Map;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Две базы H2 в роли primary и реплики: каждая помечена своей строкой в таблице node
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("primary");
+        DataSource replica = node("replica");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void statementsOutsideTransactionGoToPrimary() {
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void pinnedRequestReadsFromPrimary() {
+        ReadWriteRoutingDataSource.pinToPrimary();
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        ReadWriteRoutingDataSource.unpin();
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void lagGuardPinsUserForWindow() throws InterruptedException {
+        ReplicaLagGuard guard = new ReplicaLagGuard(50, "");
+        guard.pinUser(7L);
+
+        assertTrue(guard.isPinned(7L));
+        assertFalse(guard.isPinned(8L));
+        Thread.sleep(80);
+        assertFalse(guard.isPinned(7L));
+    }
+
+    @Test
+    void replicaReadsAreNotCached() {
+        InMemoryCache cache = new InMemoryCache(new ReplicaLagGuard(60_000, "jdbc:h2:mem:replica"));
+
+        readOnly.executeWithoutResult(status -> cache.put("replica", currentNode()));
+        readWrite.executeWithoutResult(status -> cache.put("primary", currentNode()));
+        ReadWriteRoutingDataSource.pinToPrimary();
+        readOnly.executeWithoutResult(status -> cache.put("pinned", currentNode()));
+
+        assertTrue(cache.get("replica").isEmpty());
+        assertEquals(Optional.of("primary"), cache.get("primary"));
+        assertEquals(Optional.of("primary"), cache.get("pinned"));
+    }
+
+    @Test
+    void readOnlyReadsAreCachedWithoutReplica() {
+        InMemoryCache cache = new InMemoryCache(new ReplicaLagGuard(60_000, ""));
+
+        readOnly.executeWithoutResult(status -> cache.put("key", "value"));
+
+        assertEquals(Optional.of("value"), cache.get("key"));
+    }
+
+    @Test
+    void interceptorPinsRequestsAboutPinnedShowtime() {
+        ReplicaLagGuard guard = new ReplicaLagGuard(60_000, "");
+        guard.pinShowtime(3L);
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(guard);
+
+        // GET /api/tickets/showtime/{showtimeId} без userId
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets/showtime/3");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("showtimeId", "3"));
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/tickets/showtime/4");
+        other.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("showtimeId", "4"));
+        interceptor.preHandle(other, new MockHttpServletResponse(), new Object());
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,51 @@
+package com.matvey.cinema.model.dto;
+
+import com.matvey.cinema.exception.ValidationException;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageTest {
+
+    @Test
+    void testLimit_ClampedToAllowedRange() {
+        assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.limit(null));
+        assertEquals(1, CursorPage.limit(0));
+        assertEquals(1, CursorPage.limit(-5));
+        assertEquals(20, CursorPage.limit(20));
+        assertEquals(CursorPage.MAX_LIMIT, CursorPage.limit(100_000));
+    }
+
+    @Test
+    void testAfterId_FirstPage() {
+        assertEquals(0L, CursorPage.afterId(null));
+        assertEquals(0L, CursorPage.afterId(" "));
+    }
+
+    @Test
+    void testOf_ExtraRowGivesCursorToLastReturnedId() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 7L, 9L), 2, Function.identity());
+
+        assertEquals(List.of(3L, 7L), page.getItems());
+        assertEquals(2, page.getSize());
+        assertNotNull(page.getNextCursor());
+        assertEquals(7L, CursorPage.afterId(page.getNextCursor()));
+    }
+
+    @Test
+    void testOf_LastPageHasNoCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 7L), 2, Function.identity());
+
+        assertEquals(List.of(3L, 7L), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testAfterId_InvalidCursor() {
+        assertThrows(ValidationException.class, () -> CursorPage.afterId("not base64!"));
+        assertThrows(ValidationException.class, () -> CursorPage.afterId("aWQ6YWJj")); // "id:abc"
+        assertThrows(ValidationException.class, () -> CursorPage.afterId("NDI")); // "42" без префикса
+    }
+}
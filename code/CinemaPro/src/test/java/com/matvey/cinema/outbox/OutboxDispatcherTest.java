@@ -0,0 +1,175 @@
+package com.matvey.cinema.outbox;
+
+import com.matvey.cinema.model.entities.OutboxEvent;
+import com.matvey.cinema.repository.OutboxEventRepository;
+import com.matvey.cinema.support.CinemaJpaTest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One event per batch, so a run keeps locking new batches while they come full; three attempts
+ * with a one-minute backoff doubling up to three minutes. The scheduled run is pushed out of the
+ * way, the test calls {@link OutboxDispatcher#dispatch()} itself.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = {
+    "outbox.dispatch.interval-ms=3600000",
+    "outbox.dispatch.batch-size=1",
+    "outbox.dispatch.max-attempts=3",
+    "outbox.dispatch.retry-base-ms=60000",
+    "outbox.dispatch.retry-max-ms=180000"
+})
+@Import({OutboxDispatcher.class, OutboxDispatcherTest.Handlers.class})
+class OutboxDispatcherTest {
+
+    private static final String OK = "ok";
+    private static final String BROKEN = "broken";
+    private static final String FLAKY = "flaky";
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ScriptedHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler.calls.clear();
+    }
+
+    @Test
+    void failedEventIsPostponedInsteadOfRetriedInTheSameRun() {
+        OutboxEvent broken = event(BROKEN);
+        OutboxEvent ok = event(OK);
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        assertEquals(1, handler.calls(broken));
+        assertEquals(OutboxEvent.Status.PENDING, broken.getStatus());
+        assertEquals(1, broken.getAttempts());
+        assertFalse(broken.getNextAttemptAt().isBefore(before.plusMinutes(1)));
+        assertEquals(OutboxEvent.Status.SENT, ok.getStatus());
+
+        dispatcher.dispatch();
+        assertEquals(1, handler.calls(broken), "backoff has not expired yet");
+    }
+
+    @Test
+    void eventIsRetriedWithGrowingBackoffAndThenDeadLettered() {
+        OutboxEvent broken = event(BROKEN);
+
+        dispatcher.dispatch();
+        assertEquals(Duration.ofMinutes(1), delayOf(broken));
+
+        dueNow(broken);
+        dispatcher.dispatch();
+        assertEquals(2, broken.getAttempts());
+        assertEquals(Duration.ofMinutes(2), delayOf(broken));
+
+        dueNow(broken);
+        dispatcher.dispatch();
+        assertEquals(3, broken.getAttempts());
+        assertEquals(OutboxEvent.Status.FAILED, broken.getStatus());
+        assertNotNull(broken.getProcessedAt());
+
+        dueNow(broken);
+        dispatcher.dispatch();
+        assertEquals(3, handler.calls(broken), "a FAILED event is not picked up again");
+    }
+
+    @Test
+    void flakyEventIsSentOnRetry() {
+        OutboxEvent flaky = event(FLAKY);
+
+        dispatcher.dispatch();
+        assertEquals(OutboxEvent.Status.PENDING, flaky.getStatus());
+
+        dueNow(flaky);
+        dispatcher.dispatch();
+        assertEquals(OutboxEvent.Status.SENT, flaky.getStatus());
+        assertEquals(1, flaky.getAttempts());
+        assertEquals(2, handler.calls(flaky));
+    }
+
+    @Test
+    void legacyEventWithoutRetryTimeIsDispatched() {
+        OutboxEvent legacy = new OutboxEvent("order", 1L, OK, "{}");
+        legacy.setNextAttemptAt(null);
+        outboxEventRepository.saveAndFlush(legacy);
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxEvent.Status.SENT, legacy.getStatus());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(Duration.ofMinutes(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofMinutes(2), dispatcher.backoff(2));
+        assertEquals(Duration.ofMinutes(3), dispatcher.backoff(3));
+        assertEquals(Duration.ofMinutes(3), dispatcher.backoff(100));
+    }
+
+    private OutboxEvent event(String type) {
+        return outboxEventRepository.saveAndFlush(new OutboxEvent("order", 1L, type, "{}"));
+    }
+
+    // Вместо ожидания: срок повтора сдвигается в прошлое на ту же величину
+    private void dueNow(OutboxEvent event) {
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.saveAndFlush(event);
+    }
+
+    private static Duration delayOf(OutboxEvent event) {
+        Duration delay = Duration.between(LocalDateTime.now(), event.getNextAttemptAt());
+        return Duration.ofMinutes(Math.round(delay.toSeconds() / 60.0));
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        ScriptedHandler scriptedHandler() {
+            return new ScriptedHandler();
+        }
+    }
+
+    /**
+     * {@code ok} always succeeds, {@code broken} always fails, {@code flaky} fails only the first
+     * time; every call is counted per event.
+     */
+    static class ScriptedHandler implements OutboxEventHandler {
+        private final Map<Long, Integer> calls = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean supports(String eventType) {
+            return true;
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            int call = calls.merge(event.getId(), 1, Integer::sum);
+            if (BROKEN.equals(event.getEventType()) || (FLAKY.equals(event.getEventType()) && call == 1)) {
+                throw new IllegalStateException("Handler failed on call " + call);
+            }
+        }
+
+        int calls(OutboxEvent event) {
+            return calls.getOrDefault(event.getId(), 0);
+        }
+    }
+}
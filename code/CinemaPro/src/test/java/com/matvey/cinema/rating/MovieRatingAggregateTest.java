@@ -0,0 +1,122 @@
+package com.matvey.cinema.rating;
+
+import com.matvey.cinema.model.dto.MovieRating;
+import com.matvey.cinema.model.dto.MovieView;
+import com.matvey.cinema.model.dto.ReviewRequest;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Review;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.service.MovieService;
+import com.matvey.cinema.service.ReviewService;
+import com.matvey.cinema.service.UserService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aggregates are changed through the services and compared with a full recount from the
+ * reviews table.
+ */
+@CinemaJpaTest
+@Import(ServiceLayerTestConfig.class)
+class MovieRatingAggregateTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MovieRatingAggregator aggregator;
+
+    private Movie movie;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        movie = data.movie("Rated Movie");
+        alice = data.user("alice");
+        bob = data.user("bob");
+    }
+
+    @Test
+    void followsCreatedUpdatedAndDeletedReviews() {
+        Review first = reviewService.save(review(alice, 8));
+        reviewService.save(review(bob, 6));
+        assertEquals(new MovieView(movie.getId(), "Rated Movie", "Director", 2020, "Drama", 2L, 7.0),
+                movieService.findAllViews().get(0));
+
+        entityManager.flush();
+        entityManager.clear();
+        ReviewRequest request = new ReviewRequest();
+        request.setRating(10);
+        Review updated = reviewService.updateReview(first.getId(), request);
+        reviewService.updateReview(updated.getId(), request);
+
+        MovieRating rating = movieService.findRating(movie.getId());
+        assertEquals(2, rating.reviewCount());
+        assertEquals(8.0, rating.averageRating());
+        assertEquals(0L, rating.histogram().get(8));
+        assertEquals(1L, rating.histogram().get(10));
+
+        reviewService.deleteById(updated.getId());
+        // Агрегаты меняются в обход контекста персистентности
+        entityManager.flush();
+        entityManager.clear();
+        MovieRating afterDelete = movieService.findRating(movie.getId());
+        assertEquals(1, afterDelete.reviewCount());
+        assertEquals(6.0, afterDelete.averageRating());
+        assertEquals(0L, afterDelete.histogram().get(10));
+    }
+
+    @Test
+    void deletedUserReviewsAreSubtractedAndMatchRebuild() {
+        reviewService.save(review(alice, 9));
+        reviewService.save(review(alice, 3));
+        reviewService.save(review(bob, 5));
+        entityManager.flush();
+        entityManager.clear();
+
+        userService.deleteById(alice.getId());
+        entityManager.flush();
+        MovieRating incremental = movieService.findRating(movie.getId());
+        assertEquals(1, incremental.reviewCount());
+        assertEquals(5.0, incremental.averageRating());
+
+        assertEquals(1, aggregator.rebuild());
+        entityManager.clear();
+        assertEquals(incremental, movieService.findRating(movie.getId()));
+    }
+
+    @Test
+    void movieWithoutReviewsHasNoAverage() {
+        MovieRating rating = movieService.findRating(movie.getId());
+
+        assertEquals(0, rating.reviewCount());
+        assertNull(rating.averageRating());
+        assertEquals(10, rating.histogram().size());
+        assertNull(movieService.findAllViews().get(0).averageRating());
+    }
+
+    private Review review(User author, int rating) {
+        return TestData.newReview(movie, author, rating, "Review by " + author.getUsername());
+    }
+}
@@ -0,0 +1,198 @@
+package com.matvey.cinema.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.service.MovieService;
+import com.matvey.cinema.service.ReviewService;
+import com.matvey.cinema.service.ShowtimeService;
+import com.matvey.cinema.service.TicketService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.SqlStatementCounter;
+import com.matvey.cinema.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares every entity read endpoint with its projection counterpart: selected columns,
+ * hydrated entities, JSON bytes and bytes allocated by the request thread. Columns, entities
+ * and payload are asserted; allocation depends on the JIT and is only reported.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    SqlStatementCounter.ENABLED
+})
+@Import(ServiceLayerTestConfig.class)
+class ProjectionComparisonTest {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionComparisonTest.class);
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private InMemoryCache cache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Movie movie;
+    private Theater theater;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        theater = data.theater("Projection Hall");
+        movie = data.movie("Projection Movie");
+        data.movie("Second Movie");
+
+        user = data.user("projection_user");
+        List<User> reviewers = List.of(user, data.user("second_user"), data.user("third_user"));
+
+        for (int i = 0; i < 3; i++) {
+            Showtime showtime = data.showtime(movie, theater, "0" + (i + 1) + ".06.2030 18:00");
+            for (int number = 1; number <= 4; number++) {
+                Seat seat = data.seat(theater, i + 1, number);
+                data.ticket(showtime, user, seat, (i + 1) + "-" + number);
+            }
+        }
+
+        for (User reviewer : reviewers) {
+            data.review(movie, reviewer, 8, "Отзыв пользователя " + reviewer.getUsername());
+        }
+
+        data.flushAndClear();
+    }
+
+    @Test
+    void movies() {
+        // Запрос, которым GET /api/movies отдавал фильмы до перехода на проекцию
+        compare("old GET /api/movies", () -> entityManager.getEntityManager()
+                        .createQuery("SELECT m FROM Movie m LEFT JOIN FETCH m.reviews", Movie.class)
+                        .getResultList(),
+                "GET /api/movies", movieService::findAllViews);
+    }
+
+    @Test
+    void showtimesByMovie() {
+        compare("GET /api/showtimes/movie/{id}", () -> showtimeService.findShowtimesByMovieId(movie.getId()),
+                "GET /api/showtimes/movie/{id}/views", () -> showtimeService.findViewsByMovieId(movie.getId()));
+    }
+
+    @Test
+    void ticketsByUser() {
+        compare("GET /api/tickets/user/{id}", () -> ticketService.findByUserId(user.getId()),
+                "GET /api/tickets/user/{id}/views", () -> ticketService.findViewsByUserId(user.getId()));
+    }
+
+    @Test
+    void reviewsByMovie() {
+        compare("GET /api/reviews/movie/{id}", () -> reviewService.findReviewsByMovieId(movie.getId()),
+                "GET /api/reviews/movie/{id}/views", () -> reviewService.findViewsByMovieId(movie.getId()));
+    }
+
+    private void compare(String entityEndpoint, Supplier<List<?>> entityCall,
+                         String viewEndpoint, Supplier<List<?>> viewCall) {
+        Measurement entity = measure(entityCall);
+        Measurement view = measure(viewCall);
+        logger.info("{} -> {}: statements {} -> {}, columns {} -> {}, entities {} -> {}, "
+                        + "json bytes {} -> {}, allocated bytes/request {} -> {}",
+                entityEndpoint, viewEndpoint, entity.statements(), view.statements(),
+                entity.columns(), view.columns(), entity.entities(), view.entities(),
+                entity.jsonBytes(), view.jsonBytes(), entity.allocatedBytes(), view.allocatedBytes());
+
+        assertEquals(entity.rows(), view.rows(), viewEndpoint + " must return the same rows");
+        assertEquals(1, view.statements(), viewEndpoint + " must be a single query");
+        assertEquals(0, view.entities(), viewEndpoint + " must not hydrate entities");
+        assertTrue(view.columns() < entity.columns(), viewEndpoint + " selects " + view.columns()
+                + " columns, " + entityEndpoint + " selects " + entity.columns());
+        assertTrue(view.jsonBytes() < entity.jsonBytes(), viewEndpoint + " payload is " + view.jsonBytes()
+                + " bytes, " + entityEndpoint + " payload is " + entity.jsonBytes());
+    }
+
+    private Measurement measure(Supplier<List<?>> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        entityManager.clear();
+        cache.clear();
+        SqlStatementCounter.reset();
+        List<?> result = call.get();
+        byte[] json = assertDoesNotThrow(() -> objectMapper.writeValueAsBytes(result));
+        List<String> statements = SqlStatementCounter.statements();
+        int columns = statements.stream().mapToInt(ProjectionComparisonTest::selectedColumns).sum();
+        long entities = statistics.getEntityLoadCount();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            request(call);
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            request(call);
+        }
+        long allocated = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_ROUNDS;
+        return new Measurement(result.size(), statements.size(), columns, entities, json.length, allocated);
+    }
+
+    // Один "запрос": чистый контекст персистентности и кэш, выборка и сериализация ответа
+    private void request(Supplier<List<?>> call) {
+        entityManager.clear();
+        cache.clear();
+        assertDoesNotThrow(() -> objectMapper.writeValueAsBytes(call.get()));
+    }
+
+    private static int selectedColumns(String sql) {
+        String lower = sql.toLowerCase();
+        int from = lower.indexOf(" from ");
+        if (!lower.startsWith("select") || from < 0) {
+            return 0;
+        }
+        return lower.substring("select".length(), from).split(",").length;
+    }
+
+    private record Measurement(int rows, int statements, int columns, long entities, int jsonBytes,
+                               long allocatedBytes) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.matvey.cinema.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.model.entities.Ticket;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.service.ShowtimeService;
+import com.matvey.cinema.service.TicketService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.SqlStatementCounter;
+import com.matvey.cinema.support.TestData;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements each read endpoint issues (service call plus JSON serialization)
+ * against an in-memory H2 database and fails when an endpoint goes over its budget.
+ * A finder that falls back to lazy loading per row shows up here as an N+1 regression.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = SqlStatementCounter.ENABLED)
+@Import(ServiceLayerTestConfig.class)
+class QueryBudgetTest {
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private InMemoryCache cache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Movie movie;
+    private Theater theater;
+    private Showtime showtime;
+    private Seat seat;
+    private User user;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        theater = data.theater("Budget Hall");
+        movie = data.movie("Budget Movie");
+        Movie otherMovie = data.movie("Other Movie");
+
+        showtime = data.showtime(movie, theater, "01.06.2030 18:00");
+        Showtime otherShowtime = data.showtime(otherMovie, theater, "01.06.2030 21:00");
+
+        for (int row = 1; row <= 2; row++) {
+            for (int number = 1; number <= 3; number++) {
+                Seat hallSeat = data.seat(theater, row, number);
+                if (seat == null) {
+                    seat = hallSeat;
+                }
+            }
+        }
+
+        user = data.user("budget_user");
+        User otherUser = data.user("other_user");
+
+        // Билеты разных пользователей на разные сеансы: ленивые связи дали бы N+1
+        ticket = data.ticket(showtime, user, seat, "1-1");
+        List<Seat> seats = theater.getSeats();
+        data.ticket(showtime, otherUser, seats.get(1), "1-2");
+        data.ticket(otherShowtime, user, seats.get(2), "1-3");
+        data.ticket(otherShowtime, otherUser, seats.get(3), "2-1");
+
+        data.flushAndClear();
+        cache.clear();
+    }
+
+    @Test
+    void ticketById() {
+        assertWithinBudget("GET /api/tickets/{id}", 1, () -> ticketService.findById(ticket.getId()).orElseThrow());
+    }
+
+    @Test
+    void ticketPage() {
+        assertWithinBudget("GET /api/tickets", 1, () -> ticketService.findPage(0L, 51));
+    }
+
+    @Test
+    void ticketsByShowtime() {
+        assertWithinBudget("GET /api/tickets/showtime/{id}", 1,
+                () -> ticketService.findByShowtimeId(showtime.getId()));
+    }
+
+    @Test
+    void ticketsBySeat() {
+        assertWithinBudget("GET /api/tickets/seat/{id}", 1,
+                () -> ticketService.findTicketsBySeatId(seat.getId()));
+    }
+
+    @Test
+    void ticketsByUserId() {
+        assertWithinBudget("GET /api/tickets/user/{id}", 1, () -> ticketService.findByUserId(user.getId()));
+    }
+
+    @Test
+    void ticketsByUsername() {
+        assertWithinBudget("GET /api/tickets/user?userUsername", 1,
+                () -> ticketService.findTicketsByUserUsername(user.getUsername()));
+    }
+
+    @Test
+    void showtimeById() {
+        assertWithinBudget("GET /api/showtimes/{id}", 1, () -> showtimeService.findById(showtime.getId()).orElseThrow());
+    }
+
+    @Test
+    void showtimePage() {
+        assertWithinBudget("GET /api/showtimes", 1, () -> showtimeService.findPage(0L, 51));
+    }
+
+    @Test
+    void showtimesByMovieId() {
+        assertWithinBudget("GET /api/showtimes/movie/{id}", 1,
+                () -> showtimeService.findShowtimesByMovieId(movie.getId()));
+    }
+
+    @Test
+    void showtimesByMovieTitle() {
+        assertWithinBudget("GET /api/showtimes/movie?movieTitle", 1,
+                () -> showtimeService.findShowtimesByMovieTitle(movie.getTitle()));
+    }
+
+    @Test
+    void showtimesByTheaterName() {
+        assertWithinBudget("GET /api/showtimes/theater?theaterName", 1,
+                () -> showtimeService.findShowtimesByTheaterName(theater.getName()));
+    }
+
+    private void assertWithinBudget(String endpoint, int budget, Supplier<Object> call) {
+        SqlStatementCounter.reset();
+        Object result = call.get();
+        // Сериализация входит в бюджет: ленивая загрузка при записи JSON - тоже N+1
+        assertDoesNotThrow(() -> objectMapper.writeValueAsString(result));
+        List<String> statements = SqlStatementCounter.statements();
+        assertTrue(statements.size() <= budget, endpoint + " issued " + statements.size()
+                + " statements, budget is " + budget + ": " + statements);
+    }
+}
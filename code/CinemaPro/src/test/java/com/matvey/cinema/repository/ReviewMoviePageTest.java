@@ -0,0 +1,100 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.CursorPage;
+import com.matvey.cinema.model.dto.ReviewOrder;
+import com.matvey.cinema.model.dto.ReviewView;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.service.ReviewService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks a movie's reviews page by page the way the controller does: fetch {@code limit + 1}
+ * rows and pass the returned cursor back.
+ */
+@CinemaJpaTest
+@Import(ServiceLayerTestConfig.class)
+class ReviewMoviePageTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    private Movie movie;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        movie = data.movie("Paged Movie");
+        Movie other = data.movie("Other Movie");
+        User user = data.user("pager");
+
+        for (int rating : new int[] {7, 9, 7, 3, 9}) {
+            ids.add(data.review(movie, user, rating, "Rated " + rating).getId());
+        }
+        data.review(other, user, 10, "Rated 10");
+        data.flushAndClear();
+    }
+
+    @Test
+    void recentOrderWalksNewestFirst() {
+        List<ReviewView> all = walk(ReviewOrder.RECENT);
+
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(2), ids.get(1), ids.get(0)),
+                all.stream().map(ReviewView::id).toList());
+        assertEquals("pager", all.get(0).username());
+    }
+
+    @Test
+    void ratingOrderBreaksTiesByRecency() {
+        List<ReviewView> all = walk(ReviewOrder.RATING);
+
+        assertEquals(List.of(ids.get(4), ids.get(1), ids.get(2), ids.get(0), ids.get(3)),
+                all.stream().map(ReviewView::id).toList());
+    }
+
+    @Test
+    void rejectsCursorOfOtherOrder() {
+        String recentCursor = page(ReviewOrder.RECENT, null).getNextCursor();
+
+        assertThrows(ValidationException.class,
+                () -> CursorPage.afterKey(recentCursor, ReviewOrder.RATING.getKeyParts()));
+        assertThrows(ValidationException.class, () -> ReviewOrder.fromParam("oldest"));
+    }
+
+    private List<ReviewView> walk(ReviewOrder order) {
+        List<ReviewView> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<ReviewView> page = page(order, cursor);
+            assertTrue(page.getSize() <= PAGE_SIZE);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(3, pages);
+        return all;
+    }
+
+    private CursorPage<ReviewView> page(ReviewOrder order, String cursor) {
+        List<ReviewView> rows = reviewService.findMoviePage(movie.getId(), order,
+                CursorPage.afterKey(cursor, order.getKeyParts()), PAGE_SIZE + 1);
+        return CursorPage.ofKey(rows, PAGE_SIZE, order::keyOf);
+    }
+}
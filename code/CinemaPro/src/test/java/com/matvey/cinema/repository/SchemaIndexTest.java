@@ -0,0 +1,61 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.config.SchemaIndexVerifier;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.TestData;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@CinemaJpaTest
+@Import(SchemaIndexVerifier.class)
+class SchemaIndexTest {
+
+    @Autowired
+    private SchemaIndexVerifier verifier;
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allDeclaredIndexesExistInGeneratedSchema() {
+        assertEquals(List.of(), verifier.findMissingIndexes());
+    }
+
+    @Test
+    void reportsMissingUniqueKey() {
+        jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT uk_users_username");
+        try {
+            List<String> missing = verifier.findMissingIndexes();
+            assertEquals(1, missing.size(), missing.toString());
+            assertTrue(missing.get(0).contains("uk_users_username"));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username)");
+        }
+    }
+
+    @Test
+    void uniqueShowtimeSeatRejectsDoubleBooking() {
+        Showtime showtime = data.showtime(data.movie("Index Movie"), data.theater("Index Hall"), "01.06.2030 18:00");
+        Seat seat = data.seat(showtime.getTheater(), 1, 1);
+        User user = data.user("index_user");
+
+        ticketRepository.saveAndFlush(TestData.newTicket(showtime, user, seat, "1-1"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ticketRepository.saveAndFlush(TestData.newTicket(showtime, user, seat, "1-1")));
+    }
+}
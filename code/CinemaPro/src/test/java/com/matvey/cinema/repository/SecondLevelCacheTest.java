@@ -0,0 +1,109 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.cache.CacheMetrics;
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.SqlStatementCounter;
+import com.matvey.cinema.support.TestData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reference entities and seat lookups are served from the second-level and query caches once
+ * loaded. Runs without the test transaction: the query cache ignores results of tables changed
+ * by a transaction that has not committed yet.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = {
+    "cache.metrics.hibernate-statistics=true",
+    SqlStatementCounter.ENABLED
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheMetrics.class, InMemoryCache.class, ReplicaLagGuard.class})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    private Theater theater;
+
+    @BeforeEach
+    void setUp() {
+        theater = TestData.newTheater("Cached Hall");
+        for (int number = 1; number <= 4; number++) {
+            theater.addSeat(new Seat(1, number, true));
+        }
+        theater = theaterRepository.save(theater);
+    }
+
+    @AfterEach
+    void tearDown() {
+        theaterRepository.deleteAll();
+    }
+
+    @Test
+    void theaterIsReadFromSecondLevelCache() {
+        theaterRepository.findById(theater.getId()).orElseThrow();
+
+        SqlStatementCounter.reset();
+        Theater cached = theaterRepository.findById(theater.getId()).orElseThrow();
+
+        assertEquals("Cached Hall", cached.getName());
+        assertEquals(List.of(), SqlStatementCounter.statements());
+    }
+
+    @Test
+    void seatLookupIsServedFromQueryCache() {
+        assertEquals(4, seatRepository.findSeatsByTheaterName("Cached Hall").size());
+
+        seatRepository.findSeatsByTheaterName("Cached Hall");
+
+        SqlStatementCounter.reset();
+        List<Seat> cached = seatRepository.findSeatsByTheaterName("Cached Hall");
+
+        assertEquals(4, cached.size());
+        assertEquals(List.of(), SqlStatementCounter.statements());
+    }
+
+    @Test
+    void seatChangeInvalidatesCachedLookup() {
+        assertEquals(4, seatRepository.findSeatsByTheaterName("Cached Hall").size());
+
+        seatRepository.deleteById(seatRepository.findSeatsByTheaterName("Cached Hall").get(0).getId());
+
+        assertEquals(3, seatRepository.findSeatsByTheaterName("Cached Hall").size());
+    }
+
+    @Test
+    void exposesHitRatio() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheMetrics.bindTo(registry);
+
+        theaterRepository.findById(theater.getId()).orElseThrow();
+        theaterRepository.findById(theater.getId()).orElseThrow();
+
+        double ratio = registry.get("cache.hit.ratio").tag("cache", "hibernate.l2").gauge().value();
+        assertTrue(ratio > 0, "L2 hit ratio: " + ratio);
+        assertTrue(registry.get("cache.gets").tag("cache", "hibernate.l2").tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.matvey.cinema.repository;
+
+import com.matvey.cinema.config.ShowtimeStartsAtBackfill;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.TestData;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@CinemaJpaTest
+@Import(ShowtimeStartsAtBackfill.class)
+class ShowtimeRangeQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ShowtimeStartsAtBackfill backfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Movie movie;
+    private Theater firstHall;
+    private Theater secondHall;
+
+    @BeforeEach
+    void setUp() {
+        movie = data.movie("Range Movie");
+        firstHall = data.theater("Hall 1");
+        secondHall = data.theater("Hall 2");
+    }
+
+    @Test
+    void setDateTimeFillsStartsAt() {
+        Showtime showtime = new Showtime();
+        showtime.setDateTime("01.06.2030 9:05");
+        assertEquals(LocalDateTime.of(2030, 6, 1, 9, 5), showtime.getStartsAt());
+
+        showtime.setDateTime("not a date");
+        assertNull(showtime.getStartsAt());
+    }
+
+    @Test
+    void findsShowtimesInHalfOpenRange() {
+        showtime(firstHall, "01.06.2030 10:00");
+        Showtime evening = showtime(secondHall, "01.06.2030 18:00");
+        Showtime afternoon = showtime(firstHall, "01.06.2030 14:00");
+        showtime(firstHall, "02.06.2030 0:00");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Showtime> found = showtimeRepository.findStartingBetween(
+                LocalDateTime.of(2030, 6, 1, 12, 0), LocalDateTime.of(2030, 6, 2, 0, 0));
+
+        assertEquals(List.of(afternoon.getId(), evening.getId()), found.stream().map(Showtime::getId).toList());
+    }
+
+    @Test
+    void findsShowtimesInRangeForOneTheater() {
+        Showtime morning = showtime(firstHall, "01.06.2030 10:00");
+        showtime(secondHall, "01.06.2030 11:00");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Showtime> found = showtimeRepository.findStartingBetweenInTheater(firstHall.getId(),
+                LocalDateTime.of(2030, 6, 1, 0, 0), LocalDateTime.of(2030, 6, 2, 0, 0));
+
+        assertEquals(List.of(morning.getId()), found.stream().map(Showtime::getId).toList());
+    }
+
+    @Test
+    void backfillParsesLegacyRows() {
+        Showtime legacy = showtime(firstHall, "03.06.2030 20:30");
+        Showtime broken = showtime(firstHall, "03.06.2030 20:30");
+        entityManager.flush();
+        // Строки, созданные до появления колонки starts_at
+        jdbcTemplate.update("UPDATE showtimes SET starts_at = NULL");
+        jdbcTemplate.update("UPDATE showtimes SET date_time = 'завтра' WHERE id = ?", broken.getId());
+        entityManager.clear();
+
+        backfill.backfill();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(LocalDateTime.of(2030, 6, 3, 20, 30),
+                entityManager.find(Showtime.class, legacy.getId()).getStartsAt());
+        assertNull(entityManager.find(Showtime.class, broken.getId()).getStartsAt());
+    }
+
+    private Showtime showtime(Theater theater, String dateTime) {
+        return data.showtime(movie, theater, dateTime);
+    }
+}
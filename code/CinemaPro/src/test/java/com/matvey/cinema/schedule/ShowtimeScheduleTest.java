@@ -0,0 +1,125 @@
+package com.matvey.cinema.schedule;
+
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ScheduleRequest;
+import com.matvey.cinema.model.dto.ScheduleResult;
+import com.matvey.cinema.model.dto.ScheduleRule;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.service.ShowtimeScheduleService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Movies last 100 minutes plus the default 15 minute cleanup, so a showtime occupies its theater
+ * for 1:55. 2030-06-03 is a Monday.
+ */
+@CinemaJpaTest
+@Import(ServiceLayerTestConfig.class)
+class ShowtimeScheduleTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 6, 3);
+
+    @Autowired
+    private TestData data;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private ShowtimeScheduleService scheduleService;
+
+    private Movie movie;
+    private Theater theater;
+    private Theater secondTheater;
+
+    @BeforeEach
+    void setUp() {
+        movie = data.movie("Scheduled Movie", 100);
+        theater = data.theater("Hall 1");
+        secondTheater = data.theater("Hall 2");
+        data.showtime(movie, theater, "03.06.2030 18:00");
+        data.flushAndClear();
+    }
+
+    @Test
+    void expandsRulesAndInsertsAllShowtimes() {
+        ScheduleRule rule = rule(theater, Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+                List.of(LocalTime.of(12, 0), LocalTime.of(20, 0)), MONDAY, MONDAY.plusDays(6));
+
+        ScheduleResult result = scheduleService.generate(new ScheduleRequest(List.of(rule)), false);
+
+        assertEquals(4, result.created());
+        List<Showtime> stored = showtimeRepository.findStartingBetweenInTheater(theater.getId(),
+                MONDAY.atStartOfDay(), MONDAY.plusDays(7).atStartOfDay());
+        assertEquals(List.of(
+                        MONDAY.atTime(12, 0), MONDAY.atTime(18, 0), MONDAY.atTime(20, 0),
+                        MONDAY.plusDays(2).atTime(12, 0), MONDAY.plusDays(2).atTime(20, 0)),
+                stored.stream().map(Showtime::getStartsAt).toList());
+        assertTrue(stored.stream().anyMatch(showtime -> "05.06.2030 20:00".equals(showtime.getDateTime())));
+    }
+
+    @Test
+    void rejectsScheduleOverlappingExistingShowtime() {
+        ScheduleRule rule = rule(theater, Set.of(DayOfWeek.MONDAY),
+                List.of(LocalTime.of(10, 0), LocalTime.of(16, 30)), MONDAY, MONDAY);
+
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> scheduleService.generate(new ScheduleRequest(List.of(rule)), false));
+
+        assertTrue(error.getErrors().get(0).contains("2030-06-03T16:30"), error.getErrors().toString());
+        assertEquals(1, countShowtimes(), "nothing is inserted when any showtime overlaps");
+    }
+
+    @Test
+    void rejectsRulesOverlappingEachOther() {
+        ScheduleRule first = rule(secondTheater, Set.of(DayOfWeek.TUESDAY), List.of(LocalTime.of(14, 0)),
+                MONDAY, MONDAY.plusDays(13));
+        ScheduleRule second = rule(secondTheater, Set.of(DayOfWeek.TUESDAY), List.of(LocalTime.of(15, 50)),
+                MONDAY, MONDAY.plusDays(13));
+
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> scheduleService.generate(new ScheduleRequest(List.of(first, second)), false));
+
+        assertEquals(2, error.getErrors().size());
+    }
+
+    @Test
+    void sameTimesInDifferentTheatersDoNotOverlap() {
+        ScheduleRule first = rule(theater, Set.of(DayOfWeek.TUESDAY), List.of(LocalTime.of(18, 0)),
+                MONDAY, MONDAY.plusDays(1));
+        ScheduleRule second = rule(secondTheater, Set.of(DayOfWeek.TUESDAY), List.of(LocalTime.of(18, 0)),
+                MONDAY, MONDAY.plusDays(1));
+
+        ScheduleResult result = scheduleService.generate(new ScheduleRequest(List.of(first, second)), true);
+
+        assertTrue(result.dryRun());
+        assertEquals(2, result.showtimes().size());
+        assertEquals(LocalDateTime.of(2030, 6, 4, 19, 55), result.showtimes().get(0).endsAt());
+        assertEquals(1, countShowtimes(), "dry run does not insert");
+    }
+
+    private long countShowtimes() {
+        return showtimeRepository.count();
+    }
+
+    private ScheduleRule rule(Theater target, Set<DayOfWeek> days, List<LocalTime> times,
+                              LocalDate from, LocalDate to) {
+        return new ScheduleRule(movie.getId(), target.getId(), days, times, from, to, "2D");
+    }
+}
@@ -0,0 +1,235 @@
+package com.matvey.cinema.schedule;
+
+import com.matvey.cinema.datasource.ReadWriteRoutingDataSource;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.ScheduleRequest;
+import com.matvey.cinema.model.dto.ScheduleRule;
+import com.matvey.cinema.model.dto.ShowtimeSlot;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.repository.TheaterRepository;
+import com.matvey.cinema.service.ShowtimeScheduleService;
+import com.matvey.cinema.service.ShowtimeService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The movie lasts 100 minutes plus the default 15 minute cleanup: a showtime at 18:00 screens
+ * until 19:40 and keeps the theater busy until 19:55. Every save commits, so the test runs
+ * without the surrounding transaction and can roll back a save of its own.
+ */
+@CinemaJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ServiceLayerTestConfig.class)
+class TheaterOccupancyIndexTest {
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private ShowtimeScheduleService scheduleService;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    @Autowired
+    private ShowtimeDurationPolicy durationPolicy;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Movie movie;
+    private Theater theater;
+    private Showtime evening;
+
+    @BeforeEach
+    void setUp() {
+        movie = movieRepository.save(TestData.newMovie("Indexed Movie", 100));
+        theater = theaterRepository.save(TestData.newTheater("Hall 1"));
+
+        evening = showtimeService.save(showtime(theater, "03.06.2030 18:00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        showtimeRepository.deleteAll();
+        theaterRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void rejectsOverlappingShowtimeInSameTheater() {
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> showtimeService.save(showtime(theater, "03.06.2030 19:30")));
+
+        assertTrue(error.getErrors().get(0).contains("ID " + evening.getId()), error.getErrors().toString());
+    }
+
+    @Test
+    void acceptsShowtimeRightAfterCleanupAndInOtherTheater() {
+        Theater other = theaterRepository.save(TestData.newTheater("Hall 2"));
+
+        assertNotNull(showtimeService.save(showtime(theater, "03.06.2030 19:55")).getId());
+        assertNotNull(showtimeService.save(showtime(other, "03.06.2030 18:30")).getId());
+    }
+
+    @Test
+    void movedShowtimeFreesItsOldSlot() {
+        evening.setDateTime("03.06.2030 21:00");
+        showtimeService.save(evening);
+
+        assertNotNull(showtimeService.save(showtime(theater, "03.06.2030 18:30")).getId());
+        assertThrows(ValidationException.class, () -> showtimeService.save(showtime(theater, "03.06.2030 22:00")));
+    }
+
+    @Test
+    void showtimeMovedToOtherTheaterFreesTheOldOne() {
+        Theater other = theaterRepository.save(TestData.newTheater("Hall 2"));
+        // Второй зал уже в индексе: перенос должен освободить первый и занять второй
+        showtimeService.save(showtime(other, "03.06.2030 23:00"));
+
+        evening.setTheater(other);
+        showtimeService.save(evening);
+
+        assertNotNull(showtimeService.save(showtime(theater, "03.06.2030 18:30")).getId());
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> showtimeService.save(showtime(other, "03.06.2030 18:30")));
+        assertTrue(error.getErrors().get(0).contains("ID " + evening.getId()), error.getErrors().toString());
+    }
+
+    @Test
+    void rolledBackReservationDoesNotKeepTheTheater() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            showtimeService.save(showtime(theater, "03.06.2030 21:00"));
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(showtimeService.save(showtime(theater, "03.06.2030 21:30")).getId());
+    }
+
+    @Test
+    void rolledBackMoveKeepsTheOldSlot() {
+        Theater other = theaterRepository.save(TestData.newTheater("Hall 2"));
+        showtimeService.save(showtime(other, "03.06.2030 23:00"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Showtime moved = showtimeRepository.findById(evening.getId()).orElseThrow();
+            moved.setTheater(other);
+            showtimeService.save(moved);
+            status.setRollbackOnly();
+        });
+
+        assertThrows(ValidationException.class, () -> showtimeService.save(showtime(theater, "03.06.2030 18:30")));
+        assertNotNull(showtimeService.save(showtime(other, "03.06.2030 18:30")).getId());
+    }
+
+    @Test
+    void scheduleHoldsTheTheaterUntilItsTransactionEnds() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            scheduleService.generate(schedule(LocalTime.of(21, 0)), false);
+
+            // Расписание ещё не закоммичено, но параллельная запись уже видит зал занятым
+            ExecutionException error = assertThrows(ExecutionException.class, () -> CompletableFuture
+                    .supplyAsync(() -> showtimeService.save(showtime(theater, "03.06.2030 21:30"))).get());
+            assertInstanceOf(ValidationException.class, error.getCause());
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(showtimeService.save(showtime(theater, "03.06.2030 21:30")).getId());
+    }
+
+    @Test
+    void committedScheduleIsIndexedWithItsIds() {
+        scheduleService.generate(schedule(LocalTime.of(21, 0)), false);
+        Long scheduledId = showtimeRepository.findAll().stream()
+                .filter(showtime -> showtime.getStartsAt().getHour() == 21)
+                .findFirst().orElseThrow().getId();
+
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> showtimeService.save(showtime(theater, "03.06.2030 21:30")));
+        assertTrue(error.getErrors().get(0).contains("ID " + scheduledId), error.getErrors().toString());
+    }
+
+    @Test
+    void dryRunScheduleHoldsNothing() {
+        scheduleService.generate(schedule(LocalTime.of(21, 0)), true);
+
+        assertNotNull(showtimeService.save(showtime(theater, "03.06.2030 21:30")).getId());
+    }
+
+    @Test
+    void findsShowtimePlayingAtMoment() {
+        Long theaterId = theater.getId();
+
+        assertEquals(Optional.of(evening.getId()),
+                showtimeService.findPlayingAt(theaterId, LocalDateTime.of(2030, 6, 3, 19, 0)).map(Showtime::getId));
+        assertTrue(showtimeService.findPlayingAt(theaterId, LocalDateTime.of(2030, 6, 3, 19, 45)).isEmpty(),
+                "cleanup break is not a screening");
+        assertTrue(showtimeService.findPlayingAt(theaterId, LocalDateTime.of(2030, 6, 3, 17, 59)).isEmpty());
+    }
+
+    @Test
+    void timelineReadInReadOnlyTransactionIsLoadedFromPrimary() {
+        ShowtimeRepository repository = mock(ShowtimeRepository.class);
+        List<ReadWriteRoutingDataSource.Route> routes = new ArrayList<>();
+        when(repository.findTimelineByTheaterId(1L)).thenAnswer(invocation -> {
+            routes.add(ReadWriteRoutingDataSource.currentRoute());
+            return List.of(new ShowtimeSlot(10L, LocalDateTime.of(2030, 6, 3, 18, 0), 100));
+        });
+        TheaterOccupancyIndex index = new TheaterOccupancyIndex(repository, durationPolicy, transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Optional<Long> playing = readOnly.execute(status -> {
+            assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return index.playingAt(1L, LocalDateTime.of(2030, 6, 3, 19, 0));
+        });
+
+        assertEquals(Optional.of(10L), playing);
+        assertEquals(List.of(ReadWriteRoutingDataSource.Route.PRIMARY), routes);
+    }
+
+    private ScheduleRequest schedule(LocalTime time) {
+        LocalDate monday = LocalDate.of(2030, 6, 3);
+        return new ScheduleRequest(List.of(new ScheduleRule(movie.getId(), theater.getId(),
+                Set.of(DayOfWeek.MONDAY), List.of(time), monday, monday, "2D")));
+    }
+
+    private Showtime showtime(Theater target, String dateTime) {
+        return TestData.newShowtime(movie, target, dateTime);
+    }
+}
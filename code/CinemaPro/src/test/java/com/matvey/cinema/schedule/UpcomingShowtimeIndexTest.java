@@ -0,0 +1,115 @@
+package com.matvey.cinema.schedule;
+
+import com.matvey.cinema.model.dto.UpcomingShowtime;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.repository.TheaterRepository;
+import com.matvey.cinema.service.ShowtimeService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Index updates are applied after commit, so the test runs without the surrounding transaction.
+ * Buckets are 15 minutes wide and the horizon is 6 hours.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = "showtime.upcoming.horizon-hours=6")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ServiceLayerTestConfig.class)
+class UpcomingShowtimeIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 3, 12, 7);
+
+    @Autowired
+    private UpcomingShowtimeIndex index;
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private ShowtimeRepository showtimeRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TheaterRepository theaterRepository;
+
+    private Movie movie;
+    private Theater theater;
+
+    @BeforeEach
+    void setUp() {
+        index.reload();
+        movie = movieRepository.save(TestData.newMovie("Upcoming Movie", 30));
+        theater = theaterRepository.save(TestData.newTheater("Hall 1"));
+
+        for (String dateTime : List.of("03.06.2030 11:50", "03.06.2030 12:05", "03.06.2030 12:20",
+                "03.06.2030 14:30", "03.06.2030 19:00")) {
+            showtimeRepository.save(showtime(dateTime));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        showtimeRepository.deleteAll();
+        theaterRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void returnsShowtimesInRangeWithinHorizon() {
+        assertEquals(List.of(NOW.withHour(12).withMinute(20), NOW.withHour(14).withMinute(30)),
+                starts(index.upcoming(NOW, NOW, NOW.plusHours(8))));
+        assertEquals("Hall 1", index.upcoming(NOW, NOW, NOW.plusHours(1)).get(0).theaterName());
+    }
+
+    @Test
+    void slidesForwardDroppingExpiredBuckets() {
+        index.upcoming(NOW, NOW, NOW.plusHours(1));
+        LocalDateTime later = NOW.withHour(17).withMinute(10);
+
+        assertEquals(List.of(NOW.withHour(19).withMinute(0)),
+                starts(index.upcoming(later, NOW, later.plusHours(3))));
+    }
+
+    @Test
+    void followsSavedAndDeletedShowtimes() {
+        index.upcoming(NOW, NOW, NOW.plusHours(1));
+
+        Showtime added = showtimeService.save(showtime("03.06.2030 13:15"));
+        Showtime moved = showtimeRepository.findStartingBetween(NOW.withHour(14), NOW.withHour(15)).get(0);
+        moved.setDateTime("03.06.2030 16:00");
+        showtimeService.save(moved);
+        showtimeService.deleteById(showtimeRepository.findStartingBetween(NOW.withHour(12).withMinute(15),
+                NOW.withHour(12).withMinute(30)).get(0).getId());
+
+        List<UpcomingShowtime> upcoming = index.upcoming(NOW, NOW, NOW.plusHours(6));
+        assertEquals(List.of(NOW.withHour(13).withMinute(15), NOW.withHour(16).withMinute(0)), starts(upcoming));
+        assertEquals(added.getId(), upcoming.get(0).id());
+    }
+
+    private static List<LocalDateTime> starts(List<UpcomingShowtime> showtimes) {
+        return showtimes.stream().map(UpcomingShowtime::startsAt).toList();
+    }
+
+    private Showtime showtime(String dateTime) {
+        return TestData.newShowtime(movie, theater, dateTime);
+    }
+}
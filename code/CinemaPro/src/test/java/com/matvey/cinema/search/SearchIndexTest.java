@@ -0,0 +1,102 @@
+package com.matvey.cinema.search;
+
+import com.matvey.cinema.model.dto.SearchHit;
+import com.matvey.cinema.model.dto.SearchTarget;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Review;
+import com.matvey.cinema.model.entities.User;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без транзакции изменения применяются сразу, репозитории нужны только для rebuild
+class SearchIndexTest {
+    private static final Set<SearchTarget> ALL = EnumSet.allOf(SearchTarget.class);
+
+    private SearchIndex index;
+    private Movie interstellar;
+    private Movie inception;
+    private Movie amelie;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex(null, null, null);
+        interstellar = movie(1L, "Интерстеллар", "Кристофер Нолан", "Фантастика");
+        inception = movie(2L, "Начало", "Кристофер Нолан", "Фантастика");
+        amelie = movie(3L, "Амели", "Жан-Пьер Жёне", "Комедия");
+        index.indexReview(review(10L, amelie, 7L, "Светлая комедия, Нолан бы так не снял"));
+        index.indexReview(review(11L, interstellar, 8L, "Лучшая фантастика десятилетия"));
+    }
+
+    @Test
+    void titleMatchOutranksReviewMention() {
+        List<SearchHit> hits = index.search("Нолан", ALL, 10);
+
+        assertEquals(List.of(1L, 2L, 10L), ids(hits));
+        assertEquals(SearchTarget.REVIEW, hits.get(2).type());
+        assertEquals(amelie.getId(), hits.get(2).movieId());
+    }
+
+    @Test
+    void matchesPrefixTyposAndYo() {
+        assertEquals(List.of(1L), ids(index.search("интерс", EnumSet.of(SearchTarget.MOVIE), 10)));
+        assertEquals(List.of(1L), ids(index.search("интерстелар", EnumSet.of(SearchTarget.MOVIE), 10)));
+        assertEquals(List.of(3L), ids(index.search("жене", EnumSet.of(SearchTarget.MOVIE), 10)));
+        assertTrue(index.search("триллер", ALL, 10).isEmpty());
+    }
+
+    @Test
+    void documentMatchingMoreTermsRanksFirst() {
+        assertEquals(1L, index.search("нолан интерстеллар", ALL, 10).get(0).id());
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        inception.setTitle("Inception");
+        index.indexMovie(inception);
+        assertEquals(List.of(2L), ids(index.search("inception", ALL, 10)));
+        assertTrue(index.search("начало", ALL, 10).isEmpty());
+
+        index.removeMovie(amelie.getId());
+        assertTrue(index.search("комедия", ALL, 10).isEmpty());
+
+        index.removeReviewsOfUser(8L);
+        assertEquals(List.of(1L, 2L), ids(index.search("фантастика", ALL, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void editDistanceStopsAtLimit() {
+        assertEquals(1, SearchIndex.editDistance("нолан", "нолон", 2));
+        assertEquals(3, SearchIndex.editDistance("нолан", "начало", 2));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+
+    private Movie movie(Long id, String title, String director, String genre) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setDirector(director);
+        movie.setGenre(genre);
+        index.indexMovie(movie);
+        return movie;
+    }
+
+    private static Review review(Long id, Movie movie, Long userId, String content) {
+        User user = new User();
+        user.setId(userId);
+        Review review = new Review();
+        review.setId(id);
+        review.setMovie(movie);
+        review.setUser(user);
+        review.setContent(content);
+        return review;
+    }
+}
@@ -0,0 +1,137 @@
+package com.matvey.cinema.search;
+
+import com.matvey.cinema.model.dto.MovieSuggestion;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Review;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.rating.MovieRatingAggregator;
+import com.matvey.cinema.repository.MovieRatingStatsRepository;
+import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.repository.ReviewRepository;
+import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.service.MovieService;
+import com.matvey.cinema.service.ReviewService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.ServiceLayerTestConfig;
+import com.matvey.cinema.support.TestData;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Suggestions follow reviews only once they commit, so the test runs without the surrounding
+ * transaction and removes what it created. Both movies match the prefix "сага".
+ */
+@CinemaJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ServiceLayerTestConfig.class)
+class TitleSuggesterPopularityTest {
+
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private MovieRatingAggregator ratingAggregator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieRatingStatsRepository movieRatingStatsRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Movie first;
+    private Movie second;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        first = movieService.save(TestData.newMovie("Сага о первом", 100));
+        second = movieService.save(TestData.newMovie("Сага о втором", 100));
+        alice = userRepository.save(TestData.newUser("alice"));
+        bob = userRepository.save(TestData.newUser("bob"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            reviewRepository.deleteAllInBatch();
+            movieRatingStatsRepository.deleteAllInBatch();
+            movieRepository.deleteAllInBatch();
+            userRepository.deleteAllInBatch();
+        });
+        titleSuggester.rebuild();
+    }
+
+    @Test
+    void committedReviewsMoveMovieUp() {
+        assertEquals(List.of(second.getId(), first.getId()), ids(titleSuggester.suggest("сага", 10)));
+
+        reviewService.save(review(first, alice, 8));
+        assertEquals(List.of(first.getId(), second.getId()), ids(titleSuggester.suggest("сага", 10)));
+
+        Review byAlice = reviewService.save(review(second, alice, 6));
+        Review byBob = reviewService.save(review(second, bob, 7));
+        assertEquals(List.of(second.getId(), first.getId()), ids(titleSuggester.suggest("сага", 10)));
+
+        reviewService.deleteById(byAlice.getId());
+        reviewService.deleteById(byBob.getId());
+        assertEquals(List.of(first.getId(), second.getId()), ids(titleSuggester.suggest("сага", 10)));
+    }
+
+    @Test
+    void rolledBackReviewDoesNotCount() {
+        transactionTemplate.executeWithoutResult(status -> {
+            reviewService.save(review(first, alice, 9));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(second.getId(), first.getId()), ids(titleSuggester.suggest("сага", 10)));
+    }
+
+    @Test
+    void fullRecountReRanksFromTheTable() {
+        reviewService.save(review(first, alice, 8));
+        // Отзыв в обход сервиса: агрегаты и подсказки о нём не знают до пересчёта
+        transactionTemplate.executeWithoutResult(status -> {
+            reviewRepository.save(TestData.newReview(second, alice, 5, "Direct"));
+            reviewRepository.save(TestData.newReview(second, bob, 5, "Direct"));
+        });
+        assertEquals(first.getId(), titleSuggester.suggest("сага", 1).get(0).id());
+
+        ratingAggregator.rebuild();
+
+        assertEquals(second.getId(), titleSuggester.suggest("сага", 1).get(0).id());
+    }
+
+    private static Review review(Movie movie, User author, int rating) {
+        return TestData.newReview(movie, author, rating, "Review by " + author.getUsername());
+    }
+
+    private static List<Long> ids(List<MovieSuggestion> suggestions) {
+        return suggestions.stream().map(MovieSuggestion::id).toList();
+    }
+}
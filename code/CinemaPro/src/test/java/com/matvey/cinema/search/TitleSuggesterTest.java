@@ -0,0 +1,114 @@
+package com.matvey.cinema.search;
+
+import com.matvey.cinema.model.dto.MovieSuggestion;
+import com.matvey.cinema.model.dto.MovieView;
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.repository.MovieRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TitleSuggesterTest {
+
+    private TitleSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(movieRepository.findAllViews()).thenReturn(List.of(
+                view(1L, "Интерстеллар", "Кристофер Нолан", 40),
+                view(2L, "Начало", "Кристофер Нолан", 25),
+                view(3L, "Интерны", "Максим Пежемский", 3),
+                view(4L, "Амели", "Жан-Пьер Жёне", 10)));
+        suggester = new TitleSuggester(movieRepository, transactionTemplate);
+        suggester.rebuild();
+    }
+
+    @Test
+    void matchesAnyWordPrefixMostReviewedFirst() {
+        assertEquals(List.of(1L, 3L), ids(suggester.suggest("Интер", 10)));
+        assertEquals(List.of(1L, 2L), ids(suggester.suggest("нол", 10)));
+        assertEquals(List.of(1L, 2L), ids(suggester.suggest("кристофер  н", 10)));
+        assertEquals(List.of(4L), ids(suggester.suggest("жене", 10)));
+        assertEquals(List.of(1L), ids(suggester.suggest("нол", 1)));
+        assertTrue(suggester.suggest("матрица", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void followsSavesAndDeletes() {
+        Movie renamed = movie(2L, "Inception", "Christopher Nolan");
+        suggester.indexMovie(renamed);
+        assertEquals(List.of(1L), ids(suggester.suggest("нол", 10)));
+        assertEquals(List.of(2L), ids(suggester.suggest("incep", 10)));
+
+        suggester.indexMovie(movie(5L, "Интервью", "Вуди Аллен"));
+        assertEquals(List.of(1L, 3L, 5L), ids(suggester.suggest("интер", 10)));
+
+        suggester.removeMovie(1L);
+        assertEquals(List.of(3L, 5L), ids(suggester.suggest("интер", 10)));
+        assertTrue(suggester.suggest("нолан", 10).isEmpty());
+        assertEquals(4, suggester.size());
+    }
+
+    @Test
+    void keepsOnlyTopSuggestionsPerPrefix() {
+        List<Long> expected = new ArrayList<>();
+        for (long id = 10; id < 30; id++) {
+            suggester.indexMovie(movie(id, "Сиквел " + id, "Режиссёр"));
+            if (expected.size() < TitleSuggester.MAX_SUGGESTIONS) {
+                expected.add(id);
+            }
+        }
+        assertEquals(expected, ids(suggester.suggest("сикв", 50)));
+
+        suggester.removeMovie(10L);
+        assertEquals(30 - 10 - 1 + 4, suggester.size());
+        assertEquals(11L, suggester.suggest("режиссер", 10).get(0).id());
+    }
+
+    @Test
+    void reviewCountChangesReRankSuggestions() {
+        suggester.onReviewCountChanged(3L, 50);
+        assertEquals(List.of(3L, 1L), ids(suggester.suggest("интер", 10)));
+        assertEquals(List.of(3L), ids(suggester.suggest("пежем", 10)));
+
+        suggester.onReviewCountChanged(3L, -100);
+        assertEquals(List.of(1L, 3L), ids(suggester.suggest("интер", 10)));
+
+        // Правка названия не сбрасывает накопленную популярность
+        suggester.onReviewCountChanged(4L, 45);
+        suggester.indexMovie(movie(4L, "Амели с Монмартра", "Жан-Пьер Жёне"));
+        suggester.indexMovie(movie(6L, "Амадей", "Милош Форман"));
+        assertEquals(List.of(4L, 6L), ids(suggester.suggest("ам", 10)));
+
+        suggester.onReviewCountChanged(99L, 5);
+        assertEquals(5, suggester.size());
+    }
+
+    private static List<Long> ids(List<MovieSuggestion> suggestions) {
+        return suggestions.stream().map(MovieSuggestion::id).toList();
+    }
+
+    private static MovieView view(Long id, String title, String director, long reviewCount) {
+        return new MovieView(id, title, director, 2010, "Драма", reviewCount, (Double) null);
+    }
+
+    private static Movie movie(Long id, String title, String director) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setDirector(director);
+        return movie;
+    }
+}
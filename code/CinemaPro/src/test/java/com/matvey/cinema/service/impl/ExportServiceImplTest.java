@@ -0,0 +1,144 @@
+package com.matvey.cinema.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.model.dto.ExportFormat;
+import com.matvey.cinema.model.dto.ReviewExportRow;
+import com.matvey.cinema.model.dto.TicketExportRow;
+import com.matvey.cinema.repository.ReviewRepository;
+import com.matvey.cinema.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportServiceImpl(ticketRepository, reviewRepository, objectMapper, transactionManager);
+    }
+
+    @Test
+    void testExportTickets_OneJsonObjectPerLine() throws IOException {
+        when(ticketRepository.streamAllForExport()).thenReturn(Stream.of(
+                new TicketExportRow(1L, 10L, 20L, 30L, "2-1", new BigDecimal("300.00")),
+                new TicketExportRow(2L, 10L, 21L, 31L, "2-2", new BigDecimal("360.00"))));
+
+        List<String> lines = export(out -> exportService.exportTickets(ExportFormat.NDJSON, out)).lines().toList();
+
+        assertEquals(2, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals(2L, second.get("id").asLong());
+        assertEquals(10L, second.get("showtimeId").asLong());
+        assertEquals(21L, second.get("userId").asLong());
+        assertEquals(31L, second.get("seatId").asLong());
+        assertEquals("2-2", second.get("seatNumber").asText());
+        assertEquals(0, new BigDecimal("360.00").compareTo(second.get("price").decimalValue()));
+    }
+
+    @Test
+    void testExportReviews_CsvWithQuotedFields() throws IOException {
+        when(reviewRepository.streamAllForExport()).thenReturn(Stream.of(
+                new ReviewExportRow(1L, 5L, 7L, 8, "Good"),
+                new ReviewExportRow(2L, 5L, 7L, 3, "Long, \"slow\"\nending"),
+                new ReviewExportRow(3L, 5L, 8L, 6, null)));
+
+        String csv = export(out -> exportService.exportReviews(ExportFormat.CSV, out));
+
+        assertEquals("id,movieId,userId,rating,content\n"
+                + "1,5,7,8,Good\n"
+                + "2,5,7,3,\"Long, \"\"slow\"\"\nending\"\n"
+                + "3,5,8,6,\n", csv);
+    }
+
+    @Test
+    void testExport_EmptyTable() throws IOException {
+        when(ticketRepository.streamAllForExport()).thenAnswer(invocation -> Stream.empty());
+
+        assertEquals("id,showtimeId,userId,seatId,seatNumber,price\n",
+                export(out -> exportService.exportTickets(ExportFormat.CSV, out)));
+        assertEquals("", export(out -> exportService.exportTickets(ExportFormat.NDJSON, out)));
+    }
+
+    @Test
+    void testExport_ReadOnlyTransactionAndStreamClosed() throws IOException {
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        when(reviewRepository.streamAllForExport()).thenReturn(Stream.of(new ReviewExportRow(1L, 5L, 7L, 8, "Good"))
+                .onClose(() -> streamClosed.set(true)));
+        CloseTrackingStream out = new CloseTrackingStream();
+
+        exportService.exportReviews(ExportFormat.NDJSON, out);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertTrue(streamClosed.get());
+        assertFalse(out.closed, "the response stream belongs to the caller");
+    }
+
+    @Test
+    void testExport_ClientDisconnectSurfacesAsIoException() {
+        when(reviewRepository.streamAllForExport()).thenReturn(Stream.of(new ReviewExportRow(1L, 5L, 7L, 8, "Good")));
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException error = assertThrows(IOException.class,
+                () -> exportService.exportReviews(ExportFormat.CSV, disconnected));
+        assertEquals("Broken pipe", error.getMessage());
+        verify(transactionManager).rollback(any());
+    }
+
+    private String export(Export export) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static class CloseTrackingStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -4,7 +4,10 @@ import com.matvey.cinema.cache.CacheKeys;
 import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.exception.CustomNotFoundException;
 import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.rating.MovieRatingAggregator;
 import com.matvey.cinema.repository.MovieRepository;
+import com.matvey.cinema.search.SearchIndex;
+import com.matvey.cinema.search.TitleSuggester;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +31,15 @@ class MovieServiceImplTest {
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private MovieRatingAggregator ratingAggregator;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Mock
+    private TitleSuggester titleSuggester;
+
     @InjectMocks
     private MovieServiceImpl movieService;
 
@@ -0,0 +1,157 @@
+package com.matvey.cinema.service.impl;
+
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.model.dto.OccupancyBand;
+import com.matvey.cinema.model.dto.ShowtimePriceTable;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.repository.SeatRepository;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Зал из 6 рядов по 2 места: ряды 1-2 передние (x0.80), 3-4 центральные (x1.20), 5-6 обычные.
+ * Кэш настоящий, чтобы проверить, когда таблица цен пересобирается.
+ */
+@ExtendWith(MockitoExtension.class)
+class PricingServiceImplTest {
+    private static final Long SHOWTIME_ID = 1L;
+    private static final Long THEATER_ID = 7L;
+
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    @Mock
+    private SeatOccupancyRegistry occupancyRegistry;
+
+    private InMemoryCache cache;
+    private PricingServiceImpl pricingService;
+
+    @BeforeEach
+    void setUp() {
+        cache = new InMemoryCache(new ReplicaLagGuard(5000, ""));
+        pricingService = new PricingServiceImpl(showtimeRepository, seatRepository, occupancyRegistry,
+                cache, new BigDecimal("300"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void testGetPriceTable_RowMultipliers() {
+        hallLoaded();
+        when(occupancyRegistry.countOccupied(SHOWTIME_ID)).thenReturn(0);
+
+        ShowtimePriceTable table = pricingService.getPriceTable(SHOWTIME_ID);
+
+        assertEquals(OccupancyBand.LOW, table.getOccupancyBand());
+        assertEquals(12, table.getPrices().size());
+        assertEquals(new BigDecimal("240.00"), table.getPrices().get("1-1"));
+        assertEquals(new BigDecimal("240.00"), table.getPrices().get("2-2"));
+        assertEquals(new BigDecimal("360.00"), table.getPrices().get("3-1"));
+        assertEquals(new BigDecimal("360.00"), table.getPrices().get("4-2"));
+        assertEquals(new BigDecimal("300.00"), table.getPrices().get("5-1"));
+        assertEquals(new BigDecimal("300.00"), table.getPrices().get("6-2"));
+    }
+
+    @Test
+    void testGetPriceTable_BandMultiplierApplied() {
+        hallLoaded();
+        when(occupancyRegistry.countOccupied(SHOWTIME_ID)).thenReturn(6);
+
+        ShowtimePriceTable table = pricingService.getPriceTable(SHOWTIME_ID);
+
+        assertEquals(OccupancyBand.MEDIUM, table.getOccupancyBand());
+        assertEquals(new BigDecimal("276.00"), table.getPrices().get("1-1"));
+        assertEquals(new BigDecimal("414.00"), table.getPrices().get("3-1"));
+        assertEquals(new BigDecimal("345.00"), table.getPrices().get("6-1"));
+    }
+
+    @Test
+    void testGetPriceTable_CachedWhileBandUnchanged() {
+        hallLoaded();
+        when(occupancyRegistry.countOccupied(SHOWTIME_ID)).thenReturn(0, 1);
+
+        ShowtimePriceTable first = pricingService.getPriceTable(SHOWTIME_ID);
+        ShowtimePriceTable second = pricingService.getPriceTable(SHOWTIME_ID);
+
+        assertSame(first, second);
+        verify(seatRepository, times(1)).findSeatsByTheaterId(THEATER_ID);
+    }
+
+    @Test
+    void testGetPriceTable_RebuiltWhenBandChanges() {
+        hallLoaded();
+        when(occupancyRegistry.countOccupied(SHOWTIME_ID)).thenReturn(0, 10, 10);
+
+        pricingService.getPriceTable(SHOWTIME_ID);
+        ShowtimePriceTable rebuilt = pricingService.getPriceTable(SHOWTIME_ID);
+
+        assertEquals(OccupancyBand.HIGH, rebuilt.getOccupancyBand());
+        assertEquals(new BigDecimal("390.00"), rebuilt.getPrices().get("5-1"));
+        verify(seatRepository, times(2)).findSeatsByTheaterId(THEATER_ID);
+    }
+
+    @Test
+    void testGetPriceTable_ShowtimeNotFound() {
+        when(showtimeRepository.findTheaterIdById(SHOWTIME_ID)).thenReturn(Optional.empty());
+
+        assertThrows(CustomNotFoundException.class, () -> pricingService.getPriceTable(SHOWTIME_ID));
+        verify(seatRepository, never()).findSeatsByTheaterId(anyLong());
+    }
+
+    @Test
+    void testQuote_SeatFromTable() {
+        hallLoaded();
+        when(occupancyRegistry.countOccupied(SHOWTIME_ID)).thenReturn(0);
+
+        assertEquals(new BigDecimal("360.00"), pricingService.quote(SHOWTIME_ID, "4-1"));
+    }
+
+    @Test
+    void testQuote_UnknownSeatUsesBasePriceWithBand() {
+        hallLoaded();
+        when(occupancyRegistry.countOccupied(SHOWTIME_ID)).thenReturn(6);
+
+        assertEquals(new BigDecimal("345.00"), pricingService.quote(SHOWTIME_ID, "9-9"));
+    }
+
+    @Test
+    void testOccupancyBand_Boundaries() {
+        assertEquals(OccupancyBand.LOW, OccupancyBand.of(0, 0));
+        assertEquals(OccupancyBand.LOW, OccupancyBand.of(49, 100));
+        assertEquals(OccupancyBand.MEDIUM, OccupancyBand.of(50, 100));
+        assertEquals(OccupancyBand.MEDIUM, OccupancyBand.of(79, 100));
+        assertEquals(OccupancyBand.HIGH, OccupancyBand.of(80, 100));
+    }
+
+    private void hallLoaded() {
+        List<Seat> seats = new ArrayList<>();
+        for (int row = 6; row >= 1; row--) {
+            seats.add(new Seat(row, 2, true));
+            seats.add(new Seat(row, 1, true));
+        }
+        when(showtimeRepository.findTheaterIdById(SHOWTIME_ID)).thenReturn(Optional.of(THEATER_ID));
+        when(seatRepository.findSeatsByTheaterId(THEATER_ID)).thenReturn(seats);
+    }
+}
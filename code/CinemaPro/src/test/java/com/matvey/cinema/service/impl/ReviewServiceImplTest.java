@@ -4,7 +4,9 @@ import com.matvey.cinema.cache.CacheKeys;
 import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.exception.CustomNotFoundException;
 import com.matvey.cinema.model.entities.Review;
+import com.matvey.cinema.rating.MovieRatingAggregator;
 import com.matvey.cinema.repository.ReviewRepository;
+import com.matvey.cinema.search.SearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -27,6 +29,12 @@ class ReviewServiceImplTest {
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private MovieRatingAggregator ratingAggregator;
+
+    @Mock
+    private SearchIndex searchIndex;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
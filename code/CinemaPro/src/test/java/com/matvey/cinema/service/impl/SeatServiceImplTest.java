@@ -13,7 +13,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -135,4 +137,29 @@ class SeatServiceImplTest {
         assertThrows(CustomNotFoundException.class, () -> seatService.deleteById(seatId));
         verify(seatRepository, never()).deleteById(seat.getId());
     }
+
+    @Test
+    void testFindAllByIds_MissesLoadedInOneQuery() {
+        Seat second = new Seat(1, 2, true);
+        second.setId(2L);
+        Seat third = new Seat(1, 3, true);
+        third.setId(3L);
+        when(cache.getAll(eq(List.of(1L, 2L, 3L)), any(), eq(Seat.class)))
+                .thenReturn(new LinkedHashMap<>(Map.of(1L, seat)));
+        when(seatRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(third, second));
+
+        List<Seat> seats = seatService.findAllByIds(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(List.of(seat, second, third), seats);
+        verify(seatRepository, times(1)).findAllById(List.of(2L, 3L));
+        verify(seatRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testFindAllByIds_MissingSeatThrows() {
+        when(cache.getAll(anyCollection(), any(), eq(Seat.class))).thenReturn(new LinkedHashMap<>());
+        when(seatRepository.findAllById(List.of(1L, 99L))).thenReturn(List.of(seat));
+
+        assertThrows(CustomNotFoundException.class, () -> seatService.findAllByIds(List.of(1L, 99L)));
+    }
 }
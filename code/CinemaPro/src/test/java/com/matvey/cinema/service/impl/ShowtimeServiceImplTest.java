@@ -5,6 +5,8 @@ import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.exception.CustomNotFoundException;
 import com.matvey.cinema.model.entities.Showtime;
 import com.matvey.cinema.repository.ShowtimeRepository;
+import com.matvey.cinema.schedule.TheaterOccupancyIndex;
+import com.matvey.cinema.schedule.UpcomingShowtimeIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +30,12 @@ class ShowtimeServiceImplTest {
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private TheaterOccupancyIndex occupancyIndex;
+
+    @Mock
+    private UpcomingShowtimeIndex upcomingIndex;
+
     @InjectMocks
     private ShowtimeServiceImpl showtimeService;
 
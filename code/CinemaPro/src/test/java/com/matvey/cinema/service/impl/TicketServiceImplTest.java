@@ -2,19 +2,42 @@ package com.matvey.cinema.service.impl;
 
 import com.matvey.cinema.cache.CacheKeys;
 import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.datasource.ReplicaLagGuard;
 import com.matvey.cinema.exception.CustomNotFoundException;
+import com.matvey.cinema.model.dto.BulkOrderResult;
+import com.matvey.cinema.model.dto.PurchaseRequestDto;
+import com.matvey.cinema.model.dto.TicketRefund;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
 import com.matvey.cinema.model.entities.Ticket;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.outbox.OutboxEventTypes;
+import com.matvey.cinema.repository.SeatRepository;
+import com.matvey.cinema.repository.ShowtimeRepository;
 import com.matvey.cinema.repository.TicketRepository;
+import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.service.OutboxService;
+import com.matvey.cinema.service.PricingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,9 +48,33 @@ class TicketServiceImplTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SeatRepository seatRepository;
+
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private PricingService pricingService;
+
+    @Mock
+    private SeatOccupancyRegistry occupancyRegistry;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TicketServiceImpl ticketService;
 
@@ -216,5 +263,201 @@ class TicketServiceImplTest {
         verify(ticketRepository, times(1)).findTicketsBySeatId(seatId);
         verify(cache, times(1)).put(cacheKey, Collections.singletonList(ticket));
     }
-}
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCancelTicket_ReleasesSeatAndPublishesRefund() {
+        Showtime showtime = new Showtime();
+        showtime.setId(10L);
+        User user = new User();
+        user.setId(20L);
+        Seat seat = new Seat();
+        seat.setId(30L);
+        ticket.setShowtime(showtime);
+        ticket.setUser(user);
+        ticket.setSeat(seat);
+        ticket.setSeatNumber("3-4");
+        ticket.setPrice(new BigDecimal("360.00"));
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+
+        TicketRefund refund = ticketService.cancelTicket(1L);
+
+        assertEquals(new TicketRefund(1L, 20L, 30L, "3-4", new BigDecimal("360.00")), refund);
+        verify(ticketRepository).delete(ticket);
+        verify(occupancyRegistry).release(10L, List.of("3-4"));
+        verify(cache).evict(CacheKeys.TICKET_PREFIX + 1L);
+        verify(cache).evict(CacheKeys.TICKETS_SHOWTIME_PREFIX + 10L);
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(outboxService).publish(eq(OutboxEventTypes.AGGREGATE_TICKET_ORDER), eq(1L),
+                eq(OutboxEventTypes.TICKETS_REFUNDED), payload.capture());
+        Map<String, Object> published = (Map<String, Object>) payload.getValue();
+        assertEquals(10L, published.get("showtimeId"));
+        assertEquals(List.of(refund), published.get("refunds"));
+        assertEquals(new BigDecimal("360.00"), published.get("total"));
+    }
+
+    @Test
+    void testCancelTicket_NotFound() {
+        when(ticketRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(CustomNotFoundException.class, () -> ticketService.cancelTicket(1L));
+        verify(ticketRepository, never()).delete(any());
+        verifyNoInteractions(occupancyRegistry, outboxService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCancelShowtimeTickets_RefundsAllInOneBatch() {
+        List<TicketRefund> refunds = List.of(
+                new TicketRefund(1L, 20L, 30L, "1-1", new BigDecimal("240.00")),
+                new TicketRefund(2L, 21L, 31L, "3-2", new BigDecimal("360.00")));
+        when(showtimeRepository.existsById(10L)).thenReturn(true);
+        when(ticketRepository.findRefundsByShowtimeId(10L)).thenReturn(refunds);
+        when(ticketRepository.deleteAllByShowtimeIdInBulk(10L)).thenReturn(2);
+
+        List<TicketRefund> result = ticketService.cancelShowtimeTickets(10L);
+
+        assertEquals(refunds, result);
+        verify(ticketRepository, times(1)).deleteAllByShowtimeIdInBulk(10L);
+        verify(ticketRepository, never()).delete(any());
+        verify(occupancyRegistry).release(10L, List.of("1-1", "3-2"));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(outboxService, times(1)).publish(eq(OutboxEventTypes.AGGREGATE_SHOWTIME), eq(10L),
+                eq(OutboxEventTypes.TICKETS_REFUNDED), payload.capture());
+        assertEquals(new BigDecimal("600.00"), ((Map<String, Object>) payload.getValue()).get("total"));
+    }
+
+    @Test
+    void testCancelShowtimeTickets_NoTickets() {
+        when(showtimeRepository.existsById(10L)).thenReturn(true);
+        when(ticketRepository.findRefundsByShowtimeId(10L)).thenReturn(List.of());
+
+        assertTrue(ticketService.cancelShowtimeTickets(10L).isEmpty());
+        verify(ticketRepository, never()).deleteAllByShowtimeIdInBulk(anyLong());
+        verifyNoInteractions(occupancyRegistry, outboxService);
+    }
+
+    @Test
+    void testCancelShowtimeTickets_ShowtimeNotFound() {
+        when(showtimeRepository.existsById(10L)).thenReturn(false);
+
+        assertThrows(CustomNotFoundException.class, () -> ticketService.cancelShowtimeTickets(10L));
+        verify(ticketRepository, never()).findRefundsByShowtimeId(anyLong());
+    }
+
+    @Test
+    void testPurchaseTickets_SeatsClaimedBeforeSaving() {
+        Showtime showtime = new Showtime();
+        showtime.setId(10L);
+        User user = new User();
+        user.setId(20L);
+        when(showtimeRepository.findById(10L)).thenReturn(Optional.of(showtime));
+        when(userRepository.findById(20L)).thenReturn(Optional.of(user));
+        when(occupancyRegistry.tryClaim(10L, List.of("1-1"))).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> ticketService.purchaseTickets(order(10L, 20L, "1-1")));
+        verify(ticketRepository, never()).save(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void testPurchaseTicketsInBulk_OneTransactionWithoutConflicts() {
+        bulkHallLoaded();
+
+        List<BulkOrderResult> results = ticketService.purchaseTicketsInBulk(
+                List.of(order(10L, 20L, "1-1"), order(10L, 20L, "1-2", "1-3")));
+
+        assertTrue(results.get(0).accepted());
+        assertTrue(results.get(1).accepted());
+        assertEquals(new BigDecimal("600"), results.get(1).total());
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(ticketRepository, times(1)).saveAll(any());
+        verify(outboxService, times(2)).publish(any(), any(), any(), any());
+    }
+
+    @Test
+    void testPurchaseTicketsInBulk_ConfirmationCarriesUserIdWithoutEmail() {
+        bulkHallLoaded();
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+
+        ticketService.purchaseTicketsInBulk(List.of(order(10L, 20L, "1-1")));
+
+        verify(outboxService).publish(eq(OutboxEventTypes.AGGREGATE_TICKET_ORDER), eq(1L),
+                eq(OutboxEventTypes.TICKETS_PURCHASED), payload.capture());
+        Map<?, ?> confirmation = (Map<?, ?>) payload.getValue();
+        assertEquals(20L, confirmation.get("userId"));
+        assertFalse(confirmation.containsKey("email"), "адрес не должен попадать в outbox и его лог");
+    }
+
+    @Test
+    void testPurchaseTicketsInBulk_InsertConflictRejectsOnlyItsOrder() {
+        bulkHallLoaded();
+        // Место 1-2 продано в обход реестра: падает вся пачка, затем только второй заказ
+        doThrow(new DataIntegrityViolationException("Duplicate entry '10-1-2'"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("Duplicate entry '10-1-2'"))
+                .doNothing()
+                .when(ticketRepository).flush();
+
+        List<BulkOrderResult> results = ticketService.purchaseTicketsInBulk(
+                List.of(order(10L, 20L, "1-1"), order(10L, 20L, "1-2"), order(10L, 20L, "1-3")));
+
+        assertTrue(results.get(0).accepted());
+        assertFalse(results.get(1).accepted());
+        assertTrue(results.get(1).error().contains("1-2"), results.get(1).error());
+        assertTrue(results.get(2).accepted());
+        verify(transactionTemplate, times(4)).execute(any());
+        verify(outboxService, times(2)).publish(any(), any(), any(), any());
+    }
+
+    // Зал из одного ряда на три места; транзакция выполняется сразу в вызывающем потоке
+    private void bulkHallLoaded() {
+        Theater theater = new Theater();
+        theater.setId(7L);
+        Showtime showtime = new Showtime();
+        showtime.setId(10L);
+        showtime.setTheater(theater);
+        User user = new User();
+        user.setId(20L);
+        List<Seat> hall = new ArrayList<>();
+        for (int number = 1; number <= 3; number++) {
+            Seat seat = new Seat(1, number, true);
+            seat.setId((long) number);
+            hall.add(seat);
+        }
+        AtomicLong ticketIds = new AtomicLong();
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(showtimeRepository.findAllById(any())).thenReturn(List.of(showtime));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(seatRepository.findSeatsByTheaterId(7L)).thenReturn(hall);
+        when(occupancyRegistry.tryClaim(eq(10L), any())).thenReturn(true);
+        when(pricingService.quote(eq(10L), anyString())).thenReturn(new BigDecimal("300"));
+        when(ticketRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<Ticket> tickets = invocation.getArgument(0);
+            tickets.forEach(saved -> saved.setId(ticketIds.incrementAndGet()));
+            return tickets;
+        });
+    }
+
+    private static PurchaseRequestDto order(Long showtimeId, Long userId, String... seatNumbers) {
+        PurchaseRequestDto order = new PurchaseRequestDto();
+        order.setShowtimeId(showtimeId);
+        order.setUserId(userId);
+        order.setSeatNumbers(List.of(seatNumbers));
+        return order;
+    }
+
+    @Test
+    void testFindByShowtimeId_TicketsCached() {
+        List<Ticket> tickets = List.of(ticket);
+        when(cache.get(CacheKeys.TICKETS_SHOWTIME_PREFIX + 5L)).thenReturn(Optional.empty());
+        when(ticketRepository.findByShowtime_Id(5L)).thenReturn(tickets);
+
+        assertEquals(tickets, ticketService.findByShowtimeId(5L));
+        verify(cache).put(CacheKeys.TICKETS_SHOWTIME_PREFIX + 5L, tickets);
+    }
+}
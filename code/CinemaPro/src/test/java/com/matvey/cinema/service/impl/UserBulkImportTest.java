@@ -0,0 +1,189 @@
+package com.matvey.cinema.service.impl;
+
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.config.JacksonConfig;
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import com.matvey.cinema.exception.ValidationException;
+import com.matvey.cinema.model.dto.UserImportReport;
+import com.matvey.cinema.model.dto.UserImportReport.RowError;
+import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.service.UserImportService;
+import com.matvey.cinema.support.CinemaJpaTest;
+import com.matvey.cinema.support.TestData;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk import commits chunk by chunk, so it runs without the test transaction.
+ * A batch size of 2 makes every test span several chunks.
+ */
+@CinemaJpaTest
+@TestPropertySource(properties = "user.import.batch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({UserImportServiceImpl.class, InMemoryCache.class, ReplicaLagGuard.class, JacksonConfig.class})
+class UserBulkImportTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importsNdjsonAndReportsBadRows() throws Exception {
+        UserImportReport report = userImportService.importJson(body("""
+                {"username":"alice","email":"alice@example.com","password":"p1"}
+                {"username":"bob","email":"not-an-email","password":"p2"}
+                {"username":"carol","email":"carol@example.com","password":"p3","legacyId":17}
+                {"username":"alice","email":"alice2@example.com","password":"p4"}
+                {"username":"dave","email":"dave@example.com","password":"p5"}
+                """));
+
+        assertEquals(5, report.processed());
+        assertEquals(3, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(List.of(2L, 4L), report.errors().stream().map(RowError::row).toList());
+        assertEquals("bob", report.errors().get(0).username());
+        assertEquals(List.of("alice", "carol", "dave"), usernames());
+        assertNull(report.aborted());
+    }
+
+    @Test
+    void importsJsonArrayAndSkipsExistingAndMistypedRows() throws Exception {
+        userRepository.save(TestData.newUser("erin"));
+
+        UserImportReport report = userImportService.importJson(body("""
+                [{"username":"erin","email":"erin@new.example.com","password":"p1"},
+                 {"username":"frank","email":"frank@example.com","password":"p2"},
+                 {"username":"grace","email":"grace@example.com","password":123}]
+                """));
+
+        assertEquals(1, report.imported());
+        assertEquals(2, report.failed());
+        assertEquals(List.of(1L, 3L), report.errors().stream().map(RowError::row).toList());
+        assertEquals(List.of("erin", "frank"), usernames());
+    }
+
+    @Test
+    void continuesAfterWrongFieldType() throws Exception {
+        UserImportReport report = userImportService.importJson(body("""
+                {"username":["heidi"],"email":"heidi@example.com","password":"p1"}
+                {"username":"ivan","email":"ivan@example.com","password":"p2"}
+                """));
+
+        assertEquals(1, report.imported());
+        assertEquals(1L, report.errors().get(0).row());
+        assertEquals(List.of("ivan"), usernames());
+    }
+
+    @Test
+    void brokenRecordStopsReadingAndIsReportedAsAbort() throws Exception {
+        UserImportReport report = userImportService.importJson(body("""
+                {"username":"kate","email":"kate@example.com","password":"p1"}
+                {"username":"liam","email":"liam@example.com","password":"p2"}
+                {"username":"mona","email":"mona@example.com","password":"p3"}
+                {"username":"nick","email":"nick@example.com" "password":"p4"}
+                {"username":"olga","email":"olga@example.com","password":"p5"}
+                """));
+
+        assertEquals(3, report.imported());
+        assertEquals(List.of(4L), report.errors().stream().map(RowError::row).toList());
+        assertNotNull(report.aborted());
+        assertEquals(3L, report.aborted().lastGoodRow());
+        assertTrue(report.aborted().reason().contains("4"), report.aborted().reason());
+        assertEquals(List.of("kate", "liam", "mona"), usernames());
+    }
+
+    @Test
+    void garbageBetweenRecordsIsReportedAsAbort() throws Exception {
+        UserImportReport report = userImportService.importJson(body("""
+                {"username":"pete","email":"pete@example.com","password":"p1"}
+                {"username":"rita","email":"rita@example.com","password":"p2"}
+                oops
+                {"username":"sam","email":"sam@example.com","password":"p3"}
+                """));
+
+        assertEquals(2, report.processed());
+        assertEquals(0, report.failed());
+        assertEquals(2L, report.aborted().lastGoodRow());
+        assertEquals(List.of("pete", "rita"), usernames());
+    }
+
+    @Test
+    void importsCsvWithQuotedFieldsAndAnyColumnOrder() throws Exception {
+        UserImportReport report = userImportService.importCsv(body("""
+                email,password,username
+                judy@example.com,"pa,ss""word",judy
+
+                karl@example.com,p2,karl
+                broken-row
+                "li
+                am@example.com",p3,liam
+                """));
+
+        assertEquals(4, report.processed());
+        assertEquals(2, report.imported());
+        assertEquals(List.of(3L, 4L), report.errors().stream().map(RowError::row).toList());
+        assertEquals("pa,ss\"word", userRepository.findByUsername("judy").orElseThrow().getPassword());
+    }
+
+    @Test
+    void csvReadErrorKeepsImportedChunksAndIsReportedAsAbort() throws Exception {
+        InputStream broken = new SequenceInputStream(body("""
+                username,email,password
+                tina,tina@example.com,p1
+                uma,uma@example.com,p2
+                vera,vera@example.com,p3
+                """), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        UserImportReport report = userImportService.importCsv(broken);
+
+        assertEquals(3, report.imported());
+        assertEquals(0, report.failed());
+        assertEquals(3L, report.aborted().lastGoodRow());
+        assertTrue(report.aborted().reason().contains("Connection reset"), report.aborted().reason());
+        assertEquals(List.of("tina", "uma", "vera"), usernames());
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        assertThrows(ValidationException.class,
+                () -> userImportService.importCsv(body("username,email\nmallory,mallory@example.com\n")));
+        assertEquals(0, userRepository.count());
+    }
+
+    private List<String> usernames() {
+        return userRepository.findAll().stream().map(User::getUsername).sorted().toList();
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,13 +4,16 @@ import com.matvey.cinema.cache.CacheKeys;
 import com.matvey.cinema.cache.InMemoryCache;
 import com.matvey.cinema.exception.CustomNotFoundException;
 import com.matvey.cinema.model.entities.User;
+import com.matvey.cinema.rating.MovieRatingAggregator;
 import com.matvey.cinema.repository.UserRepository;
+import com.matvey.cinema.search.SearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +31,12 @@ class UserServiceImplTest {
     @Mock
     private InMemoryCache cache;
 
+    @Mock
+    private MovieRatingAggregator ratingAggregator;
+
+    @Mock
+    private SearchIndex searchIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -135,4 +144,16 @@ class UserServiceImplTest {
         assertThrows(CustomNotFoundException.class, () -> userService.deleteById(userId));
         verify(userRepository, never()).deleteById(user.getId());
     }
+
+    @Test
+    void testFindPage_SeeksPastLastIdWithoutCache() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(40L, Limit.of(21)))
+                .thenReturn(Collections.singletonList(user));
+
+        List<User> page = userService.findPage(40L, 21);
+
+        assertEquals(List.of(user), page);
+        verify(userRepository, never()).findAll();
+        verifyNoInteractions(cache);
+    }
 }
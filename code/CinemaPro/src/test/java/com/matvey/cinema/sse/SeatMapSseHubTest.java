@@ -0,0 +1,117 @@
+package com.matvey.cinema.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.repository.ShowtimeRepository;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatMapSseHubTest {
+    private static final Long SHOWTIME_ID = 7L;
+    private static final String EMPTY_SNAPSHOT = "event:snapshot\ndata:{\"t\":[]}\n\n";
+
+    private SeatOccupancyRegistry occupancyRegistry;
+    private SeatMapSseHub hub;
+
+    @BeforeEach
+    void setUp() {
+        occupancyRegistry = mock(SeatOccupancyRegistry.class);
+        hub = new SeatMapSseHub(occupancyRegistry, mock(ShowtimeRepository.class), new ObjectMapper(), 60_000);
+    }
+
+    @Test
+    void everyWatcherGetsExactlyOneDeltaPerFlush() {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        hub.open(SHOWTIME_ID, first);
+        hub.open(SHOWTIME_ID, second);
+
+        hub.onSeatsOccupied(SHOWTIME_ID, List.of("1-1", "1-2"));
+        hub.onSeatsReleased(SHOWTIME_ID, List.of("1-2"));
+        hub.flush();
+
+        String expected = "event:delta\ndata:{\"t\":[\"1-1\"],\"f\":[\"1-2\"]}\n\n";
+        assertEquals(List.of(EMPTY_SNAPSHOT, expected), first.frames);
+        assertEquals(List.of(EMPTY_SNAPSHOT, expected), second.frames);
+
+        hub.onSeatsOccupied(SHOWTIME_ID, List.of("2-5"));
+        hub.flush();
+        assertEquals(3, first.frames.size());
+        assertEquals(3, second.frames.size());
+        assertEquals("event:delta\ndata:{\"t\":[\"2-5\"]}\n\n", second.frames.get(2));
+    }
+
+    @Test
+    void dropsShowtimeWhenLastWatcherLeaves() {
+        RecordingEmitter alive = new RecordingEmitter();
+        RecordingEmitter gone = new RecordingEmitter();
+        hub.open(SHOWTIME_ID, alive);
+        hub.open(SHOWTIME_ID, gone);
+        gone.disconnected = true;
+
+        hub.onSeatsOccupied(SHOWTIME_ID, List.of("3-3"));
+        hub.flush();
+        assertEquals(1, hub.watcherCount(SHOWTIME_ID));
+        assertEquals(2, alive.frames.size());
+
+        alive.disconnected = true;
+        hub.onSeatsOccupied(SHOWTIME_ID, List.of("3-4"));
+        hub.flush();
+        assertEquals(0, hub.watcherCount(SHOWTIME_ID));
+
+        // Без зрителей изменения больше не копятся
+        hub.onSeatsOccupied(SHOWTIME_ID, List.of("3-5"));
+        alive.disconnected = false;
+        hub.flush();
+        assertEquals(2, alive.frames.size());
+    }
+
+    @Test
+    void deltaFlushedWhileSnapshotIsReadFollowsTheSnapshot() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        // Покупка и рассылка успевают пройти, пока новый зритель читает снимок
+        when(occupancyRegistry.getOccupiedSeats(SHOWTIME_ID)).thenAnswer(invocation -> {
+            hub.onSeatsOccupied(SHOWTIME_ID, List.of("4-4"));
+            hub.flush();
+            return Set.of("4-4");
+        });
+
+        hub.open(SHOWTIME_ID, emitter);
+
+        assertEquals(List.of(
+                "event:snapshot\ndata:{\"t\":[\"4-4\"]}\n\n",
+                "event:delta\ndata:{\"t\":[\"4-4\"]}\n\n"), emitter.frames);
+
+        hub.onSeatsReleased(SHOWTIME_ID, List.of("4-4"));
+        hub.flush();
+        assertEquals("event:delta\ndata:{\"f\":[\"4-4\"]}\n\n", emitter.frames.get(2));
+    }
+
+    /**
+     * Emitter without a servlet response: records every frame written to it as text, or fails
+     * like a closed connection when {@code disconnected}.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new ArrayList<>();
+        private boolean disconnected;
+
+        @Override
+        public synchronized void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.matvey.cinema.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * JPA slice test against an in-memory H2 database with the schema generated from the entities,
+ * plus {@link TestData} for fixtures. Every test context gets a database of its own; tests that
+ * need more beans add {@code @Import} (usually {@link ServiceLayerTestConfig}), extra properties
+ * go to {@code @TestPropertySource}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest(properties = {
+    // Режим MySQL: схема сущностей использует MySQL-типы (TINYINT(1), TEXT) и ON DUPLICATE KEY UPDATE
+    "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TestData.class)
+public @interface CinemaJpaTest {
+}
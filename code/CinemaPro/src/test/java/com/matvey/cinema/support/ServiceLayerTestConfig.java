@@ -0,0 +1,36 @@
+package com.matvey.cinema.support;
+
+import com.matvey.cinema.cache.InMemoryCache;
+import com.matvey.cinema.cache.SeatOccupancyRegistry;
+import com.matvey.cinema.config.JacksonConfig;
+import com.matvey.cinema.datasource.ReplicaLagGuard;
+import com.matvey.cinema.rating.MovieRatingAggregator;
+import com.matvey.cinema.schedule.ShowtimeDurationPolicy;
+import com.matvey.cinema.schedule.TheaterOccupancyIndex;
+import com.matvey.cinema.schedule.UpcomingShowtimeIndex;
+import com.matvey.cinema.search.SearchIndex;
+import com.matvey.cinema.search.TitleSuggester;
+import com.matvey.cinema.service.impl.MovieServiceImpl;
+import com.matvey.cinema.service.impl.OutboxServiceImpl;
+import com.matvey.cinema.service.impl.PricingServiceImpl;
+import com.matvey.cinema.service.impl.ReviewServiceImpl;
+import com.matvey.cinema.service.impl.ShowtimeScheduleServiceImpl;
+import com.matvey.cinema.service.impl.ShowtimeServiceImpl;
+import com.matvey.cinema.service.impl.TicketServiceImpl;
+import com.matvey.cinema.service.impl.UserServiceImpl;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Domain services with the in-memory indexes and caches they keep in sync, for
+ * {@link CinemaJpaTest} tests that go through the service layer. A new collaborator of a
+ * service is registered here once instead of in every test.
+ */
+@TestConfiguration
+@Import({MovieServiceImpl.class, ReviewServiceImpl.class, UserServiceImpl.class, TicketServiceImpl.class,
+    ShowtimeServiceImpl.class, ShowtimeScheduleServiceImpl.class, PricingServiceImpl.class,
+    OutboxServiceImpl.class, SeatOccupancyRegistry.class, ReplicaLagGuard.class, InMemoryCache.class,
+    JacksonConfig.class, TheaterOccupancyIndex.class, UpcomingShowtimeIndex.class, ShowtimeDurationPolicy.class,
+    MovieRatingAggregator.class, SearchIndex.class, TitleSuggester.class})
+public class ServiceLayerTestConfig {
+}
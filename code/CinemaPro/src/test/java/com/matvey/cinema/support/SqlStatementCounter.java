@@ -0,0 +1,31 @@
+package com.matvey.cinema.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that records every SQL statement of the current thread.
+ * Registered with {@code @TestPropertySource(properties = SqlStatementCounter.ENABLED)}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    public static final String ENABLED = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.matvey.cinema.support.SqlStatementCounter";
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
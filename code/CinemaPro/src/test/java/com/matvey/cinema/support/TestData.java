@@ -0,0 +1,119 @@
+package com.matvey.cinema.support;
+
+import com.matvey.cinema.model.entities.Movie;
+import com.matvey.cinema.model.entities.Review;
+import com.matvey.cinema.model.entities.Seat;
+import com.matvey.cinema.model.entities.Showtime;
+import com.matvey.cinema.model.entities.Theater;
+import com.matvey.cinema.model.entities.Ticket;
+import com.matvey.cinema.model.entities.User;
+import java.math.BigDecimal;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+/**
+ * Test fixtures with the defaults every test used to repeat. Instance methods persist through
+ * {@link TestEntityManager} and need a transaction; the static {@code new*} methods only build
+ * the entity, for tests that save it through a service or repository.
+ */
+public class TestData {
+    public static final BigDecimal TICKET_PRICE = BigDecimal.valueOf(300);
+
+    private final TestEntityManager entityManager;
+
+    public TestData(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Movie movie(String title) {
+        return entityManager.persist(newMovie(title, null));
+    }
+
+    public Movie movie(String title, Integer durationMinutes) {
+        return entityManager.persist(newMovie(title, durationMinutes));
+    }
+
+    public Theater theater(String name) {
+        return entityManager.persist(newTheater(name));
+    }
+
+    public Seat seat(Theater theater, int row, int number) {
+        Seat seat = new Seat(row, number, true);
+        theater.addSeat(seat);
+        return entityManager.persist(seat);
+    }
+
+    public Showtime showtime(Movie movie, Theater theater, String dateTime) {
+        return entityManager.persist(newShowtime(movie, theater, dateTime));
+    }
+
+    public User user(String username) {
+        return entityManager.persist(newUser(username));
+    }
+
+    public Ticket ticket(Showtime showtime, User user, Seat seat, String seatNumber) {
+        return entityManager.persist(newTicket(showtime, user, seat, seatNumber));
+    }
+
+    public Review review(Movie movie, User user, int rating, String content) {
+        return entityManager.persist(newReview(movie, user, rating, content));
+    }
+
+    // Следующее чтение идёт в базу, а не в контекст персистентности
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    public static Movie newMovie(String title, Integer durationMinutes) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setDirector("Director");
+        movie.setReleaseYear(2020);
+        movie.setGenre("Drama");
+        movie.setDurationMinutes(durationMinutes);
+        return movie;
+    }
+
+    public static Theater newTheater(String name) {
+        Theater theater = new Theater();
+        theater.setName(name);
+        theater.setCapacity(50);
+        return theater;
+    }
+
+    public static Showtime newShowtime(Movie movie, Theater theater, String dateTime) {
+        Showtime showtime = new Showtime();
+        showtime.setMovie(movie);
+        showtime.setTheater(theater);
+        showtime.setDateTime(dateTime);
+        showtime.setType("2D");
+        return showtime;
+    }
+
+    public static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+
+    public static Ticket newTicket(Showtime showtime, User user, Seat seat, String seatNumber) {
+        Ticket ticket = new Ticket();
+        ticket.setShowtime(showtime);
+        ticket.setUser(user);
+        ticket.setSeat(seat);
+        ticket.setSeatNumber(seatNumber);
+        ticket.setPrice(TICKET_PRICE);
+        return ticket;
+    }
+
+    public static Review newReview(Movie movie, User user, int rating, String content) {
+        Review review = new Review();
+        review.setMovie(movie);
+        review.setUser(user);
+        review.setRating(rating);
+        review.setContent(content);
+        return review;
+    }
+}